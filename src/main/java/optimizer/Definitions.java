@@ -31,6 +31,15 @@ public class Definitions {
    public static final String FF = "FF";
    public static final String RF = "RF";
    public static final String GRD = "GRD";
+   public static final String FFD = "FFD"; // first-fit decreasing
+   public static final String BF = "BF"; // best-fit
+   public static final String WF = "WF"; // worst-fit
+   public static final String DLL = "DLL"; // delay-aware least-loaded
+   public static final String LPR = "LPR"; // lp relaxation rounding
+   public static final String LGR = "LGR"; // lagrangian decomposition
+   public static final String ONLINE = "ONLINE";
+   public static final int NUM_RANDOM_STARTS = 10;
+   public static final int PARALLEL_PATHS_THRESHOLD = 4;
    // scenarios journal
    public static final String JOURNAL_GRD_FIRST = "JOURNAL_GRD_FIRST";
    public static final String JOURNAL_LP_INIT = "JOURNAL_LP_INIT";
@@ -75,6 +84,13 @@ public class Definitions {
    public static final String gSVXY = "gSVXY";
    public static final String hSVP = "hSVP";
 
+   // blocked demands, with the resource that ran out
+   public static final String bSD = "bSD";
+   public static final String BLOCKED_LINK = "link";
+   public static final String BLOCKED_SERVER = "server";
+   public static final String BLOCKED_SYNC = "sync";
+   public static final String BLOCKED_STOPPED = "stopped";
+
    // general constraints
    public static final String RP1 = "RP1";
    public static final String RP2 = "RP2";
@@ -161,6 +177,48 @@ public class Definitions {
    public static final String SERVER_CAPACITY_TYPES = "server_capacity_types";
    public static final String COMPUTE_ISS = "compute_iss";
 
+   // heuristic run parameters
+   public static final String TIME_LIMIT = "time_limit"; // in seconds
+   public static final String INCUMBENT_TRACE = "incumbent_trace"; // writes <output>_trace.jsonl
+
+   // online parameters
+   public static final String ONLINE_ALGORITHM = "online_algorithm";
+   public static final String EVENTS_FILE_SUFFIX = "_events.txt";
+   public static final String EVENT_ARRIVE = "arrive";
+   public static final String EVENT_DEPART = "depart";
+
+   // lp parameters
+   public static final String LAZY_PF2 = "lazy_pf2"; // PF2 added in the callback only when violated
+   public static final String LAZY_FD3 = "lazy_fd3"; // FD3 added in the callback only when violated
+   public static final String LP_NAMES = "lp_names"; // names of variables and constraints given to the solver
+   public static final String SYMMETRY_BREAKING = "symmetry_breaking"; // orders interchangeable demands
+   public static final String PRESOLVE_PATH_DELAY = "presolve_path_delay"; // paths over max. propagation delay unused
+
+   // campaign parameters
+   public static final String LP_THREADS = "lp_threads"; // gurobi threads per model
+   public static final String ALG_THREADS = "alg_threads"; // threads per heuristic run
+   public static final String CAMPAIGN_CORES = "campaign_cores";
+
+   // decomposition parameters
+   public static final String DECOMPOSITION_GROUP_SIZE = "decomposition_group_size"; // services per subproblem
+   public static final String DECOMPOSITION_ITERATIONS = "decomposition_iterations";
+   public static final String DECOMPOSITION_STEP = "decomposition_step";
+
+   // local search parameters
+   public static final String LS_TIME_LIMIT = "ls_time_limit"; // in seconds
+   public static final String LS_MAX_ITERATIONS = "ls_max_iterations";
+   public static final String LS_ACCEPTANCE = "ls_acceptance";
+   public static final String LS_NEIGHBOURHOODS = "ls_neighbourhoods";
+   public static final String LS_INITIAL_TEMPERATURE = "ls_initial_temperature";
+   public static final String LS_COOLING_RATE = "ls_cooling_rate";
+   public static final String LS_TABU_TENURE = "ls_tabu_tenure";
+   public static final String LS_TABU_CANDIDATES = "ls_tabu_candidates";
+   public static final String LS_SA = "sa";
+   public static final String LS_TABU = "tabu";
+   public static final String LS_REROUTE = "reroute";
+   public static final String LS_RELOCATE = "relocate";
+   public static final String LS_MERGE = "merge";
+
    // GUI parameters
    public static final String NODE_COLOR = "Black";
    public static final String NODE_SHAPE = "ellipse";
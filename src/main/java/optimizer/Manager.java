@@ -7,6 +7,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import optimizer.algorithms.LauncherAlg;
+import optimizer.algorithms.LauncherDecomposition;
+import optimizer.algorithms.LauncherRounding;
+import optimizer.algorithms.MultiStartRunner;
+import optimizer.algorithms.TraceReplay;
 import optimizer.elements.TrafficFlow;
 import optimizer.gui.ResultsGUI;
 import optimizer.gui.Scenario;
@@ -21,7 +25,7 @@ import static optimizer.results.Auxiliary.printLog;
 public class Manager {
 
    private static final Logger log = LoggerFactory.getLogger(Manager.class);
-   private static boolean interrupted;
+   private static volatile boolean interrupted;
    private static Parameters pm;
 
    public static String readParameters(String graphNameForm) {
@@ -34,15 +38,25 @@ public class Manager {
 
    public static String readYamlFile(String path, String graphNameForm) {
       String[] graphName = graphNameForm.split("_");
+      pm = loadYamlFile(path, graphNameForm);
+      return graphName[0];
+   }
+
+   // returns new parameters without replacing the ones of the manager
+   public static Parameters loadYamlFile(String path, String graphNameForm) {
       try {
-         pm = ConfigFiles.readParameters(path + graphNameForm + ".yml");
+         return ConfigFiles.readParameters(path + graphNameForm + ".yml");
       } catch (Exception e) {
          printLog(log, ERROR, "error loading .yml file");
+         return null;
       }
-      return graphName[0];
    }
 
    public static void readTopologyFiles(String path, String graphName) {
+      loadTopologyFiles(pm, path, graphName);
+   }
+
+   public static void loadTopologyFiles(Parameters pm, String path, String graphName) {
       String[] extensions = new String[] { ".dgs", ".gml" };
       boolean isLoaded = false;
       for (int i = 0; i < extensions.length; i++) {
@@ -112,11 +126,15 @@ public class Manager {
       }
    }
 
+   // a stop request holds for the whole run, it is only cleared here when the next run starts
    public static void main(Scenario sce) {
       ResultsManager rm;
       String outputFileName;
+      reset();
       if (sce.getName().equals(LP) || sce.getName().equals(FF) || sce.getName().equals(RF)
-            || sce.getName().equals(GRD)) {
+            || sce.getName().equals(GRD) || sce.getName().equals(FFD) || sce.getName().equals(BF)
+            || sce.getName().equals(WF) || sce.getName().equals(DLL) || sce.getName().equals(LPR)
+            || sce.getName().equals(LGR) || sce.getName().equals(ONLINE)) {
          try {
             switch (sce.getName()) {
                case LP:
@@ -136,10 +154,18 @@ public class Manager {
                case RF:
                   readParameters(sce.getInputFileName());
                   rm = new ResultsManager(pm.getGraphName());
-                  for (int i = 0; i < 10; i++) {
-                     outputFileName = pm.getGraphName() + "_" + RF + "_" + sce.getObjFunc() + "_" + i;
-                     LauncherAlg.run(pm, sce, rm, null, outputFileName, false);
-                  }
+                  outputFileName = pm.getGraphName() + "_" + RF + "_" + sce.getObjFunc();
+                  MultiStartRunner.run(pm, sce, rm, null, outputFileName, NUM_RANDOM_STARTS, false);
+                  break;
+
+               case FFD:
+               case BF:
+               case WF:
+               case DLL:
+                  readParameters(sce.getInputFileName());
+                  rm = new ResultsManager(pm.getGraphName());
+                  outputFileName = pm.getGraphName() + "_" + sce.getName() + "_" + sce.getObjFunc();
+                  LauncherAlg.run(pm, sce, rm, null, outputFileName, false);
                   break;
 
                case GRD:
@@ -149,6 +175,28 @@ public class Manager {
                   LauncherAlg.run(pm, sce, rm, null, outputFileName, false);
                   break;
 
+               case LPR:
+                  readParameters(sce.getInputFileName());
+                  rm = new ResultsManager(pm.getGraphName());
+                  outputFileName = pm.getGraphName() + "_" + LPR + "_" + sce.getObjFunc();
+                  LauncherRounding.run(pm, sce, rm, outputFileName);
+                  break;
+
+               case LGR:
+                  readParameters(sce.getInputFileName());
+                  rm = new ResultsManager(pm.getGraphName());
+                  outputFileName = pm.getGraphName() + "_" + LGR + "_" + sce.getObjFunc();
+                  LauncherDecomposition.run(pm, sce, rm, outputFileName);
+                  break;
+
+               case ONLINE:
+                  readParameters(sce.getInputFileName());
+                  rm = new ResultsManager(pm.getGraphName());
+                  outputFileName = pm.getGraphName() + "_" + ONLINE + "_" + sce.getObjFunc();
+                  TraceReplay.run(pm, sce, rm, Auxiliary.getResourcesPath(sce.getInputFileName() + ".yml")
+                        + sce.getInputFileName() + EVENTS_FILE_SUFFIX, outputFileName);
+                  break;
+
                default:
                   printLog(log, INFO, "no algorithm selected");
                   break;
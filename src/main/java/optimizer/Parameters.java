@@ -37,6 +37,7 @@ public class Parameters {
    private List<Server> servers;
    private List<Service> services;
    private List<Path> paths;
+   private TopologyIndex topologyIndex;
    private int pathsTrafficFlow;
    private int demandsTrafficFlow;
    private int serviceLength;
@@ -103,6 +104,7 @@ public class Parameters {
          generateTrafficFlows();
          createSetOfServices();
          calculateAuxiliaryValues();
+         topologyIndex = new TopologyIndex(nodes, servers, paths, services);
          return true;
       } catch (Exception e) {
          log.warn("error generating parameters: " + e.toString());
@@ -269,6 +271,7 @@ public class Parameters {
             }
             break;
          }
+      function.setProfile(new FunctionProfile(function));
       return function;
    }
 
@@ -318,6 +321,10 @@ public class Parameters {
       return seeds.get(seedCounter);
    }
 
+   public Long getSeed(int index) {
+      return seeds.get(index % seeds.size());
+   }
+
    public Object getGlobal(String key) {
       return global.get(key);
    }
@@ -374,6 +381,10 @@ public class Parameters {
       return edges;
    }
 
+   public TopologyIndex getTopologyIndex() {
+      return topologyIndex;
+   }
+
    public int getPathsTrafficFlow() {
       return pathsTrafficFlow;
    }
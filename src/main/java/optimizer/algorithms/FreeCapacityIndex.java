@@ -0,0 +1,79 @@
+package optimizer.algorithms;
+
+import java.util.Arrays;
+import java.util.List;
+
+import optimizer.elements.TopologyIndex;
+
+// max segment tree per node over the free capacity of its servers, leaves keep the node server order
+public class FreeCapacityIndex {
+
+   // free capacities are compared with some slack, callers check the exact utilization of the returned servers
+   private static final double EPSILON = 1e-9;
+
+   private final double[] capacity;
+   // node -> offset of its tree, trees are 1-based heaps with leafCount[n] leaves
+   private final int[] treeStart;
+   private final int[] leafCount;
+   private final double[] tree;
+   private final int[] treeServer;
+   // server -> position of its leaf in the tree of its node
+   private final int[] leafPosition;
+   private final int[] serverNode;
+
+   public FreeCapacityIndex(TopologyIndex ti, int numNodes, double[] capacity) {
+      this.capacity = capacity;
+      treeStart = new int[numNodes + 1];
+      leafCount = new int[numNodes];
+      for (int n = 0; n < numNodes; n++) {
+         int servers = ti.getNodeServersEnd(n) - ti.getNodeServersStart(n);
+         leafCount[n] = 1;
+         while (leafCount[n] < servers)
+            leafCount[n] <<= 1;
+         treeStart[n + 1] = treeStart[n] + 2 * leafCount[n];
+      }
+      tree = new double[treeStart[numNodes]];
+      treeServer = new int[treeStart[numNodes]];
+      Arrays.fill(tree, Double.NEGATIVE_INFINITY);
+      Arrays.fill(treeServer, -1);
+      leafPosition = new int[capacity.length];
+      serverNode = new int[capacity.length];
+      for (int n = 0; n < numNodes; n++)
+         for (int i = ti.getNodeServersStart(n); i < ti.getNodeServersEnd(n); i++) {
+            int x = ti.getNodeServer(i);
+            serverNode[x] = n;
+            leafPosition[x] = leafCount[n] + i - ti.getNodeServersStart(n);
+            treeServer[treeStart[n] + leafPosition[x]] = x;
+            update(x, 0);
+         }
+   }
+
+   public void update(int x, double utilization) {
+      int base = treeStart[serverNode[x]];
+      int pos = leafPosition[x];
+      tree[base + pos] = (1.0 - utilization) * capacity[x];
+      for (pos >>= 1; pos >= 1; pos >>= 1)
+         tree[base + pos] = Math.max(tree[base + 2 * pos], tree[base + 2 * pos + 1]);
+   }
+
+   public double getFreeCapacity(int x) {
+      return tree[treeStart[serverNode[x]] + leafPosition[x]];
+   }
+
+   // adds, in node server order, the servers of node n with at least the required free capacity
+   public void addServersWithFreeCapacity(int n, double required, List<Integer> servers) {
+      addServersWithFreeCapacity(n, 1, required, servers);
+   }
+
+   private void addServersWithFreeCapacity(int n, int pos, double required, List<Integer> servers) {
+      int base = treeStart[n];
+      if (tree[base + pos] + EPSILON < required)
+         return;
+      if (pos >= leafCount[n]) {
+         servers.add(treeServer[base + pos]);
+         return;
+      }
+      addServersWithFreeCapacity(n, 2 * pos, required, servers);
+      addServersWithFreeCapacity(n, 2 * pos + 1, required, servers);
+   }
+}
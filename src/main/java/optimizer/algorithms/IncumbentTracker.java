@@ -0,0 +1,114 @@
+package optimizer.algorithms;
+
+import static optimizer.Definitions.*;
+import static optimizer.results.Auxiliary.printLog;
+
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import optimizer.Manager;
+import optimizer.Parameters;
+import optimizer.gui.ResultsGUI;
+import optimizer.results.Auxiliary;
+import optimizer.results.ResultsManager;
+
+// deadline and stop checks for the heuristic loops, improving solutions are published to the GUI and to a
+// JSON-lines trace
+public class IncumbentTracker {
+
+   private static final Logger log = LoggerFactory.getLogger(IncumbentTracker.class);
+
+   private final long startTime;
+   private final double deadline;
+   private final PrintWriter trace;
+   private final ObjectMapper mapper;
+   private double bestObjVal;
+   private boolean stopped;
+
+   public IncumbentTracker(double timeLimit, PrintWriter trace) {
+      this.startTime = System.currentTimeMillis();
+      this.deadline = timeLimit > 0 ? startTime + timeLimit * 1000 : Double.POSITIVE_INFINITY;
+      this.trace = trace;
+      this.mapper = new ObjectMapper();
+      this.bestObjVal = Double.POSITIVE_INFINITY;
+   }
+
+   // time limit (in seconds) of the run taken from the global section, the trace file is only written when a time
+   // limit or the incumbent trace is set
+   public static IncumbentTracker forRun(Parameters pm, ResultsManager resultsManager, String traceFileName) {
+      double timeLimit = 0;
+      if (pm.getGlobal(TIME_LIMIT) != null)
+         timeLimit = ((Number) pm.getGlobal(TIME_LIMIT)).doubleValue();
+      boolean incumbentTrace = pm.getGlobal(INCUMBENT_TRACE) != null && (boolean) pm.getGlobal(INCUMBENT_TRACE);
+      if (timeLimit <= 0 && !incumbentTrace)
+         return unbounded();
+      return new IncumbentTracker(timeLimit, resultsManager.getPrinterFromPlainTextFile(traceFileName, ".jsonl"));
+   }
+
+   public static IncumbentTracker unbounded() {
+      return new IncumbentTracker(0, null);
+   }
+
+   public boolean shouldStop() {
+      if (!stopped && (Manager.isInterrupted() || System.currentTimeMillis() > deadline)) {
+         stopped = true;
+         if (Manager.isInterrupted())
+            printLog(log, WARNING, "stop requested, keeping best solution found so far");
+         else
+            printLog(log, WARNING, "time limit reached, keeping best solution found so far");
+      }
+      return stopped;
+   }
+
+   public synchronized void publish(VariablesAlg vars, String phase) {
+      if (vars.objVal >= bestObjVal)
+         return;
+      bestObjVal = vars.objVal;
+      double[] luSummary = summary(vars.uL);
+      double[] xuSummary = summary(vars.uX);
+      Map<String, Object> incumbent = new LinkedHashMap<>();
+      incumbent.put("time", System.currentTimeMillis() - startTime);
+      incumbent.put("phase", phase);
+      incumbent.put("objective_value", bestObjVal);
+      incumbent.put("lu_avg", luSummary[0]);
+      incumbent.put("lu_max", luSummary[1]);
+      incumbent.put("xu_avg", xuSummary[0]);
+      incumbent.put("xu_max", xuSummary[1]);
+      ResultsGUI.log("incumbent [" + Auxiliary.roundDouble(bestObjVal, 4) + "] lu [" + luSummary[0] + "/"
+            + luSummary[1] + "] xu [" + xuSummary[0] + "/" + xuSummary[1] + "]");
+      if (trace != null)
+         try {
+            trace.println(mapper.writeValueAsString(incumbent));
+            trace.flush();
+         } catch (JsonProcessingException e) {
+            printLog(log, ERROR, "writing incumbent trace: " + e.getMessage());
+         }
+   }
+
+   // average and maximum utilization
+   private static double[] summary(double[] utilization) {
+      double sum = 0, max = 0;
+      for (double u : utilization) {
+         sum += u;
+         max = Math.max(max, u);
+      }
+      double avg = utilization.length > 0 ? sum / utilization.length : 0;
+      return new double[] { Auxiliary.roundDouble(avg, 4), Auxiliary.roundDouble(max, 4) };
+   }
+
+   public double getBestObjVal() {
+      return bestObjVal;
+   }
+
+   public void close() {
+      if (trace != null)
+         trace.close();
+   }
+}
@@ -0,0 +1,29 @@
+package optimizer.algorithms;
+
+import optimizer.Parameters;
+
+// collision-free packed keys for primitive maps indexed by [s][d], [s][d][p] and [s][d][p][v]
+public class IndexKeys {
+
+   private final long demands;
+   private final long paths;
+   private final long functions;
+
+   public IndexKeys(Parameters pm) {
+      demands = pm.getDemandsTrafficFlow();
+      paths = pm.getPathsTrafficFlow();
+      functions = pm.getServiceLength();
+   }
+
+   public long key(int s, int d) {
+      return s * demands + d;
+   }
+
+   public long key(int s, int d, int p) {
+      return key(s, d) * paths + p;
+   }
+
+   public long key(int s, int d, int p, int v) {
+      return key(s, d, p) * functions + v;
+   }
+}
@@ -3,6 +3,7 @@ package optimizer.algorithms;
 import optimizer.Parameters;
 import optimizer.Definitions;
 import optimizer.algorithms.heuristics.HeuristicAlgorithm;
+import optimizer.algorithms.heuristics.LocalSearchEngine;
 import optimizer.gui.ResultsGUI;
 import optimizer.gui.Scenario;
 import optimizer.results.Auxiliary;
@@ -12,6 +13,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.PrintWriter;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static optimizer.Definitions.*;
 import static optimizer.results.Auxiliary.printLog;
@@ -22,17 +25,62 @@ public class LauncherAlg {
 
    public static VariablesAlg run(Parameters pm, Scenario sce, ResultsManager resultsManager,
          VariablesAlg varsInitPlacement, String outputFileName, boolean printMST) {
+      double startTime = System.currentTimeMillis();
+      IncumbentTracker tracker = IncumbentTracker.forRun(pm, resultsManager, outputFileName + "_trace");
+      ForkJoinPool evaluationPool = createEvaluationPool(getThreads(pm));
+      VariablesAlg vars;
+      try {
+         vars = optimize(pm, sce, varsInitPlacement, new Random(), tracker, evaluationPool);
+      } finally {
+         if (evaluationPool != null)
+            evaluationPool.shutdown();
+         tracker.close();
+      }
+      double elapsedTime = System.currentTimeMillis() - startTime;
+      export(pm, sce, resultsManager, vars, outputFileName, elapsedTime, printMST);
+      return vars;
+   }
+
+   // threads of a heuristic run, all available processors unless set in the global section
+   static int getThreads(Parameters pm) {
+      if (pm.getGlobal(ALG_THREADS) != null)
+         return Math.max(1, (int) pm.getGlobal(ALG_THREADS));
+      return Runtime.getRuntime().availableProcessors();
+   }
+
+   // a single thread evaluates in the calling thread, so no pool is needed
+   static ForkJoinPool createEvaluationPool(int threads) {
+      if (threads < 2)
+         return null;
+      return new ForkJoinPool(threads);
+   }
+
+   // the evaluations of the heuristics run in the given pool, or in the calling thread if the pool is null
+   public static VariablesAlg optimize(Parameters pm, Scenario sce, VariablesAlg varsInitPlacement, Random rnd,
+         IncumbentTracker tracker, ForkJoinPool evaluationPool) {
       VariablesAlg vars = new VariablesAlg(pm, varsInitPlacement, sce.getObjFunc());
       NetworkManager networkManager = new NetworkManager(pm, vars);
-      HeuristicAlgorithm heuristicAlgorithm = new HeuristicAlgorithm(pm, vars, networkManager);
-      double startTime = System.currentTimeMillis();
+      networkManager.setEvaluationPool(evaluationPool);
+      HeuristicAlgorithm heuristicAlgorithm = new HeuristicAlgorithm(pm, vars, networkManager, rnd);
+      heuristicAlgorithm.setIncumbentTracker(tracker);
       printLog(log, INFO, "starting " + sce.getName() + " algorithm...");
       if (sce.getName().contains(GRD)) {
          heuristicAlgorithm.allocateServicesGreedy(sce.getName());
       } else {
          heuristicAlgorithm.allocateServices(sce.getName());
       }
-      double elapsedTime = System.currentTimeMillis() - startTime;
+      vars.updatePenalties();
+      tracker.publish(vars, sce.getName());
+      if (LocalSearchEngine.isConfigured(pm, sce.getObjFunc())) {
+         LocalSearchEngine localSearchEngine = new LocalSearchEngine(pm, vars, networkManager, rnd);
+         localSearchEngine.setIncumbentTracker(tracker);
+         localSearchEngine.run();
+      }
+      return vars;
+   }
+
+   static void export(Parameters pm, Scenario sce, ResultsManager resultsManager, VariablesAlg vars,
+         String outputFileName, double elapsedTime, boolean printMST) {
       vars.generateRestOfVariablesForResults();
       Auxiliary.printLog(log, INFO, "finished [" + Auxiliary.roundDouble(vars.objVal, 4) + "]");
       Auxiliary.printLog(log, INFO, "generating results...");
@@ -43,7 +91,6 @@ public class LauncherAlg {
          exportResultsToMST(pm, resultsManager, outputFileName, vars);
       ResultsGUI.updateResults(results);
       Auxiliary.printLog(log, INFO, "done");
-      return vars;
    }
 
    private static Results generateResults(Parameters pm, Scenario sc, VariablesAlg heu,
@@ -53,10 +100,11 @@ public class LauncherAlg {
       results.setVariable(uL, heu.lu);
       results.setVariable(uX, heu.xu);
       results.setVariable(zSPD, heu.zSPD);
-      results.setVariable(fXSVD, heu.fXSVD);
+      results.setVariable(fXSVD, heu.xSVD);
       results.setVariable(fX, heu.fX);
       results.setVariable(fXSV, heu.fXSV);
       results.setVariable(zSP, heu.zSP);
+      results.setVariable(bSD, heu.blockedSD);
       // results.setVariable(oX, heu.oX);
       // results.setVariable(oSV, heu.oSV);
       // results.setVariable(qSDP, heu.qSDP);
@@ -93,7 +141,7 @@ public class LauncherAlg {
             for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
                for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
                   writeVarToFile(pw, Definitions.fXSVD + "[" + x + "][" + s + "][" + v + "][" + d + "] ",
-                        heu.fXSVD[x][s][v][d]);
+                        heu.xSVD[s][v][d] == x);
 
       for (int s = 0; s < pm.getServices().size(); s++)
          for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
@@ -101,12 +149,13 @@ public class LauncherAlg {
                for (int y = 0; y < pm.getServers().size(); y++)
                   if (!pm.getServers().get(x).getParent().equals(pm.getServers().get(y).getParent()))
                      writeVarToFile(pw, Definitions.gSVXY + "[" + s + "][" + v + "][" + x + "][" + y + "] ",
-                           heu.gSVXY[s][v][x][y]);
+                           heu.syncPathsSV[s][v].containsKey(VariablesAlg.syncPairKey(x, y)));
 
       for (int s = 0; s < pm.getServices().size(); s++)
          for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
             for (int p = 0; p < pm.getPaths().size(); p++)
-               writeVarToFile(pw, Definitions.hSVP + "[" + s + "][" + v + "][" + p + "] ", heu.hSVP[s][v][p]);
+               writeVarToFile(pw, Definitions.hSVP + "[" + s + "][" + v + "][" + p + "] ",
+                     heu.syncPathsSV[s][v].containsValue(p));
       pw.close();
    }
 
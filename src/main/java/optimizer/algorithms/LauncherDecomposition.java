@@ -0,0 +1,213 @@
+package optimizer.algorithms;
+
+import static optimizer.Definitions.*;
+import static optimizer.results.Auxiliary.printLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import gurobi.GRBException;
+import optimizer.Manager;
+import optimizer.Parameters;
+import optimizer.gui.Scenario;
+import optimizer.lp.Presolve;
+import optimizer.lp.SubproblemLP;
+import optimizer.results.Auxiliary;
+import optimizer.results.ResultsManager;
+
+// solves one small model per group of services, the link and server capacities shared between groups are relaxed
+// with lagrangian multipliers updated by subgradient steps, the last subproblem solutions are repaired greedily
+public class LauncherDecomposition {
+
+   private static final Logger log = LoggerFactory.getLogger(LauncherDecomposition.class);
+   // constraints that neither the subproblems nor the repair enforce
+   private static final String[] UNSUPPORTED_CONSTRAINTS = { MAX_SERV_DELAY, SINGLE_PATH, SET_INIT_PLC, FORCE_SRC,
+         FORCE_DST, CONST_REP, PATHS_SERVERS_CLOUD };
+
+   private int groups;
+   private int iterations;
+   private double lowerBound;
+   private double objVal;
+   private double gap;
+   private double decompositionTime;
+   private double repairTime;
+   @JsonIgnore
+   private VariablesAlg vars;
+
+   public static VariablesAlg run(Parameters pm, Scenario sce, ResultsManager resultsManager, String outputFileName) {
+      LauncherDecomposition decomposition = decompose(pm, sce, resultsManager, outputFileName);
+      if (decomposition == null)
+         return null;
+      return decomposition.vars;
+   }
+
+   // the bound and the repaired solution are kept together so that they can be compared
+   static LauncherDecomposition decompose(Parameters pm, Scenario sce, ResultsManager resultsManager,
+         String outputFileName) {
+      double[] weights = LauncherRounding.objectiveWeights(sce.getObjFunc());
+      if (weights == null) {
+         printLog(log, ERROR, "objective function not supported by the decomposition [" + sce.getObjFunc() + "]");
+         return null;
+      }
+      for (String constraint : UNSUPPORTED_CONSTRAINTS)
+         if (Boolean.TRUE.equals(sce.getConstraints().get(constraint))) {
+            printLog(log, ERROR, "constraint not supported by the decomposition [" + constraint + "]");
+            return null;
+         }
+      LauncherDecomposition decomposition = new LauncherDecomposition();
+      double startTime = System.currentTimeMillis();
+      int groupSize = (int) globalNumber(pm, DECOMPOSITION_GROUP_SIZE, 1);
+      int maxIterations = (int) globalNumber(pm, DECOMPOSITION_ITERATIONS, 20);
+      double step = globalNumber(pm, DECOMPOSITION_STEP, 1.0);
+      List<SubproblemLP> subproblems = new ArrayList<>();
+      try {
+         printLog(log, INFO, "building subproblems");
+         Presolve presolve = new Presolve(pm, sce);
+         for (int s = 0; s < pm.getServices().size(); s += groupSize)
+            subproblems.add(new SubproblemLP(pm, sce, presolve,
+                  IntStream.range(s, Math.min(s + groupSize, pm.getServices().size())).toArray()));
+      } catch (GRBException e) {
+         printLog(log, ERROR, "building subproblems: " + e.getMessage());
+         dispose(subproblems);
+         return null;
+      }
+      decomposition.groups = subproblems.size();
+      double[] linkMultipliers = new double[pm.getLinks().size()];
+      double[] serverMultipliers = new double[pm.getServers().size()];
+      double[][][] zSPDvalues = new double[pm.getServices().size()][][];
+      double[][][][] fXSVDvalues = new double[pm.getServers().size()][pm.getServices().size()][][];
+      for (int s = 0; s < pm.getServices().size(); s++) {
+         int paths = pm.getServices().get(s).getTrafficFlow().getPaths().size();
+         int demands = pm.getServices().get(s).getTrafficFlow().getDemands().size();
+         zSPDvalues[s] = new double[paths][demands];
+         for (int x = 0; x < pm.getServers().size(); x++)
+            fXSVDvalues[x][s] = new double[pm.getServices().get(s).getFunctions().size()][demands];
+      }
+      decomposition.lowerBound = Double.NEGATIVE_INFINITY;
+      printLog(log, INFO, "solving " + subproblems.size() + " subproblems...");
+      for (int k = 0; k < maxIterations && !Manager.isInterrupted(); k++) {
+         double[] bounds = new double[subproblems.size()];
+         boolean[] solved = new boolean[subproblems.size()];
+         IntStream.range(0, subproblems.size()).parallel().forEach(i -> {
+            try {
+               subproblems.get(i).setObjective(weights[0], weights[1], linkMultipliers, serverMultipliers);
+               solved[i] = subproblems.get(i).solve();
+               bounds[i] = subproblems.get(i).getObjBound();
+            } catch (GRBException e) {
+               printLog(log, ERROR, "subproblem [" + i + "]: " + e.getMessage());
+            }
+         });
+         if (!allTrue(solved)) {
+            printLog(log, ERROR, "decomposition stopped, subproblems without solution at iteration [" + k + "]");
+            break;
+         }
+         double[] uL = new double[pm.getLinks().size()];
+         double[] uX = new double[pm.getServers().size()];
+         double bound = 0;
+         try {
+            for (int i = 0; i < subproblems.size(); i++) {
+               bound += bounds[i];
+               subproblems.get(i).addUtilization(uL, uX);
+               subproblems.get(i).getSolution(zSPDvalues, fXSVDvalues);
+            }
+         } catch (GRBException e) {
+            printLog(log, ERROR, "reading subproblems: " + e.getMessage());
+            break;
+         }
+         for (double lambda : linkMultipliers)
+            bound -= lambda;
+         for (double mu : serverMultipliers)
+            bound -= mu;
+         decomposition.lowerBound = Math.max(decomposition.lowerBound, bound);
+         decomposition.iterations = k + 1;
+         double stepSize = step / (k + 1);
+         for (int l = 0; l < linkMultipliers.length; l++)
+            linkMultipliers[l] = Math.max(0, linkMultipliers[l] + stepSize * (uL[l] - 1));
+         for (int x = 0; x < serverMultipliers.length; x++)
+            serverMultipliers[x] = Math.max(0, serverMultipliers[x] + stepSize * (uX[x] - 1));
+         printLog(log, INFO, "iteration [" + k + "] bound [" + Auxiliary.roundDouble(bound, 4) + "]");
+      }
+      dispose(subproblems);
+      decomposition.decompositionTime = (System.currentTimeMillis() - startTime) / 1000;
+
+      double repairStartTime = System.currentTimeMillis();
+      printLog(log, INFO, "repairing subproblem solutions...");
+      VariablesAlg vars = LauncherRounding.repair(pm, sce, zSPDvalues, fXSVDvalues);
+      decomposition.vars = vars;
+      decomposition.repairTime = (System.currentTimeMillis() - repairStartTime) / 1000;
+      // the bound and the repaired solution are evaluated with the same objective
+      decomposition.objVal = LauncherRounding.modelObjVal(vars, weights);
+      if (decomposition.objVal != 0 && decomposition.iterations > 0)
+         decomposition.gap = Math.abs(decomposition.objVal - decomposition.lowerBound)
+               / Math.abs(decomposition.objVal);
+      printLog(log, INFO, "lower bound [" + Auxiliary.roundDouble(decomposition.lowerBound, 4) + "] repaired ["
+            + Auxiliary.roundDouble(decomposition.objVal, 4) + "] gap ["
+            + Auxiliary.roundDouble(decomposition.gap * 100, 2) + "%]");
+      resultsManager.exportJsonObject(outputFileName + "_decomposition", decomposition);
+      LauncherAlg.export(pm, sce, resultsManager, vars, outputFileName, System.currentTimeMillis() - startTime,
+            false);
+      return decomposition;
+   }
+
+   private static double globalNumber(Parameters pm, String key, double defaultValue) {
+      Object value = pm.getGlobal(key);
+      if (value == null)
+         return defaultValue;
+      return ((Number) value).doubleValue();
+   }
+
+   private static boolean allTrue(boolean[] values) {
+      for (boolean value : values)
+         if (!value)
+            return false;
+      return true;
+   }
+
+   private static void dispose(List<SubproblemLP> subproblems) {
+      for (SubproblemLP subproblem : subproblems)
+         try {
+            subproblem.dispose();
+         } catch (GRBException e) {
+            printLog(log, ERROR, "disposing subproblem: " + e.getMessage());
+         }
+   }
+
+   public int getGroups() {
+      return groups;
+   }
+
+   public int getIterations() {
+      return iterations;
+   }
+
+   public double getLowerBound() {
+      return lowerBound;
+   }
+
+   public double getObjVal() {
+      return objVal;
+   }
+
+   public double getGap() {
+      return gap;
+   }
+
+   public double getDecompositionTime() {
+      return decompositionTime;
+   }
+
+   public double getRepairTime() {
+      return repairTime;
+   }
+
+   @JsonIgnore
+   public VariablesAlg getVars() {
+      return vars;
+   }
+}
@@ -0,0 +1,189 @@
+package optimizer.algorithms;
+
+import static optimizer.Definitions.*;
+import static optimizer.results.Auxiliary.printLog;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.collections.impl.list.Interval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gurobi.GRB;
+import gurobi.GRBEnv;
+import gurobi.GRBException;
+import gurobi.GRBModel;
+import gurobi.GRBVar;
+import optimizer.Parameters;
+import optimizer.algorithms.heuristics.HeuristicAlgorithm;
+import optimizer.gui.Scenario;
+import optimizer.lp.LauncherLP;
+import optimizer.lp.ModelLP;
+import optimizer.lp.VariablesLP;
+import optimizer.results.Auxiliary;
+import optimizer.results.ResultsManager;
+
+// solves the continuous relaxation of the model and repairs it greedily, demands and candidates are taken in order
+// of their fractional routing and placement values
+public class LauncherRounding {
+
+   private static final Logger log = LoggerFactory.getLogger(LauncherRounding.class);
+
+   private double relaxationBound;
+   private double objVal;
+   private double gap;
+   private double relaxationTime;
+   private double repairTime;
+
+   public static VariablesAlg run(Parameters pm, Scenario sce, ResultsManager resultsManager, String outputFileName)
+         throws GRBException {
+      double[] weights = objectiveWeights(sce.getObjFunc());
+      if (weights == null) {
+         printLog(log, ERROR, "objective function not supported by the rounding [" + sce.getObjFunc() + "]");
+         return null;
+      }
+      LauncherRounding rounding = new LauncherRounding();
+      double startTime = System.currentTimeMillis();
+      ModelLP modelLP = LauncherLP.buildModel(pm, sce, null, false);
+      VariablesLP variablesLP = modelLP.getVars();
+      modelLP.addLazyConstraintsAsRows();
+      modelLP.setObjectiveFunction(LauncherLP.generateExprForObjectiveFunction(pm, modelLP, sce.getObjFunc(), null),
+            sce.isMaximization());
+      modelLP.getGrbModel().update();
+      printLog(log, INFO, "solving relaxation");
+      GRBModel relaxed = modelLP.getGrbModel().relax();
+      relaxed.optimize();
+      if (relaxed.get(GRB.IntAttr.Status) != GRB.Status.OPTIMAL) {
+         printLog(log, ERROR, "relaxation not solved [" + relaxed.get(GRB.IntAttr.Status) + "]");
+         relaxed.dispose();
+         dispose(modelLP);
+         return null;
+      }
+      rounding.relaxationBound = relaxed.get(GRB.DoubleAttr.ObjVal);
+      // variables of the relaxed model keep the order of the original ones
+      double[] values = relaxed.get(GRB.DoubleAttr.X, relaxed.getVars());
+      double[][][] zSPDrelaxed = new double[pm.getServices().size()][][];
+      double[][][][] fXSVDrelaxed = new double[pm.getServers().size()][pm.getServices().size()][][];
+      for (int s = 0; s < pm.getServices().size(); s++) {
+         int paths = pm.getServices().get(s).getTrafficFlow().getPaths().size();
+         int demands = pm.getServices().get(s).getTrafficFlow().getDemands().size();
+         int functions = pm.getServices().get(s).getFunctions().size();
+         zSPDrelaxed[s] = new double[paths][demands];
+         for (int p = 0; p < paths; p++)
+            for (int d = 0; d < demands; d++)
+               zSPDrelaxed[s][p][d] = value(values, variablesLP.zSPD[s][p][d]);
+         for (int x = 0; x < pm.getServers().size(); x++) {
+            fXSVDrelaxed[x][s] = new double[functions][demands];
+            for (int v = 0; v < functions; v++)
+               for (int d = 0; d < demands; d++)
+                  fXSVDrelaxed[x][s][v][d] = value(values, variablesLP.fXSVD[x][s][v][d]);
+         }
+      }
+      relaxed.dispose();
+      dispose(modelLP);
+      rounding.relaxationTime = (System.currentTimeMillis() - startTime) / 1000;
+
+      double repairStartTime = System.currentTimeMillis();
+      printLog(log, INFO, "rounding relaxation...");
+      VariablesAlg vars = repair(pm, sce, zSPDrelaxed, fXSVDrelaxed);
+      rounding.repairTime = (System.currentTimeMillis() - repairStartTime) / 1000;
+      rounding.objVal = modelObjVal(vars, weights);
+      if (rounding.objVal != 0)
+         rounding.gap = Math.abs(rounding.objVal - rounding.relaxationBound) / Math.abs(rounding.objVal);
+      printLog(log, INFO, "relaxation bound [" + Auxiliary.roundDouble(rounding.relaxationBound, 4) + "] rounded ["
+            + Auxiliary.roundDouble(rounding.objVal, 4) + "] gap [" + Auxiliary.roundDouble(rounding.gap * 100, 2)
+            + "%]");
+      resultsManager.exportJsonObject(outputFileName + "_rounding", rounding);
+      LauncherAlg.export(pm, sce, resultsManager, vars, outputFileName, System.currentTimeMillis() - startTime,
+            false);
+      return vars;
+   }
+
+   // allocates all demands following the given routing and placement values, paths and servers with higher values
+   // are preferred and the missing capacity is handled by the network manager
+   static VariablesAlg repair(Parameters pm, Scenario sce, double[][][] zSPDvalues, double[][][][] fXSVDvalues) {
+      VariablesAlg vars = new VariablesAlg(pm, null, sce.getObjFunc());
+      NetworkManager networkManager = new NetworkManager(pm, vars);
+      HeuristicAlgorithm heuristicAlgorithm = new HeuristicAlgorithm(pm, vars, networkManager);
+      heuristicAlgorithm.registerStrategies(LPR,
+            (s, d, paths, lastTry) -> paths.stream().max(Comparator.comparingDouble(p -> zSPDvalues[s][p][d]))
+                  .orElse(-1),
+            (servers, s, v, d, lastTry) -> servers.stream()
+                  .max(Comparator.comparingDouble(x -> fXSVDvalues[x][s][v][d])).orElse(-1));
+      for (int s = 0; s < pm.getServices().size(); s++) {
+         // demands routed with more certainty are placed first
+         double[][] zPD = zSPDvalues[s];
+         List<Integer> demands = Interval.zeroTo(pm.getServices().get(s).getTrafficFlow().getDemands().size() - 1)
+               .toList();
+         demands.sort(Comparator.comparingDouble((Integer d) -> maxOverPaths(zPD, d)).reversed());
+         for (int d : demands)
+            if (pm.getServices().get(s).getTrafficFlow().getAux().get(d))
+               heuristicAlgorithm.allocateSingleDemand(LPR, s, d);
+         networkManager.addSyncTraffic(s);
+         Auxiliary.showLogProgress(log, s + 1, pm.getServices().size());
+      }
+      return vars;
+   }
+
+   // weights of replications and functions in the cloud, as in the objective of the full model without an initial
+   // placement, null if the repaired solutions cannot be evaluated with the objective of the model
+   static double[] objectiveWeights(String objFunc) {
+      switch (objFunc) {
+         case MGR:
+            return new double[] { 0.001, 0.001 };
+         case REP:
+            return new double[] { 1.0, 0.001 };
+         case CLOUD:
+            return new double[] { 0.001, 1.0 };
+         case MGR_REP_CLOUD:
+            return new double[] { 1.0, 1.0 };
+         default:
+            return null;
+      }
+   }
+
+   // objective of the full model without an initial placement, no function is migrated
+   static double modelObjVal(VariablesAlg vars, double[] weights) {
+      return weights[0] * vars.replications + weights[1] * vars.functionsCloud;
+   }
+
+   private static void dispose(ModelLP modelLP) throws GRBException {
+      GRBEnv env = modelLP.getGrbModel().getEnv();
+      modelLP.getGrbModel().dispose();
+      env.dispose();
+   }
+
+   private static double value(double[] values, GRBVar var) {
+      if (var == null)
+         return 0;
+      return values[var.index()];
+   }
+
+   private static double maxOverPaths(double[][] zPD, int d) {
+      double max = 0;
+      for (double[] zD : zPD)
+         max = Math.max(max, zD[d]);
+      return max;
+   }
+
+   public double getRelaxationBound() {
+      return relaxationBound;
+   }
+
+   public double getObjVal() {
+      return objVal;
+   }
+
+   public double getGap() {
+      return gap;
+   }
+
+   public double getRelaxationTime() {
+      return relaxationTime;
+   }
+
+   public double getRepairTime() {
+      return repairTime;
+   }
+}
@@ -0,0 +1,158 @@
+package optimizer.algorithms;
+
+import org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+
+// undo log of the state changes applied by NetworkManager, entries are stored as [args..., op]
+class MoveJournal {
+
+   private static final int XSVD = 0;
+   private static final int REPLICA_COUNT = 1;
+   private static final int ADD_REPLICA = 2;
+   private static final int REMOVE_REPLICA = 3;
+   private static final int SERVER_LOAD = 4;
+   private static final int LINK_LOAD = 5;
+   private static final int ZSPD = 6;
+   private static final int ZSP = 7;
+   private static final int SYNC_PATH = 8;
+   private static final int SYNC_DIRTY = 9;
+   static final int NO_SYNC_PATH = -2;
+
+   private final IntArrayList ints;
+   private final DoubleArrayList doubles;
+   // int log size per open move, doubles are consumed together with their op
+   private final IntArrayList marks;
+
+   MoveJournal() {
+      ints = new IntArrayList();
+      doubles = new DoubleArrayList();
+      marks = new IntArrayList();
+   }
+
+   boolean isActive() {
+      return !marks.isEmpty();
+   }
+
+   void begin() {
+      marks.add(ints.size());
+   }
+
+   void commit() {
+      marks.removeAtIndex(marks.size() - 1);
+      if (marks.isEmpty()) {
+         ints.clear();
+         doubles.clear();
+      }
+   }
+
+   void rollback(VariablesAlg vars) {
+      int intsMark = marks.removeAtIndex(marks.size() - 1);
+      while (ints.size() > intsMark) {
+         int op = pop();
+         switch (op) {
+         case XSVD: {
+            int old = pop(), d = pop(), v = pop(), s = pop();
+            vars.xSVD[s][v][d] = old;
+            break;
+         }
+         case REPLICA_COUNT: {
+            int delta = pop(), x = pop(), v = pop(), s = pop();
+            vars.replicasSV[s][v].addToValue(x, -delta);
+            break;
+         }
+         case ADD_REPLICA: {
+            boolean dirty = pop() == 1;
+            int v = pop(), x = pop(), s = pop();
+            vars.removeReplica(s, x, v);
+            vars.syncDirtySV[s][v] = dirty;
+            break;
+         }
+         case REMOVE_REPLICA: {
+            boolean dirty = pop() == 1;
+            int v = pop(), x = pop(), s = pop();
+            vars.addReplica(s, x, v);
+            vars.syncDirtySV[s][v] = dirty;
+            break;
+         }
+         case SERVER_LOAD:
+            vars.addServerLoad(pop(), -doubles.removeAtIndex(doubles.size() - 1));
+            break;
+         case LINK_LOAD:
+            vars.uL[pop()] -= doubles.removeAtIndex(doubles.size() - 1);
+            break;
+         case ZSPD: {
+            boolean old = pop() == 1;
+            int d = pop(), p = pop(), s = pop();
+            vars.zSPD[s][p][d] = old;
+            break;
+         }
+         case ZSP: {
+            boolean old = pop() == 1;
+            int p = pop(), s = pop();
+            vars.zSP[s][p] = old;
+            break;
+         }
+         case SYNC_PATH: {
+            int old = pop(), y = pop(), x = pop(), v = pop(), s = pop();
+            if (old == NO_SYNC_PATH)
+               vars.syncPathsSV[s][v].remove(VariablesAlg.syncPairKey(x, y));
+            else
+               vars.syncPathsSV[s][v].put(VariablesAlg.syncPairKey(x, y), old);
+            break;
+         }
+         case SYNC_DIRTY: {
+            boolean old = pop() == 1;
+            int v = pop(), s = pop();
+            vars.syncDirtySV[s][v] = old;
+            break;
+         }
+         }
+      }
+   }
+
+   private int pop() {
+      return ints.removeAtIndex(ints.size() - 1);
+   }
+
+   void recordXSVD(int s, int v, int d, int old) {
+      ints.addAll(s, v, d, old, XSVD);
+   }
+
+   void recordReplicaCount(int s, int v, int x, int delta) {
+      ints.addAll(s, v, x, delta, REPLICA_COUNT);
+   }
+
+   void recordAddReplica(int s, int x, int v, boolean oldDirty) {
+      ints.addAll(s, x, v, oldDirty ? 1 : 0, ADD_REPLICA);
+   }
+
+   void recordRemoveReplica(int s, int x, int v, boolean oldDirty) {
+      ints.addAll(s, x, v, oldDirty ? 1 : 0, REMOVE_REPLICA);
+   }
+
+   void recordServerLoad(int x, double load) {
+      doubles.add(load);
+      ints.addAll(x, SERVER_LOAD);
+   }
+
+   void recordLinkLoad(int l, double delta) {
+      doubles.add(delta);
+      ints.addAll(l, LINK_LOAD);
+   }
+
+   void recordZSPD(int s, int p, int d, boolean old) {
+      ints.addAll(s, p, d, old ? 1 : 0, ZSPD);
+   }
+
+   void recordZSP(int s, int p, boolean old) {
+      ints.addAll(s, p, old ? 1 : 0, ZSP);
+   }
+
+   void recordSyncPath(int s, int v, int x, int y, int old) {
+      ints.addAll(s, v, x, y, old, SYNC_PATH);
+   }
+
+   void recordSyncDirty(int s, int v, boolean old) {
+      ints.addAll(s, v, old ? 1 : 0, SYNC_DIRTY);
+   }
+}
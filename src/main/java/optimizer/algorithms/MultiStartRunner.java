@@ -0,0 +1,171 @@
+package optimizer.algorithms;
+
+import static optimizer.Definitions.*;
+import static optimizer.results.Auxiliary.printLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import optimizer.Parameters;
+import optimizer.gui.Scenario;
+import optimizer.results.Auxiliary;
+import optimizer.results.ResultsManager;
+
+public class MultiStartRunner {
+
+   private static final Logger log = LoggerFactory.getLogger(MultiStartRunner.class);
+
+   @JsonIgnore
+   private VariablesAlg best;
+   private int bestStart;
+   private long[] seeds;
+   private double[] objValues;
+   private double[] computationTimes;
+   private boolean[] failed;
+
+   private MultiStartRunner(int numStarts) {
+      bestStart = -1;
+      seeds = new long[numStarts];
+      objValues = new double[numStarts];
+      computationTimes = new double[numStarts];
+      failed = new boolean[numStarts];
+   }
+
+   // runs independent seeded starts in parallel, each start is exported as outputFileName_i
+   public static MultiStartRunner run(Parameters pm, Scenario sce, ResultsManager resultsManager,
+         VariablesAlg varsInitPlacement, String outputFileName, int numStarts, boolean printMST) {
+      return run(pm, sce, resultsManager, outputFileName, numStarts, printMST,
+            (rnd, tracker, evaluationPool) -> LauncherAlg.optimize(pm, sce, varsInitPlacement, rnd, tracker,
+                  evaluationPool));
+   }
+
+   // the optimization of a start is given apart so that it can be replaced in the tests
+   static MultiStartRunner run(Parameters pm, Scenario sce, ResultsManager resultsManager, String outputFileName,
+         int numStarts, boolean printMST, StartOptimizer optimizer) {
+      MultiStartRunner runner = new MultiStartRunner(numStarts);
+      // the threads of the run are shared among the starts running at the same time
+      int threads = LauncherAlg.getThreads(pm);
+      int parallelStarts = Math.min(numStarts, threads);
+      int evaluationThreads = threads / parallelStarts;
+      List<Callable<VariablesAlg>> starts = new ArrayList<>();
+      for (int i = 0; i < numStarts; i++) {
+         int start = i;
+         runner.seeds[i] = pm.getSeed(i);
+         starts.add(() -> {
+            double startTime = System.currentTimeMillis();
+            IncumbentTracker tracker = IncumbentTracker.forRun(pm, resultsManager,
+                  outputFileName + "_" + start + "_trace");
+            ForkJoinPool evaluationPool = LauncherAlg.createEvaluationPool(evaluationThreads);
+            try {
+               return optimizer.optimize(new Random(runner.seeds[start]), tracker, evaluationPool);
+            } finally {
+               if (evaluationPool != null)
+                  evaluationPool.shutdown();
+               tracker.close();
+               runner.computationTimes[start] = System.currentTimeMillis() - startTime;
+            }
+         });
+      }
+      ForkJoinPool pool = new ForkJoinPool(parallelStarts);
+      try {
+         List<Future<VariablesAlg>> futures = pool.invokeAll(starts);
+         for (int i = 0; i < numStarts; i++) {
+            VariablesAlg vars;
+            try {
+               vars = futures.get(i).get();
+            } catch (ExecutionException e) {
+               // a failed start does not stop the others, the best is chosen among the starts that finished
+               printLog(log, ERROR, "start [" + i + "] failed: " + e.getCause());
+               runner.failed[i] = true;
+               runner.objValues[i] = Double.NaN;
+               runner.computationTimes[i] /= 1000;
+               continue;
+            }
+            LauncherAlg.export(pm, sce, resultsManager, vars, outputFileName + "_" + i, runner.computationTimes[i],
+                  printMST);
+            runner.objValues[i] = vars.objVal;
+            runner.computationTimes[i] /= 1000;
+            if (runner.best == null || vars.objVal < runner.best.objVal) {
+               runner.best = vars;
+               runner.bestStart = i;
+            }
+         }
+      } catch (InterruptedException e) {
+         printLog(log, ERROR, "multi-start run interrupted: " + e.getMessage());
+         Thread.currentThread().interrupt();
+      } finally {
+         pool.shutdown();
+      }
+      printLog(log, INFO, numStarts + " starts finished, " + runner.getNumFailed() + " failed, best ["
+            + Auxiliary.roundDouble(runner.getBestObjVal(), 4) + "] mean ["
+            + Auxiliary.roundDouble(runner.getMeanObjVal(), 4) + "]");
+      resultsManager.exportJsonObject(outputFileName + "_starts", runner);
+      return runner;
+   }
+
+   interface StartOptimizer {
+      VariablesAlg optimize(Random rnd, IncumbentTracker tracker, ForkJoinPool evaluationPool);
+   }
+
+   @JsonIgnore
+   public VariablesAlg getBest() {
+      return best;
+   }
+
+   public int getBestStart() {
+      return bestStart;
+   }
+
+   public double getBestObjVal() {
+      if (best == null)
+         return Double.NaN;
+      return best.objVal;
+   }
+
+   public double getMeanObjVal() {
+      double sum = 0;
+      int finished = 0;
+      for (int i = 0; i < objValues.length; i++)
+         if (!failed[i]) {
+            sum += objValues[i];
+            finished++;
+         }
+      if (finished == 0)
+         return Double.NaN;
+      return sum / finished;
+   }
+
+   public int getNumFailed() {
+      int numFailed = 0;
+      for (boolean f : failed)
+         if (f)
+            numFailed++;
+      return numFailed;
+   }
+
+   public long[] getSeeds() {
+      return seeds;
+   }
+
+   public double[] getObjValues() {
+      return objValues;
+   }
+
+   public double[] getComputationTimes() {
+      return computationTimes;
+   }
+
+   public boolean[] getFailed() {
+      return failed;
+   }
+}
@@ -6,6 +6,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.graphstream.graph.Edge;
 
@@ -23,10 +27,39 @@ public class NetworkManager {
 
    protected Parameters pm;
    protected VariablesAlg vars;
+   private MoveJournal journal;
+   private ForkJoinPool evaluationPool;
 
    public NetworkManager(Parameters pm, VariablesAlg variablesAlg) {
       this.pm = pm;
       this.vars = variablesAlg;
+      this.journal = new MoveJournal();
+   }
+
+   // pool of the run for the parallel evaluations, without pool they run in the calling thread
+   public void setEvaluationPool(ForkJoinPool evaluationPool) {
+      this.evaluationPool = evaluationPool;
+   }
+
+   // evaluates the candidates in the pool of the run if parallel, the results keep the order of the candidates
+   public <T> List<T> evaluate(int numCandidates, boolean parallel, IntFunction<T> candidate) {
+      if (evaluationPool == null || !parallel)
+         return IntStream.range(0, numCandidates).mapToObj(candidate).collect(Collectors.toList());
+      return evaluationPool.submit(
+            () -> IntStream.range(0, numCandidates).parallel().mapToObj(candidate).collect(Collectors.toList()))
+            .join();
+   }
+
+   public void beginMove() {
+      journal.begin();
+   }
+
+   public void commitMove() {
+      journal.commit();
+   }
+
+   public void rollbackMove() {
+      journal.rollback(vars);
    }
 
    public void addDemandToFunctionsToSpecificServers(int s, int d, List<Integer> specificServers) {
@@ -37,41 +70,81 @@ public class NetworkManager {
    }
 
    public void removeDemandToFunctionToServer(int s, int x, int v, int d) {
-      Server server = pm.getServers().get(x);
       double trafficDemand = pm.getServices().get(s).getTrafficFlow().getDemands().get(d)
-            * (double) pm.getServices().get(s).getFunctions().get(v).getAttribute(FUNCTION_LOAD_RATIO);
-      vars.fXSVD[x][s][v][d] = false;
-      vars.uX.put(server.getId(), vars.uX.get(server.getId()) - (trafficDemand / server.getCapacity()));
+            * pm.getServices().get(s).getFunctions().get(v).getProfile().getLoadRatio();
+      setServerForDemand(s, v, d, -1);
+      addReplicaDemands(s, v, x, -1);
+      addServerLoad(x, -trafficDemand);
    }
 
    public void removeDemandFromAllFunctionsToServer(int s, int d) {
       for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
-         for (int x = 0; x < pm.getServers().size(); x++) {
-            if (vars.fXSVD[x][s][v][d]) {
-               removeDemandToFunctionToServer(s, x, v, d);
-               break;
-            }
-         }
+         if (vars.xSVD[s][v][d] != -1)
+            removeDemandToFunctionToServer(s, vars.xSVD[s][v][d], v, d);
    }
 
    public void addDemandToFunctionToServer(int s, int x, int v, int d) {
-      Server server = pm.getServers().get(x);
       double trafficDemand = pm.getServices().get(s).getTrafficFlow().getDemands().get(d)
-            * (double) pm.getServices().get(s).getFunctions().get(v).getAttribute(FUNCTION_LOAD_RATIO);
-      vars.fXSVD[x][s][v][d] = true;
+            * pm.getServices().get(s).getFunctions().get(v).getProfile().getLoadRatio();
+      setServerForDemand(s, v, d, x);
       if (!vars.fXSV[x][s][v])
          assignFunctionToServer(s, x, v);
-      vars.uX.put(server.getId(), vars.uX.get(server.getId()) + (trafficDemand / server.getCapacity()));
+      addReplicaDemands(s, v, x, 1);
+      addServerLoad(x, trafficDemand);
    }
 
    private void assignFunctionToServer(int s, int x, int v) {
-      Server server = pm.getServers().get(x);
-      vars.fXSV[x][s][v] = true;
-      Function function = pm.getServices().get(s).getFunctions().get(v);
-      double overhead = (double) function.getAttribute(FUNCTION_OVERHEAD_RATIO)
-            * (int) function.getAttribute(FUNCTION_MAX_BW) * (int) function.getAttribute(FUNCTION_MAX_DEM)
-            * (double) function.getAttribute(FUNCTION_LOAD_RATIO);
-      vars.uX.put(server.getId(), vars.uX.get(server.getId()) + (overhead / server.getCapacity()));
+      if (journal.isActive())
+         journal.recordAddReplica(s, x, v, vars.syncDirtySV[s][v]);
+      vars.addReplica(s, x, v);
+      addServerLoad(x, pm.getServices().get(s).getFunctions().get(v).getProfile().getOverhead());
+   }
+
+   private void setServerForDemand(int s, int v, int d, int x) {
+      if (journal.isActive())
+         journal.recordXSVD(s, v, d, vars.xSVD[s][v][d]);
+      vars.xSVD[s][v][d] = x;
+   }
+
+   private void addReplicaDemands(int s, int v, int x, int delta) {
+      if (journal.isActive())
+         journal.recordReplicaCount(s, v, x, delta);
+      vars.replicasSV[s][v].addToValue(x, delta);
+   }
+
+   private void addServerLoad(int x, double load) {
+      if (journal.isActive())
+         journal.recordServerLoad(x, load);
+      vars.addServerLoad(x, load);
+   }
+
+   private void addPathLoad(Path path, double traffic) {
+      for (Edge pathLink : path.getEdgePath()) {
+         double utilization = traffic * vars.linkCapacityInv[pathLink.getIndex()];
+         if (journal.isActive())
+            journal.recordLinkLoad(pathLink.getIndex(), utilization);
+         vars.uL[pathLink.getIndex()] += utilization;
+      }
+   }
+
+   private void setSyncDirty(int s, int v, boolean dirty) {
+      if (journal.isActive())
+         journal.recordSyncDirty(s, v, vars.syncDirtySV[s][v]);
+      vars.syncDirtySV[s][v] = dirty;
+   }
+
+   private void putSyncPath(int s, int v, long pair, int p) {
+      if (journal.isActive())
+         journal.recordSyncPath(s, v, VariablesAlg.syncPairSrc(pair), VariablesAlg.syncPairDst(pair),
+               vars.syncPathsSV[s][v].getIfAbsent(pair, MoveJournal.NO_SYNC_PATH));
+      vars.syncPathsSV[s][v].put(pair, p);
+   }
+
+   private void removeSyncPath(int s, int v, long pair) {
+      if (journal.isActive())
+         journal.recordSyncPath(s, v, VariablesAlg.syncPairSrc(pair), VariablesAlg.syncPairDst(pair),
+               vars.syncPathsSV[s][v].get(pair));
+      vars.syncPathsSV[s][v].remove(pair);
    }
 
    public List<Integer> getAvailablePaths(int s, int d) {
@@ -82,44 +155,55 @@ public class NetworkManager {
       for (int p = 0; p < tf.getPaths().size(); p++) // for every admissible path
          if (checkIfFreePathResources(tf.getPaths().get(p), trafficDemand)) // add paths with free path link resources
             availablePaths.add(p);
-      if (availablePaths.isEmpty()) { // if no path found, block
-         // TO-DO blocking !!
-         Auxiliary.printLog(log, ERROR, "no available path found for [s][d] = [" + s + "][" + d + "]");
-         System.exit(-1);
-      }
       return availablePaths;
    }
 
+   public void blockDemand(int s, int d, String resource) {
+      vars.blockedSD[s][d] = resource;
+      Auxiliary.printLog(log, WARNING, "demand blocked, no " + resource + " resources for [s][d] = [" + s + "][" + d
+            + "]");
+   }
+
+   public void unblockDemand(int s, int d) {
+      vars.blockedSD[s][d] = null;
+   }
+
+   public boolean isDemandBlocked(int s, int d) {
+      return vars.blockedSD[s][d] != null;
+   }
+
+   // blocks the demands of service s that are still not routed, used when a run is stopped before finishing
+   public void blockUnroutedDemands(int s, String reason) {
+      int blocked = 0;
+      for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++) {
+         if (!pm.getServices().get(s).getTrafficFlow().getAux().get(d) || isDemandBlocked(s, d))
+            continue;
+         boolean routed = false;
+         for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+            if (vars.zSPD[s][p][d]) {
+               routed = true;
+               break;
+            }
+         if (!routed) {
+            vars.blockedSD[s][d] = reason;
+            blocked++;
+         }
+      }
+      if (blocked > 0)
+         Auxiliary.printLog(log, WARNING, blocked + " demands of service [" + s + "] blocked, " + reason);
+   }
+
    public void removeUnusedFunctions(int s) {
-      for (int x = 0; x < pm.getServers().size(); x++)
-         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
-            boolean usedServer = false;
-            for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
-               if (vars.fXSVD[x][s][v][d]) {
-                  usedServer = true;
-                  break;
-               }
-            if (!usedServer && vars.fXSV[x][s][v])
+      for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+         for (int x : vars.replicasSV[s][v].keySet().toSortedArray())
+            if (vars.replicasSV[s][v].get(x) == 0)
                removeFunctionFromServer(s, x, v);
-         }
    }
 
    public List<List<Integer>> findServersForFunctionsInPath(int s, int d, int p) {
       List<List<Integer>> availableServersPerFunction = new ArrayList<>();
-      for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
-         int nStartLimit = 0;
-         int nEndLimit = pm.getServices().get(s).getTrafficFlow().getPaths().get(p).getNodePath().size() - 1;
-         int index;
-         if (v > 0)
-            if ((index = getNodeIndexFromFunction(s, d, p, v - 1)) != -1)
-               nStartLimit = index;
-         if (v < pm.getServices().get(s).getFunctions().size() - 1)
-            if ((index = getNodeIndexFromFunction(s, d, p, v + 1)) != -1)
-               nEndLimit = index;
-         int numOfFunctions = pm.getServices().get(s).getFunctions().size() - v;
-         List<Integer> availableServers = getAvailableServers(s, p, d, v, nStartLimit, nEndLimit, numOfFunctions, true);
-         availableServersPerFunction.add(availableServers);
-      }
+      for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+         availableServersPerFunction.add(findServersForFunctionInPath(s, d, p, v));
       // check if functions have at least one server
       for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
          if (availableServersPerFunction.get(v).isEmpty())
@@ -127,6 +211,20 @@ public class NetworkManager {
       return availableServersPerFunction;
    }
 
+   private List<Integer> findServersForFunctionInPath(int s, int d, int p, int v) {
+      int nStartLimit = 0;
+      int nEndLimit = pm.getServices().get(s).getTrafficFlow().getPaths().get(p).getNodePath().size() - 1;
+      int index;
+      if (v > 0)
+         if ((index = getNodeIndexFromFunction(s, d, p, v - 1)) != -1)
+            nStartLimit = index;
+      if (v < pm.getServices().get(s).getFunctions().size() - 1)
+         if ((index = getNodeIndexFromFunction(s, d, p, v + 1)) != -1)
+            nEndLimit = index;
+      int numOfFunctions = pm.getServices().get(s).getFunctions().size() - v;
+      return getAvailableServers(s, p, d, v, nStartLimit, nEndLimit, numOfFunctions, true);
+   }
+
    public List<Integer> findServersForSpecificFunction(int s, int d, int p, int v, boolean considerOverhead,
          boolean isForIndividualFunction) {
       int numOfFunctions = pm.getServices().get(s).getFunctions().size() - v;
@@ -145,27 +243,28 @@ public class NetworkManager {
    }
 
    public int getNodeIndexFromFunction(int s, int d, int p, int v) {
-      int nodeIndex = -1;
-      Path path = pm.getServices().get(s).getTrafficFlow().getPaths().get(p);
-      for (int n = 0; n < path.getNodePath().size(); n++)
-         for (int x = 0; x < pm.getServers().size(); x++)
-            if (pm.getServers().get(x).getParent().equals(path.getNodePath().get(n)))
-               if (vars.fXSVD[x][s][v][d])
-                  nodeIndex = n;
-      return nodeIndex;
+      if (vars.xSVD[s][v][d] == -1)
+         return -1;
+      return pm.getTopologyIndex().getServerPosition(s, p, vars.xSVD[s][v][d]);
    }
 
    public Map<Integer, List<List<Integer>>> findAdmissiblePathsServersMap(List<Integer> availablePaths, int s, int d) {
+      int numOfFunctions = pm.getServices().get(s).getFunctions().size();
+      // every (path, function) pair only reads the current state, so they are evaluated in parallel when there are
+      // enough paths and the map is built afterwards in the calling thread
+      List<List<Integer>> serversPerCandidate = evaluate(availablePaths.size() * numOfFunctions,
+            availablePaths.size() >= PARALLEL_PATHS_THRESHOLD,
+            i -> findServersForFunctionInPath(s, d, availablePaths.get(i / numOfFunctions), i % numOfFunctions));
       Map<Integer, List<List<Integer>>> admissiblePaths = new HashMap<>();
-      for (Integer p : availablePaths) {
-         List<List<Integer>> availableServersPerFunction = findServersForFunctionsInPath(s, d, p);
-         if (availableServersPerFunction != null)// if there are servers, add path
-            admissiblePaths.put(p, availableServersPerFunction);
-      }
-      if (admissiblePaths.isEmpty()) {
-         // TO-DO blocking
-         Auxiliary.printLog(log, ERROR, "no admissible path available for [s][d] = [" + s + "][" + d + "]");
-         System.exit(-1);
+      for (int i = 0; i < availablePaths.size(); i++) {
+         List<List<Integer>> availableServersPerFunction = serversPerCandidate.subList(i * numOfFunctions,
+               (i + 1) * numOfFunctions);
+         boolean hasServers = true;
+         for (List<Integer> availableServers : availableServersPerFunction)
+            if (availableServers.isEmpty())
+               hasServers = false;
+         if (hasServers) // if there are servers, add path
+            admissiblePaths.put(availablePaths.get(i), new ArrayList<>(availableServersPerFunction));
       }
       return admissiblePaths;
    }
@@ -184,59 +283,87 @@ public class NetworkManager {
          if (isPathAvailable)
             admissiblePaths.add(p);
       }
-      if (admissiblePaths.isEmpty()) {
-         // TO-DO blocking
-         Auxiliary.printLog(log, ERROR, "no admissible path available for [s][d] = [" + s + "][" + d + "]");
-         System.exit(-1);
-      }
       return admissiblePaths;
    }
 
-   public void addSyncTraffic(int s) {
+   // returns false if the sync traffic between some replicas does not fit in any path
+   public boolean addSyncTraffic(int s) {
+      boolean routed = true;
       for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
-         for (int x = 0; x < pm.getServers().size(); x++)
-            for (int y = 0; y < pm.getServers().size(); y++) {
-               if (pm.getServers().get(x).getParent().equals(pm.getServers().get(y).getParent()))
-                  continue;
-               if (vars.fXSV[x][s][v] && vars.fXSV[y][s][v]) {
-                  vars.gSVXY[s][v][x][y] = true;
-                  // calculate the sync traffic
-                  double syncTraffic = calculateSyncTraffic(s, v);
-                  // search an available path for the sync traffic
-                  boolean foundSyncPath = false;
-                  for (int p = 0; p < pm.getPaths().size(); p++) {
-                     Path path = pm.getPaths().get(p);
-                     if (path.getNodePath().get(0).equals(pm.getServers().get(x).getParent()) & path.getNodePath()
-                           .get(path.getNodePath().size() - 1).equals(pm.getServers().get(y).getParent()))
-                        if (checkIfFreePathResources(path, syncTraffic)) {
-                           assignSyncTraffic(s, v, p, syncTraffic);
-                           foundSyncPath = true;
-                           break;
-                        }
-                  }
-                  if (!foundSyncPath)
-                     Auxiliary.printLog(log, ERROR, "No available path found for sync traffic"); // blocking
-               }
-            }
+         routed &= addSyncTraffic(s, v);
+      return routed;
+   }
+
+   // returns false if the sync traffic between some replicas does not fit in any path
+   public boolean updateSyncTraffic(int s) {
+      boolean routed = true;
+      for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+         if (vars.syncDirtySV[s][v]) {
+            releaseSyncPaths(s, v, false);
+            routed &= addSyncTraffic(s, v);
+         }
+      return routed;
    }
 
    public void removeSyncTraffic(int s) {
-      Service service = pm.getServices().get(s);
-      for (int v = 0; v < service.getFunctions().size(); v++)
-         for (int x = 0; x < pm.getServers().size(); x++)
-            for (int y = 0; y < pm.getServers().size(); y++) {
-               if (pm.getServers().get(x).getParent().equals(pm.getServers().get(y).getParent()))
-                  continue;
-               if (vars.gSVXY[s][v][x][y]) {
-                  // calculate the sync traffic
-                  double syncTraffic = calculateSyncTraffic(s, v);
-                  for (int p = 0; p < pm.getPaths().size(); p++)
-                     if (vars.hSVP[s][v][p]) {
-                        unAssignSyncTraffic(s, v, p, syncTraffic);
-                        break;
-                     }
+      for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
+         releaseSyncPaths(s, v, true);
+         setSyncDirty(s, v, true);
+      }
+   }
+
+   private boolean addSyncTraffic(int s, int v) {
+      TopologyIndex ti = pm.getTopologyIndex();
+      setSyncDirty(s, v, false);
+      boolean routed = true;
+      double syncTraffic = Double.NaN;
+      int[] replicas = vars.replicasSV[s][v].keySet().toSortedArray();
+      for (int x : replicas)
+         for (int y : replicas) {
+            int src = ti.getServerNode(x);
+            int dst = ti.getServerNode(y);
+            long pair = VariablesAlg.syncPairKey(x, y);
+            if (src == dst || vars.syncPathsSV[s][v].containsKey(pair))
+               continue;
+            // calculate the sync traffic
+            if (Double.isNaN(syncTraffic))
+               syncTraffic = calculateSyncTraffic(s, v);
+            // search an available path for the sync traffic
+            int syncPath = -1;
+            for (int i = ti.getEndpointPathsStart(src, dst); i < ti.getEndpointPathsEnd(src, dst); i++)
+               if (checkIfFreePathResources(pm.getPaths().get(ti.getEndpointPath(i)), syncTraffic)) {
+                  syncPath = ti.getEndpointPath(i);
+                  assignSyncTraffic(syncPath, syncTraffic);
+                  break;
                }
+            putSyncPath(s, v, pair, syncPath);
+            if (syncPath == -1) {
+               Auxiliary.printLog(log, WARNING, "no path for the sync traffic of [s][v] = [" + s + "][" + v
+                     + "] between servers [" + x + "][" + y + "]");
+               routed = false;
             }
+         }
+      // the pairs without path are tried again with the next update
+      if (!routed)
+         setSyncDirty(s, v, true);
+      return routed;
+   }
+
+   // releases all sync paths of [s][v], or only those of removed replicas and blocked pairs
+   private void releaseSyncPaths(int s, int v, boolean all) {
+      double syncTraffic = Double.NaN;
+      for (long pair : vars.syncPathsSV[s][v].keySet().toArray()) {
+         int p = vars.syncPathsSV[s][v].get(pair);
+         if (!all && p != -1 && vars.replicasSV[s][v].containsKey(VariablesAlg.syncPairSrc(pair))
+               && vars.replicasSV[s][v].containsKey(VariablesAlg.syncPairDst(pair)))
+            continue;
+         removeSyncPath(s, v, pair);
+         if (p == -1)
+            continue;
+         if (Double.isNaN(syncTraffic))
+            syncTraffic = calculateSyncTraffic(s, v);
+         unAssignSyncTraffic(p, syncTraffic);
+      }
    }
 
    private double calculateSyncTraffic(int s, int v) {
@@ -244,53 +371,52 @@ public class NetworkManager {
       double syncTraffic = 0;
       for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
          syncTraffic += service.getTrafficFlow().getDemands().get(d);
-      return syncTraffic * (double) service.getFunctions().get(v).getAttribute(FUNCTION_SYNC_LOAD_RATIO);
+      return syncTraffic * service.getFunctions().get(v).getProfile().getSyncLoadRatio();
    }
 
-   private void assignSyncTraffic(int s, int v, int p, double syncTraffic) {
-      for (Edge pathLink : pm.getPaths().get(p).getEdgePath())
-         vars.uL.put(pathLink.getId(),
-               vars.uL.get(pathLink.getId()) + (syncTraffic / (int) pathLink.getAttribute(LINK_CAPACITY)));
-      vars.hSVP[s][v][p] = true;
+   private void assignSyncTraffic(int p, double syncTraffic) {
+      addPathLoad(pm.getPaths().get(p), syncTraffic);
    }
 
-   private void unAssignSyncTraffic(int s, int v, int p, double syncTraffic) {
-      for (Edge pathLink : pm.getPaths().get(p).getEdgePath())
-         vars.uL.put(pathLink.getId(),
-               vars.uL.get(pathLink.getId()) - (syncTraffic / (int) pathLink.getAttribute(LINK_CAPACITY)));
-      vars.hSVP[s][v][p] = false;
+   private void unAssignSyncTraffic(int p, double syncTraffic) {
+      addPathLoad(pm.getPaths().get(p), -syncTraffic);
    }
 
    public int getNodePathIndexFromServer(int s, int p, int x) {
-      int nodeIndex = -1;
-      Service service = pm.getServices().get(s);
-      Path path = service.getTrafficFlow().getPaths().get(p);
-      for (int n = 0; n < path.getNodePath().size(); n++)
-         if (pm.getServers().get(x).getParent().equals(path.getNodePath().get(n)))
-            nodeIndex = n;
-      return nodeIndex;
+      return pm.getTopologyIndex().getServerPosition(s, p, x);
    }
 
    private List<Integer> getAvailableServers(int s, int p, int d, int v, int nStartLimit, int nEndLimit,
          int numOfFunctions, boolean considerOverhead) {
-      Path path = pm.getServices().get(s).getTrafficFlow().getPaths().get(p);
+      TopologyIndex ti = pm.getTopologyIndex();
+      int[] pathNodes = ti.getPathNodes(s, p);
+      double resourcesToAdd = resourcesToExpandFunction(s, v, d, numOfFunctions, considerOverhead);
+      int xUsed = vars.xSVD[s][v][d];
       List<Integer> availableServers = new ArrayList<>();
-      for (int n = nStartLimit; n <= nEndLimit; n++)
-         for (int x = 0; x < pm.getServers().size(); x++)
-            if (pm.getServers().get(x).getParent().equals(path.getNodePath().get(n))) {
-               if (vars.fXSVD[x][s][v][d])
-                  availableServers.add(x);
-               else if (vars.fXSV[x][s][v] || !vars.fXSVD[x][s][v][d])
-                  if (checkIfFreeResourcesToExpandFunction(s, x, v, d, numOfFunctions, considerOverhead))
-                     availableServers.add(x);
-            }
+      for (int n = nStartLimit; n <= nEndLimit; n++) {
+         int first = availableServers.size();
+         vars.freeCapacity.addServersWithFreeCapacity(pathNodes[n], resourcesToAdd, availableServers);
+         for (int i = availableServers.size() - 1; i >= first; i--) {
+            int x = availableServers.get(i);
+            if (x != xUsed && vars.uX[x] + resourcesToAdd * vars.serverCapacityInv[x] > 1.0)
+               availableServers.remove(i);
+         }
+         // the server already used by the demand is always available
+         if (xUsed != -1 && ti.getServerNode(xUsed) == pathNodes[n]
+               && !availableServers.subList(first, availableServers.size()).contains(xUsed)) {
+            int i = first;
+            while (i < availableServers.size() && availableServers.get(i) < xUsed)
+               i++;
+            availableServers.add(i, xUsed);
+         }
+      }
       return availableServers;
    }
 
    private boolean checkIfFreePathResources(Path path, double trafficDemand) {
       boolean isAvailable = true;
       for (Edge pathLink : path.getEdgePath())
-         if (vars.uL.get(pathLink.getId()) + (trafficDemand / (int) pathLink.getAttribute(LINK_CAPACITY)) >= 1.0) {
+         if (vars.uL[pathLink.getIndex()] + trafficDemand * vars.linkCapacityInv[pathLink.getIndex()] >= 1.0) {
             isAvailable = false;
             break;
          }
@@ -299,63 +425,63 @@ public class NetworkManager {
 
    public boolean checkIfFreeResourcesToExpandFunction(int s, int x, int v, int d, int numOfFunctions,
          boolean considerOverhead) {
+      double resourcesToAdd = resourcesToExpandFunction(s, v, d, numOfFunctions, considerOverhead);
+      return vars.uX[x] + resourcesToAdd * vars.serverCapacityInv[x] <= 1.0;
+   }
+
+   private double resourcesToExpandFunction(int s, int v, int d, int numOfFunctions, boolean considerOverhead) {
+      FunctionProfile profile = pm.getServices().get(s).getFunctions().get(v).getProfile();
       double overhead = 0;
-      if (considerOverhead) {
-         Function function = pm.getServices().get(s).getFunctions().get(v);
-         overhead = (double) function.getAttribute(FUNCTION_OVERHEAD_RATIO)
-               * (int) function.getAttribute(FUNCTION_MAX_BW) * (int) function.getAttribute(FUNCTION_MAX_DEM)
-               * (double) function.getAttribute(FUNCTION_LOAD_RATIO);
-      }
-      double trafficLoad = pm.getServices().get(s).getTrafficFlow().getDemands().get(d)
-            * (double) pm.getServices().get(s).getFunctions().get(v).getAttribute(FUNCTION_LOAD_RATIO);
-      double resourcesToAdd = (trafficLoad + overhead) * numOfFunctions;
-      return vars.uX.get(pm.getServers().get(x).getId())
-            + (resourcesToAdd / pm.getServers().get(x).getCapacity()) <= 1.0;
+      if (considerOverhead)
+         overhead = profile.getOverhead();
+      double trafficLoad = pm.getServices().get(s).getTrafficFlow().getDemands().get(d) * profile.getLoadRatio();
+      return (trafficLoad + overhead) * numOfFunctions;
    }
 
    public void removeDemandFromPath(int s, int p, int d) {
       Path path = pm.getServices().get(s).getTrafficFlow().getPaths().get(p);
       double trafficDemand = pm.getServices().get(s).getTrafficFlow().getDemands().get(d);
-      for (Edge pathLink : path.getEdgePath())
-         vars.uL.put(pathLink.getId(),
-               vars.uL.get(pathLink.getId()) - (trafficDemand / (int) pathLink.getAttribute(LINK_CAPACITY)));
-      vars.zSPD[s][p][d] = false;
+      addPathLoad(path, -trafficDemand);
+      setRouting(s, p, d, false);
       boolean notUsedPath = true;
       for (int d1 = 0; d1 < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d1++)
-         if (vars.zSPD[s][p][d]) {
+         if (vars.zSPD[s][p][d1]) {
             notUsedPath = false;
             break;
          }
       if (notUsedPath)
-         vars.zSP[s][p] = false;
+         setPathUsed(s, p, false);
    }
 
    public void addDemandToPath(int s, int p, int d) {
       Path path = pm.getServices().get(s).getTrafficFlow().getPaths().get(p);
       double trafficDemand = pm.getServices().get(s).getTrafficFlow().getDemands().get(d);
-      for (Edge pathLink : path.getEdgePath())
-         vars.uL.put(pathLink.getId(),
-               vars.uL.get(pathLink.getId()) + (trafficDemand / (int) pathLink.getAttribute(LINK_CAPACITY)));
-      vars.zSPD[s][p][d] = true;
+      addPathLoad(path, trafficDemand);
+      setRouting(s, p, d, true);
       if (!vars.zSP[s][p])
-         vars.zSP[s][p] = true;
+         setPathUsed(s, p, true);
+   }
+
+   private void setRouting(int s, int p, int d, boolean routed) {
+      if (journal.isActive())
+         journal.recordZSPD(s, p, d, vars.zSPD[s][p][d]);
+      vars.zSPD[s][p][d] = routed;
+   }
+
+   private void setPathUsed(int s, int p, boolean used) {
+      if (journal.isActive())
+         journal.recordZSP(s, p, vars.zSP[s][p]);
+      vars.zSP[s][p] = used;
    }
 
    private void removeFunctionFromServer(int s, int x, int v) {
-      Service service = pm.getServices().get(s);
-      Server server = pm.getServers().get(x);
-      Function function = service.getFunctions().get(v);
-      vars.fXSV[x][s][v] = false;
-      double overhead = (double) function.getAttribute(FUNCTION_OVERHEAD_RATIO)
-            * (int) function.getAttribute(FUNCTION_MAX_BW) * (int) function.getAttribute(FUNCTION_MAX_DEM)
-            * (double) function.getAttribute(FUNCTION_LOAD_RATIO);
-      vars.uX.put(server.getId(), vars.uX.get(server.getId()) - (overhead / server.getCapacity()));
+      addServerLoad(x, -pm.getServices().get(s).getFunctions().get(v).getProfile().getOverhead());
+      if (journal.isActive())
+         journal.recordRemoveReplica(s, x, v, vars.syncDirtySV[s][v]);
+      vars.removeReplica(s, x, v);
    }
 
    public int getUsedServerForFunction(int s, int d, int v) {
-      for (int x = 0; x < pm.getServers().size(); x++)
-         if (vars.fXSVD[x][s][v][d])
-            return x;
-      return -1;
+      return vars.xSVD[s][v][d];
    }
 }
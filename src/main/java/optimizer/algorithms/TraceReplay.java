@@ -0,0 +1,167 @@
+package optimizer.algorithms;
+
+import static optimizer.Definitions.*;
+import static optimizer.results.Auxiliary.printLog;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Scanner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import optimizer.Manager;
+import optimizer.Parameters;
+import optimizer.algorithms.heuristics.HeuristicAlgorithm;
+import optimizer.algorithms.heuristics.OnlineAllocator;
+import optimizer.gui.Scenario;
+import optimizer.results.Auxiliary;
+import optimizer.results.ResultsManager;
+
+// replays timestamped arrive/depart events, one per line as "time event s d", through the online allocator
+public class TraceReplay {
+
+   private static final Logger log = LoggerFactory.getLogger(TraceReplay.class);
+   private static final int ARRIVE = 0;
+   private static final int DEPART = 1;
+
+   private int events;
+   private int arrivals;
+   private int rejections;
+   private double latencyP50;
+   private double latencyP99;
+   private double latencyMax;
+   private double objVal;
+
+   public static TraceReplay run(Parameters pm, Scenario sce, ResultsManager resultsManager, String eventsFile,
+         String outputFileName) {
+      TraceReplay replay = new TraceReplay();
+      List<double[]> trace = readEvents(pm, eventsFile);
+      String algorithm = FF;
+      if (pm.getGlobal(ONLINE_ALGORITHM) != null)
+         algorithm = (String) pm.getGlobal(ONLINE_ALGORITHM);
+      VariablesAlg vars = new VariablesAlg(pm, null, sce.getObjFunc());
+      NetworkManager networkManager = new NetworkManager(pm, vars);
+      HeuristicAlgorithm heuristicAlgorithm = new HeuristicAlgorithm(pm, vars, networkManager);
+      OnlineAllocator allocator = new OnlineAllocator(pm, networkManager, heuristicAlgorithm, algorithm);
+      allocator.deactivateAllDemands();
+      printLog(log, INFO, "replaying " + trace.size() + " events with " + algorithm + "...");
+      double[] latencies = new double[trace.size()];
+      double startTime = System.currentTimeMillis();
+      for (double[] event : trace) {
+         if (Manager.isInterrupted()) {
+            printLog(log, WARNING, "stop requested, replay finished after [" + replay.events + "] events");
+            break;
+         }
+         int s = (int) event[2], d = (int) event[3];
+         long eventStart = System.nanoTime();
+         if (event[1] == ARRIVE) {
+            replay.arrivals++;
+            if (!allocator.arrive(s, d))
+               replay.rejections++;
+         } else
+            allocator.depart(s, d);
+         latencies[replay.events++] = (System.nanoTime() - eventStart) / 1e6;
+      }
+      double elapsedTime = System.currentTimeMillis() - startTime;
+      latencies = Arrays.copyOf(latencies, replay.events);
+      Arrays.sort(latencies);
+      replay.latencyP50 = percentile(latencies, 0.50);
+      replay.latencyP99 = percentile(latencies, 0.99);
+      replay.latencyMax = latencies.length > 0 ? latencies[latencies.length - 1] : 0;
+      replay.objVal = vars.objVal;
+      printLog(log, INFO, "decision latency p50 [" + Auxiliary.roundDouble(replay.latencyP50, 4) + "] p99 ["
+            + Auxiliary.roundDouble(replay.latencyP99, 4) + "] ms, rejection rate ["
+            + Auxiliary.roundDouble(replay.getRejectionRate(), 4) + "]");
+      resultsManager.exportJsonObject(outputFileName + "_replay", replay);
+      LauncherAlg.export(pm, sce, resultsManager, vars, outputFileName, elapsedTime, false);
+      return replay;
+   }
+
+   // events as [time, type, s, d] sorted by time, events with the same time keep the file order, lines that
+   // cannot be read are logged and skipped
+   static List<double[]> readEvents(Parameters pm, String eventsFile) {
+      List<double[]> trace = new ArrayList<>();
+      try (Scanner input = new Scanner(new File(eventsFile))) {
+         int lineNumber = 0;
+         while (input.hasNextLine()) {
+            String line = input.nextLine().trim();
+            lineNumber++;
+            if (line.isEmpty() || line.startsWith("#"))
+               continue;
+            try {
+               String[] fields = line.split("\\s+");
+               int s = Integer.parseInt(fields[2]), d = Integer.parseInt(fields[3]);
+               if (s < 0 || s >= pm.getServices().size() || d < 0
+                     || d >= pm.getServices().get(s).getTrafficFlow().getDemands().size()) {
+                  printLog(log, WARNING, "skipping event for unknown demand [s][d] = [" + s + "][" + d + "] in line ["
+                        + lineNumber + "]");
+                  continue;
+               }
+               int type;
+               if (fields[1].equals(EVENT_ARRIVE))
+                  type = ARRIVE;
+               else if (fields[1].equals(EVENT_DEPART))
+                  type = DEPART;
+               else {
+                  printLog(log, WARNING, "skipping unknown event [" + fields[1] + "] in line [" + lineNumber + "]");
+                  continue;
+               }
+               trace.add(new double[] { Double.parseDouble(fields[0]), type, s, d });
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+               printLog(log, ERROR, "format error events file in line [" + lineNumber + "]: " + e.getMessage());
+            }
+         }
+      } catch (FileNotFoundException e) {
+         printLog(log, ERROR, "events file not found: " + eventsFile);
+      }
+      trace.sort(Comparator.comparingDouble(event -> event[0]));
+      return trace;
+   }
+
+   // nearest-rank percentile over sorted values
+   private static double percentile(double[] sorted, double q) {
+      if (sorted.length == 0)
+         return 0;
+      int rank = (int) Math.ceil(q * sorted.length);
+      return sorted[Math.max(rank, 1) - 1];
+   }
+
+   public int getEvents() {
+      return events;
+   }
+
+   public int getArrivals() {
+      return arrivals;
+   }
+
+   public int getRejections() {
+      return rejections;
+   }
+
+   public double getRejectionRate() {
+      if (arrivals == 0)
+         return 0;
+      return (double) rejections / arrivals;
+   }
+
+   public double getLatencyP50() {
+      return latencyP50;
+   }
+
+   public double getLatencyP99() {
+      return latencyP99;
+   }
+
+   public double getLatencyMax() {
+      return latencyMax;
+   }
+
+   public double getObjVal() {
+      return objVal;
+   }
+}
@@ -2,21 +2,23 @@ package optimizer.algorithms;
 
 import static optimizer.Definitions.*;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.graphstream.graph.Edge;
 import org.graphstream.graph.Path;
 
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
+
+import gurobi.GRBException;
 import gurobi.GRBModel;
 import optimizer.Parameters;
 import optimizer.elements.*;
+import optimizer.lp.VariablesLP;
 import optimizer.results.Auxiliary;
 
 public class VariablesAlg {
 
    public boolean[][][] zSPD;
-   public boolean[][][][] fXSVD;
+   public int[][][] xSVD;
    public boolean[] fX;
    public boolean[][][] fXSV;
    public boolean[][] zSP;
@@ -25,24 +27,49 @@ public class VariablesAlg {
    public double[] oX;
    public double[][] oSV;
    public double[][][] qSDP;
-   public boolean[][][] hSVP;
-   public boolean[][][][] gSVXY;
+   public IntIntHashMap[][] replicasSV;
+   public LongIntHashMap[][] syncPathsSV;
+   public boolean[][] syncDirtySV;
+   public String[][] blockedSD;
    public double objVal;
+   public int migrations;
+   public int replications;
+   public int functionsCloud;
+   public double opex;
+   public double charges;
+   public double penalties;
    public Parameters pm;
-   public Map<String, Double> uL;
-   public Map<String, Double> uX;
+   public double[] uL;
+   public double[] uX;
+   public double[] linkCapacityInv;
+   public double[] serverCapacityInv;
+   public FreeCapacityIndex freeCapacity;
    public boolean[][] zSPinitial;
    public boolean[][][] zSPDinitial;
    public boolean[][][] fXSVinitial;
-   public boolean[][][][] fXSVDinitial;
+   public int[][][] xSVDinitial;
    private String objFunc;
+   private boolean[] cloudServer;
+   private int[] functionsX;
+   private int[][] cloudReplicasSV;
+   private double idleEnergyCost;
+   private double utilEnergyCost;
 
    public VariablesAlg(Parameters pm, GRBModel initialPlacementModel) {
       this.pm = pm;
       zSP = Auxiliary.zSPvarsFromInitialModel(pm, initialPlacementModel);
       zSPD = Auxiliary.zSPDvarsFromInitialModel(pm, initialPlacementModel);
       fXSV = Auxiliary.fXSVvarsFromInitialModel(pm, initialPlacementModel);
-      fXSVD = Auxiliary.fXSVDvarsFromInitialModel(pm, initialPlacementModel);
+      xSVD = Auxiliary.xSVDvarsFromInitialModel(pm, initialPlacementModel);
+   }
+
+   // reads the solution by index, the variables of models built in memory have no names
+   public VariablesAlg(Parameters pm, VariablesLP solvedVars) throws GRBException {
+      this.pm = pm;
+      zSP = Auxiliary.grbVarsToBooleans(solvedVars.zSP);
+      zSPD = Auxiliary.grbVarsToBooleans(solvedVars.zSPD);
+      fXSV = Auxiliary.grbVarsToBooleans(solvedVars.fXSV);
+      xSVD = Auxiliary.grbVarsToXSVD(pm, solvedVars.fXSVD);
    }
 
    public VariablesAlg(Parameters pm, VariablesAlg initialPlacementVars) {
@@ -50,7 +77,7 @@ public class VariablesAlg {
       zSP = Auxiliary.zSPvarsFromInitialModel(pm, initialPlacementVars);
       zSPD = Auxiliary.zSPDvarsFromInitialModel(pm, initialPlacementVars);
       fXSV = Auxiliary.fXSVvarsFromInitialModel(pm, initialPlacementVars);
-      fXSVD = Auxiliary.fXSVDvarsFromInitialModel(pm, initialPlacementVars);
+      xSVD = Auxiliary.xSVDvarsFromInitialModel(pm, initialPlacementVars);
    }
 
    public VariablesAlg(Parameters pm, VariablesAlg initialPlacementVars, String objFunc) {
@@ -59,48 +86,184 @@ public class VariablesAlg {
       zSP = new boolean[pm.getServices().size()][pm.getPathsTrafficFlow()];
       zSPD = new boolean[pm.getServices().size()][pm.getPathsTrafficFlow()][pm.getDemandsTrafficFlow()];
       fXSV = new boolean[pm.getServers().size()][pm.getServices().size()][pm.getServiceLength()];
-      fXSVD = new boolean[pm.getServers().size()][pm.getServices().size()][pm.getServiceLength()][pm
-            .getDemandsTrafficFlow()];
-      hSVP = new boolean[pm.getServices().size()][pm.getServiceLength()][pm.getPaths().size()];
-      gSVXY = new boolean[pm.getServices().size()][pm.getServiceLength()][pm.getServers().size()][pm.getServers()
-            .size()];
-      uL = new HashMap<>();
-      for (Edge link : pm.getLinks())
-         uL.put(link.getId(), 0.0);
-      uX = new HashMap<>();
-      for (Server server : pm.getServers())
-         uX.put(server.getId(), 0.0);
+      xSVD = Auxiliary.newXSVDvars(pm);
+      replicasSV = new IntIntHashMap[pm.getServices().size()][];
+      syncPathsSV = new LongIntHashMap[pm.getServices().size()][];
+      syncDirtySV = new boolean[pm.getServices().size()][];
+      blockedSD = new String[pm.getServices().size()][];
+      for (int s = 0; s < pm.getServices().size(); s++) {
+         blockedSD[s] = new String[pm.getServices().get(s).getTrafficFlow().getDemands().size()];
+         replicasSV[s] = new IntIntHashMap[pm.getServices().get(s).getFunctions().size()];
+         syncPathsSV[s] = new LongIntHashMap[pm.getServices().get(s).getFunctions().size()];
+         syncDirtySV[s] = new boolean[pm.getServices().get(s).getFunctions().size()];
+         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
+            replicasSV[s][v] = new IntIntHashMap();
+            syncPathsSV[s][v] = new LongIntHashMap();
+         }
+      }
+      uL = new double[pm.getLinks().size()];
+      linkCapacityInv = new double[pm.getLinks().size()];
+      for (int l = 0; l < pm.getLinks().size(); l++)
+         linkCapacityInv[l] = 1.0 / (int) pm.getLinks().get(l).getAttribute(LINK_CAPACITY);
+      uX = new double[pm.getServers().size()];
+      serverCapacityInv = new double[pm.getServers().size()];
+      double[] serverCapacity = new double[pm.getServers().size()];
+      for (int x = 0; x < pm.getServers().size(); x++) {
+         serverCapacity[x] = pm.getServers().get(x).getCapacity();
+         serverCapacityInv[x] = 1.0 / serverCapacity[x];
+      }
+      freeCapacity = new FreeCapacityIndex(pm.getTopologyIndex(), pm.getNodes().size(), serverCapacity);
       zSPinitial = Auxiliary.zSPvarsFromInitialModel(pm, initialPlacementVars);
       zSPDinitial = Auxiliary.zSPDvarsFromInitialModel(pm, initialPlacementVars);
       fXSVinitial = Auxiliary.fXSVvarsFromInitialModel(pm, initialPlacementVars);
-      fXSVDinitial = Auxiliary.fXSVDvarsFromInitialModel(pm, initialPlacementVars);
+      xSVDinitial = Auxiliary.xSVDvarsFromInitialModel(pm, initialPlacementVars);
+      initializeObjectiveCounters();
    }
 
-   public void generateRestOfVariablesForResults() {
-      lu = new double[pm.getLinks().size()];
-      for (int l = 0; l < pm.getLinks().size(); l++)
-         lu[l] = uL.get(pm.getLinks().get(l).getId());
-      xu = new double[pm.getServers().size()];
+   private void initializeObjectiveCounters() {
+      cloudServer = new boolean[pm.getServers().size()];
+      functionsX = new int[pm.getServers().size()];
       for (int x = 0; x < pm.getServers().size(); x++)
-         xu[x] = uX.get(pm.getServers().get(x).getId());
+         cloudServer[x] = (int) pm.getServers().get(x).getParent().getAttribute(NODE_TYPE) == NODE_TYPE_CLOUD;
+      cloudReplicasSV = new int[pm.getServices().size()][];
+      for (int s = 0; s < pm.getServices().size(); s++) {
+         cloudReplicasSV[s] = new int[pm.getServices().get(s).getFunctions().size()];
+         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+            for (int x = 0; x < pm.getServers().size(); x++)
+               if (fXSVinitial[x][s][v])
+                  migrations++;
+      }
+      if (pm.getGlobal().get(SERVER_IDLE_ENERGY_COST) != null)
+         idleEnergyCost = (double) pm.getGlobal().get(SERVER_IDLE_ENERGY_COST);
+      if (pm.getGlobal().get(SERVER_UTIL_ENERGY_COST) != null)
+         utilEnergyCost = (double) pm.getGlobal().get(SERVER_UTIL_ENERGY_COST);
+      updateObjVal();
+   }
+
+   public void addReplica(int s, int x, int v) {
+      fXSV[x][s][v] = true;
+      if (!replicasSV[s][v].isEmpty()) // the first server of a function is not a replica
+         replications++;
+      replicasSV[s][v].put(x, 0);
+      syncDirtySV[s][v] = true;
+      if (fXSVinitial[x][s][v])
+         migrations--;
+      if (cloudServer[x]) {
+         functionsCloud++;
+         if (cloudReplicasSV[s][v]++ == 0)
+            charges += pm.getServices().get(s).getFunctions().get(v).getProfile().getCharges();
+      } else if (functionsX[x] == 0)
+         opex += idleEnergyCost + uX[x] * utilEnergyCost;
+      functionsX[x]++;
+      updateObjVal();
+   }
+
+   public void removeReplica(int s, int x, int v) {
+      fXSV[x][s][v] = false;
+      replicasSV[s][v].remove(x);
+      syncDirtySV[s][v] = true;
+      if (!replicasSV[s][v].isEmpty())
+         replications--;
+      if (fXSVinitial[x][s][v])
+         migrations++;
+      functionsX[x]--;
+      if (cloudServer[x]) {
+         functionsCloud--;
+         if (--cloudReplicasSV[s][v] == 0)
+            charges -= pm.getServices().get(s).getFunctions().get(v).getProfile().getCharges();
+      } else if (functionsX[x] == 0)
+         opex -= idleEnergyCost + uX[x] * utilEnergyCost;
+      updateObjVal();
+   }
+
+   public void addServerLoad(int x, double load) {
+      double utilization = load * serverCapacityInv[x];
+      uX[x] += utilization;
+      freeCapacity.update(x, uX[x]);
+      if (!cloudServer[x] && functionsX[x] > 0) {
+         opex += utilization * utilEnergyCost;
+         updateObjVal();
+      }
+   }
+
+   private void updateObjVal() {
+      if (objFunc == null)
+         return;
+      switch (objFunc) {
+      case MGR:
+         objVal = migrations + (0.001 * replications);
+         break;
+      case REP:
+         objVal = replications + (0.001 * migrations);
+         break;
+      case MGR_REP:
+         objVal = replications + migrations;
+         break;
+      case MGR_REP_CLOUD:
+         objVal = replications + migrations + functionsCloud;
+         break;
+      case CLOUD:
+         objVal = functionsCloud + (0.001 * migrations) + (0.001 * replications);
+         break;
+      case OPEX_SERVERS:
+         objVal = opex;
+         break;
+      case FUNCTIONS_CHARGES:
+         objVal = charges;
+         break;
+      case QOS_PENALTIES:
+         objVal = penalties;
+         break;
+      case ALL_MONETARY_COSTS:
+         objVal = opex + charges + penalties;
+         break;
+      }
+   }
+
+   // the penalty of a demand depends on the utilization of its servers, which also changes with the moves of other
+   // demands, so the penalties are regenerated after every move instead of being kept incrementally
+   public void updatePenalties() {
+      if (!hasPenalties())
+         return;
+      qSDP = new double[pm.getServices().size()][pm.getDemandsTrafficFlow()][pm.getPathsTrafficFlow()];
+      qSDPgenerate();
+      penalties = 0;
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+            for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+               penalties += qSDP[s][d][p];
+      updateObjVal();
+   }
+
+   private boolean hasPenalties() {
+      return QOS_PENALTIES.equals(objFunc) || ALL_MONETARY_COSTS.equals(objFunc);
+   }
+
+   private boolean isMonetaryObjective() {
+      return objFunc.equals(OPEX_SERVERS) || objFunc.equals(FUNCTIONS_CHARGES) || objFunc.equals(QOS_PENALTIES)
+            || objFunc.equals(ALL_MONETARY_COSTS);
+   }
+
+   public void generateRestOfVariablesForResults() {
+      lu = uL.clone();
+      xu = uX.clone();
       fX = new boolean[pm.getServers().size()];
       oX = new double[pm.getServers().size()];
       oSV = new double[pm.getServices().size()][pm.getServiceLength()];
       qSDP = new double[pm.getServices().size()][pm.getDemandsTrafficFlow()][pm.getPathsTrafficFlow()];
       fXgenerate();
-      generateObjValueForMigrationsReplications();
+      if (isMonetaryObjective())
+         generateObjValueForMonetaryValues();
+      else
+         generateObjValueForMigrationsReplications();
    }
 
    private void fXgenerate() {
-      for (int x = 0; x < pm.getServers().size(); x++) {
-         outerLoop: for (int s = 0; s < pm.getServices().size(); s++)
-            for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
-               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
-                  if (fXSVD[x][s][v][d]) {
-                     fX[x] = true;
-                     break outerLoop;
-                  }
-      }
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+            for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+               if (xSVD[s][v][d] != -1)
+                  fX[xSVD[s][v][d]] = true;
    }
 
    private void oXgenerate() {
@@ -108,7 +271,7 @@ public class VariablesAlg {
          if ((int) pm.getServers().get(x).getParent().getAttribute(NODE_TYPE) != NODE_TYPE_CLOUD) {
             if (fX[x])
                oX[x] = (double) pm.getGlobal().get(SERVER_IDLE_ENERGY_COST)
-                     + (uX.get(pm.getServers().get(x).getId()) * (double) pm.getGlobal().get(SERVER_UTIL_ENERGY_COST));
+                     + (uX[x] * (double) pm.getGlobal().get(SERVER_UTIL_ENERGY_COST));
          } else
             oX[x] = 0.0;
    }
@@ -119,7 +282,7 @@ public class VariablesAlg {
             for (int x = 0; x < pm.getServers().size(); x++)
                if ((int) pm.getServers().get(x).getParent().getAttribute(NODE_TYPE) == NODE_TYPE_CLOUD)
                   if (fXSV[x][s][v])
-                     oSV[s][v] = (double) pm.getServices().get(s).getFunctions().get(v).getAttribute(FUNCTION_CHARGES);
+                     oSV[s][v] = pm.getServices().get(s).getFunctions().get(v).getProfile().getCharges();
    }
 
    private void qSDPgenerate() {
@@ -133,10 +296,10 @@ public class VariablesAlg {
                   double maxDelay = 0;
                   maxDelay += service.getMaxPropagationDelay();
                   for (int v = 0; v < service.getFunctions().size(); v++)
-                     maxDelay += (double) service.getFunctions().get(v).getAttribute(FUNCTION_MAX_DELAY);
+                     maxDelay += service.getFunctions().get(v).getProfile().getMaxDelay();
                   double profit = 0;
                   for (int v = 0; v < service.getFunctions().size(); v++)
-                     profit += (double) service.getFunctions().get(v).getAttribute(FUNCTION_CHARGES);
+                     profit += service.getFunctions().get(v).getProfile().getCharges();
                   double qosPenalty = (double) pm.getGlobal().get(QOS_PENALTY_RATIO) * profit; // in $/h
                   if (serviceDelay > maxDelay)
                      qSDP[s][d][p] = ((serviceDelay / maxDelay) - 1) * qosPenalty; // in $/h
@@ -147,28 +310,23 @@ public class VariablesAlg {
       double serviceDelay = 0;
       Service service = pm.getServices().get(s);
       Path path = pm.getServices().get(s).getTrafficFlow().getPaths().get(p);
+      TopologyIndex ti = pm.getTopologyIndex();
       // processing delay
-      for (int n = 0; n < path.getNodePath().size(); n++)
-         for (int x = 0; x < pm.getServers().size(); x++)
-            if (pm.getServers().get(x).getParent().equals(path.getNodePath().get(n)))
-               for (int v = 0; v < service.getFunctions().size(); v++)
-                  if (fXSVD[x][s][v][d]) {
-                     Function function = service.getFunctions().get(v);
-                     double ratio = (double) function.getAttribute(FUNCTION_LOAD_RATIO)
-                           * (double) function.getAttribute(FUNCTION_PROCESS_TRAFFIC_DELAY)
-                           / ((int) function.getAttribute(FUNCTION_MAX_DEM)
-                                 * (int) function.getAttribute(FUNCTION_MAX_BW)
-                                 * (double) function.getAttribute(FUNCTION_LOAD_RATIO));
-                     double processingDelay = 0;
-                     for (int d1 = 0; d1 < service.getTrafficFlow().getDemands().size(); d1++)
-                        if (service.getTrafficFlow().getAux().get(d1))
-                           if (fXSVD[x][s][v][d1])
-                              processingDelay += ratio * service.getTrafficFlow().getDemands().get(d1);
-                     processingDelay += (double) function.getAttribute(FUNCTION_MIN_PROCESS_DELAY);
-                     processingDelay += (double) function.getAttribute(FUNCTION_PROCESS_DELAY)
-                           * uX.get(pm.getServers().get(x).getId());
-                     serviceDelay += processingDelay;
-                  }
+      for (int v = 0; v < service.getFunctions().size(); v++) {
+         int x = xSVD[s][v][d];
+         if (x == -1 || ti.getServerPosition(s, p, x) == -1)
+            continue;
+         FunctionProfile profile = service.getFunctions().get(v).getProfile();
+         double ratio = profile.getProcessTrafficDelayRatio();
+         double processingDelay = 0;
+         for (int d1 = 0; d1 < service.getTrafficFlow().getDemands().size(); d1++)
+            if (service.getTrafficFlow().getAux().get(d1))
+               if (xSVD[s][v][d1] == x)
+                  processingDelay += ratio * service.getTrafficFlow().getDemands().get(d1);
+         processingDelay += profile.getMinProcessDelay();
+         processingDelay += profile.getProcessDelay() * uX[x];
+         serviceDelay += processingDelay;
+      }
       // propagation delay
       double pathDelay = 0.0;
       for (Edge link : path.getEdgePath())
@@ -188,41 +346,31 @@ public class VariablesAlg {
    }
 
    protected void generateObjValueForMigrationsReplications() {
-      int migrations = 0;
+      migrations = 0;
       for (int x = 0; x < pm.getServers().size(); x++)
          for (int s = 0; s < pm.getServices().size(); s++)
             for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
                if (fXSVinitial[x][s][v] && !fXSV[x][s][v])
                   migrations++;
 
-      int replications = 0;
+      replications = 0;
       for (int s = 0; s < pm.getServices().size(); s++)
          for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
             int replicasTemp = -1;
             for (int x = 0; x < pm.getServers().size(); x++)
                if (fXSV[x][s][v])
                   replicasTemp++;
-            replications += replicasTemp;
+            replications += Math.max(replicasTemp, 0);
          }
 
-      int functions_cloud = 0;
+      functionsCloud = 0;
       for (int x = 0; x < pm.getServers().size(); x++)
          if ((int) pm.getServers().get(x).getParent().getAttribute(NODE_TYPE) == NODE_TYPE_CLOUD)
             for (int s = 0; s < pm.getServices().size(); s++)
                for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
                   if (fXSV[x][s][v])
-                     functions_cloud++;
-
-      switch (objFunc) {
-      case MGR:
-         objVal = migrations + (0.001 * replications);
-      case REP:
-         objVal = replications + (0.001 * migrations);
-      case MGR_REP:
-         objVal = replications + migrations;
-      case MGR_REP_CLOUD:
-         objVal = replications + migrations + functions_cloud;
-      }
+                     functionsCloud++;
+      updateObjVal();
    }
 
    private void generateObjValueForMonetaryValues() {
@@ -231,9 +379,9 @@ public class VariablesAlg {
       oSVgenerate();
       qSDPgenerate();
 
-      double opex = 0;
-      double charges = 0;
-      double penalties = 0;
+      opex = 0;
+      charges = 0;
+      penalties = 0;
 
       for (int x = 0; x < pm.getServers().size(); x++)
          opex += oX[x];
@@ -244,24 +392,22 @@ public class VariablesAlg {
          for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
             for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
                penalties += qSDP[s][d][p];
-
-      switch (objFunc) {
-      case OPEX_SERVERS:
-         objVal = opex;
-         break;
-      case FUNCTIONS_CHARGES:
-         objVal = charges;
-         break;
-      case QOS_PENALTIES:
-         objVal = penalties;
-         break;
-      default:
-         objVal = opex + charges + penalties;
-         break;
-      }
+      updateObjVal();
    }
 
    public double getObjVal() {
       return objVal;
    }
+
+   public static long syncPairKey(int x, int y) {
+      return ((long) x << 32) | y;
+   }
+
+   public static int syncPairSrc(long pair) {
+      return (int) (pair >>> 32);
+   }
+
+   public static int syncPairDst(long pair) {
+      return (int) pair;
+   }
 }
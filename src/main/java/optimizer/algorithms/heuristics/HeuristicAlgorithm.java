@@ -11,9 +11,13 @@ import java.util.Random;
 
 import static optimizer.Definitions.*;
 import org.eclipse.collections.impl.list.Interval;
+import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
 import org.slf4j.Logger;
+import org.graphstream.graph.Edge;
 import org.slf4j.LoggerFactory;
 import optimizer.Parameters;
+import optimizer.algorithms.IncumbentTracker;
+import optimizer.algorithms.IndexKeys;
 import optimizer.algorithms.NetworkManager;
 import optimizer.algorithms.VariablesAlg;
 import optimizer.results.Auxiliary;
@@ -26,28 +30,132 @@ public class HeuristicAlgorithm {
     private NetworkManager networkManager;
     protected Parameters pm;
     protected VariablesAlg vars;
-    protected Map<String, Integer> placementIncumbent;
-    protected Map<String, Integer> pathsIncumbent;
+    protected IndexKeys keys;
+    protected LongIntHashMap placementIncumbent;
+    protected LongIntHashMap pathsIncumbent;
+    protected IncumbentTracker tracker;
+    // strategies are resolved once per algorithm name, custom ones take precedence over the built-in ones
+    private Map<String, RoutingStrategy> customRoutingStrategies;
+    private Map<String, PlacementStrategy> customPlacementStrategies;
+    private String strategiesAlgorithm;
+    private RoutingStrategy routingStrategy;
+    private PlacementStrategy placementStrategy;
+    private boolean decreasingDemands;
 
     public HeuristicAlgorithm(Parameters pm, VariablesAlg vars, NetworkManager networkManager) {
-        rnd = new Random();
+        this(pm, vars, networkManager, new Random());
+    }
+
+    public HeuristicAlgorithm(Parameters pm, VariablesAlg vars, NetworkManager networkManager, Random rnd) {
+        this.rnd = rnd;
         this.networkManager = networkManager;
         this.pm = pm;
         this.vars = vars;
-        this.pathsIncumbent = new HashMap<>();
-        this.placementIncumbent = new HashMap<>();
+        this.keys = new IndexKeys(pm);
+        this.pathsIncumbent = new LongIntHashMap();
+        this.placementIncumbent = new LongIntHashMap();
+        this.tracker = IncumbentTracker.unbounded();
+        this.customRoutingStrategies = new HashMap<>();
+        this.customPlacementStrategies = new HashMap<>();
+    }
+
+    public void registerStrategies(String algorithm, RoutingStrategy routing, PlacementStrategy placement) {
+        customRoutingStrategies.put(algorithm, routing);
+        customPlacementStrategies.put(algorithm, placement);
+        strategiesAlgorithm = null;
+    }
+
+    private void useStrategies(String algorithm) {
+        if (algorithm.equals(strategiesAlgorithm))
+            return;
+        strategiesAlgorithm = algorithm;
+        decreasingDemands = algorithm.equals(FFD);
+        if (customRoutingStrategies.containsKey(algorithm)) {
+            routingStrategy = customRoutingStrategies.get(algorithm);
+            placementStrategy = customPlacementStrategies.get(algorithm);
+            return;
+        }
+        RoutingStrategy firstPath = (s, d, paths, lastTry) -> paths.get(0);
+        PlacementStrategy firstServer = (servers, s, v, d, lastTry) -> servers.get(0);
+        switch (algorithm) {
+        case FF:
+        case FFD:
+            routingStrategy = firstPath;
+            placementStrategy = firstServer;
+            break;
+        case RF:
+            routingStrategy = (s, d, paths, lastTry) -> paths.get(rnd.nextInt(paths.size()));
+            placementStrategy = (servers, s, v, d, lastTry) -> servers.get(rnd.nextInt(servers.size()));
+            break;
+        case GRD:
+            routingStrategy = this::choosePathGreedy;
+            placementStrategy = this::chooseServerForFunctionGreedy;
+            break;
+        case JOURNAL_GRD_FIRST:
+            routingStrategy = firstPath;
+            placementStrategy = this::chooseServerForFunctionGreedy;
+            break;
+        case BF:
+            routingStrategy = firstPath;
+            placementStrategy = this::chooseBestFitServer;
+            break;
+        case WF:
+            routingStrategy = firstPath;
+            placementStrategy = this::chooseWorstFitServer;
+            break;
+        case DLL:
+            routingStrategy = this::chooseLeastLoadedPath;
+            placementStrategy = this::chooseWorstFitServer;
+            break;
+        default:
+            routingStrategy = (s, d, paths, lastTry) -> -1;
+            if (algorithm.contains(GRD))
+                placementStrategy = this::chooseServerForFunctionGreedy;
+            else
+                placementStrategy = (servers, s, v, d, lastTry) -> -1;
+            Auxiliary.printLog(log, WARNING, "no routing strategy for [" + algorithm + "]");
+        }
+    }
+
+    public void setIncumbentTracker(IncumbentTracker tracker) {
+        this.tracker = tracker;
     }
 
     public void allocateServices(String algorithm) {
-        for (int s = 0; s < pm.getServices().size(); s++) {
-            for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+        useStrategies(algorithm);
+        List<Integer> services = Interval.zeroTo(pm.getServices().size() - 1).toList();
+        if (decreasingDemands)
+            services.sort(Comparator.comparingInt(this::getTotalDemand).reversed());
+        for (int i = 0; i < services.size(); i++) {
+            int s = services.get(i);
+            if (tracker.shouldStop()) {
+                networkManager.blockUnroutedDemands(s, BLOCKED_STOPPED);
+                continue;
+            }
+            for (int d : getDemandsOrder(s))
                 if (pm.getServices().get(s).getTrafficFlow().getAux().get(d))
-                    allocateDemand(algorithm, s, d);
+                    allocateDemandWithSync(s, d, false);
             networkManager.addSyncTraffic(s);
-            Auxiliary.showLogProgress(log, s + 1, pm.getServices().size());
+            Auxiliary.showLogProgress(log, i + 1, pm.getServices().size());
         }
     }
 
+    private int getTotalDemand(int s) {
+        int totalDemand = 0;
+        for (int demand : pm.getServices().get(s).getTrafficFlow().getDemands())
+            totalDemand += demand;
+        return totalDemand;
+    }
+
+    // first-fit-decreasing places the largest demands of a service first
+    private List<Integer> getDemandsOrder(int s) {
+        List<Integer> demands = pm.getServices().get(s).getTrafficFlow().getDemands();
+        List<Integer> order = Interval.zeroTo(demands.size() - 1).toList();
+        if (decreasingDemands)
+            order.sort(Comparator.comparingInt((Integer d) -> demands.get(d)).reversed());
+        return order;
+    }
+
     static <K, V> void orderByValue(LinkedHashMap<K, V> m, Comparator<? super V> c) {
         List<Map.Entry<K, V>> entries = new ArrayList<>(m.entrySet());
         m.clear();
@@ -56,6 +164,7 @@ public class HeuristicAlgorithm {
     }
 
     public void allocateServicesGreedy(String algorithm) {
+        useStrategies(algorithm);
 
         LinkedHashMap<Integer, Integer> orderedServicesByDemands = new LinkedHashMap<>();
         for (int s = 0; s < pm.getServices().size(); s++) {
@@ -69,8 +178,12 @@ public class HeuristicAlgorithm {
         int i = 0;
         for (Map.Entry<Integer, Integer> entry : orderedServicesByDemands.entrySet()) {
             int s = entry.getKey();
+            if (tracker.shouldStop()) {
+                networkManager.blockUnroutedDemands(s, BLOCKED_STOPPED);
+                continue;
+            }
             for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
-                allocateDemandGreedy(algorithm, s, d);
+                allocateDemandWithSync(s, d, true);
             networkManager.addSyncTraffic(s);
             i++;
             Auxiliary.showLogProgress(log, i, pm.getServices().size());
@@ -78,69 +191,111 @@ public class HeuristicAlgorithm {
     }
 
     public void allocateServicesGreedyConsideringInitialPlacement(String algorithm) {
+        useStrategies(algorithm);
         // first place demands from initial placement
         for (int s = 0; s < pm.getServices().size(); s++)
             for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
                 if (checkIfDemandWasInInitialPlacement(s, d))
-                    allocateDemandGreedy(algorithm, s, d);
+                    allocateDemandWithSync(s, d, true);
         // then the rest
         for (int s = 0; s < pm.getServices().size(); s++) {
+            if (tracker.shouldStop()) {
+                networkManager.blockUnroutedDemands(s, BLOCKED_STOPPED);
+                networkManager.removeUnusedFunctions(s);
+                networkManager.addSyncTraffic(s);
+                continue;
+            }
             for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
                 if (!checkIfDemandWasInInitialPlacement(s, d))
-                    allocateDemandGreedy(algorithm, s, d);
+                    allocateDemandWithSync(s, d, true);
             networkManager.removeUnusedFunctions(s);
             networkManager.addSyncTraffic(s);
         }
     }
 
-    private void allocateDemand(String alg, int s, int d) {
+    // allocates a single demand on top of the current state, returns false if the demand gets blocked
+    public boolean allocateSingleDemand(String algorithm, int s, int d) {
+        useStrategies(algorithm);
+        allocateDemandWithSync(s, d, algorithm.contains(GRD));
+        return !networkManager.isDemandBlocked(s, d);
+    }
+
+    // the sync traffic of the new replicas is routed together with the demand, which is blocked if it does not fit
+    private void allocateDemandWithSync(int s, int d, boolean greedy) {
+        networkManager.beginMove();
+        if (greedy)
+            allocateDemandGreedy(s, d);
+        else
+            allocateDemand(s, d);
+        if (!networkManager.isDemandBlocked(s, d) && !networkManager.updateSyncTraffic(s)) {
+            networkManager.rollbackMove();
+            networkManager.blockDemand(s, d, BLOCKED_SYNC);
+        } else
+            networkManager.commitMove();
+    }
+
+    private void allocateDemand(int s, int d) {
         // get paths with enough path link resources
         List<Integer> availablePaths = networkManager.getAvailablePaths(s, d);
+        if (availablePaths.isEmpty()) {
+            networkManager.blockDemand(s, d, BLOCKED_LINK);
+            return;
+        }
         // get paths with enough servers resources
         Map<Integer, List<List<Integer>>> pathsMapServers = networkManager.findAdmissiblePathsServersMap(availablePaths,
                 s, d);
+        if (pathsMapServers.isEmpty()) {
+            networkManager.blockDemand(s, d, BLOCKED_SERVER);
+            return;
+        }
         List<Integer> paths = new ArrayList<>(pathsMapServers.keySet());
-        int pChosen = choosePath(alg, s, d, paths, true); // always true, to choose path with lower delay
+        int pChosen = routingStrategy.choosePath(s, d, paths, true); // always true, to choose path with lower delay
         List<List<Integer>> availableServers = pathsMapServers.get(pChosen);
-        List<Integer> chosenServers = chooseServersForAllFunctions(alg, s, d, pChosen, availableServers);
+        List<Integer> chosenServers = chooseServersForAllFunctions(s, d, pChosen, availableServers);
+        if (chosenServers == null) {
+            networkManager.blockDemand(s, d, BLOCKED_SERVER);
+            return;
+        }
         networkManager.addDemandToFunctionsToSpecificServers(s, d, chosenServers);
         networkManager.addDemandToPath(s, pChosen, d);
     }
 
-    private int allocateDemandGreedy(String alg, int s, int d) {
+    private int allocateDemandGreedy(int s, int d) {
         List<Integer> availablePaths = networkManager.getAvailablePaths(s, d);
+        if (availablePaths.isEmpty()) {
+            networkManager.blockDemand(s, d, BLOCKED_LINK);
+            return -1;
+        }
         int pChosen = -1;
         for (int p = 0; p < availablePaths.size(); p++) {
             boolean lastTry = false;
             if (availablePaths.size() == 1)
                 lastTry = true;
-            int pTmp = choosePath(alg, s, d, availablePaths, lastTry);
+            int pTmp = routingStrategy.choosePath(s, d, availablePaths, lastTry);
             if (pTmp == -1) {
                 availablePaths.remove(p);
                 p--;
                 continue;
             }
-            List<Integer> functionServerMapping = allocateDemandInPathGreedy(alg, s, d, pTmp, lastTry);
+            networkManager.beginMove();
+            List<Integer> functionServerMapping = allocateDemandInPathGreedy(s, d, pTmp, lastTry);
             if (functionServerMapping.size() == pm.getServices().get(s).getFunctions().size()) {
+                networkManager.commitMove();
                 pChosen = pTmp;
                 networkManager.addDemandToPath(s, pChosen, d);
                 break;
             } else {
-                for (int v = 0; v < functionServerMapping.size(); v++)
-                    networkManager.removeDemandToFunctionToServer(s, functionServerMapping.get(v), v, d);
+                networkManager.rollbackMove();
                 availablePaths.remove(p);
                 p--;
             }
         }
-        if (pChosen == -1) {
-            // TO-DO blocking
-            Auxiliary.printLog(log, ERROR, "no admissible path available for [s][d] = [" + s + "][" + d + "]");
-            System.exit(-1);
-        }
+        if (pChosen == -1)
+            networkManager.blockDemand(s, d, BLOCKED_SERVER);
         return pChosen;
     }
 
-    private List<Integer> allocateDemandInPathGreedy(String alg, int s, int d, int p, boolean lastTry) {
+    private List<Integer> allocateDemandInPathGreedy(int s, int d, int p, boolean lastTry) {
         // allocate functions on that path
         List<Integer> functionServerMapping = new ArrayList<>();
         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
@@ -149,7 +304,7 @@ public class HeuristicAlgorithm {
             if (availableServers.isEmpty())
                 break; // if no available server, break
             // choose one server
-            int xChosen = chooseServerForSpecificFunction(alg, s, d, p, v, availableServers, lastTry);
+            int xChosen = chooseServerForSpecificFunction(s, d, p, v, availableServers, lastTry);
             if (xChosen == -1)
                 break; // if no server found, break
             // add demand to server
@@ -160,16 +315,22 @@ public class HeuristicAlgorithm {
     }
 
     public void optimizePlacementGreedy() {
+        useStrategies(GRD);
         setPathsIncumbent();
         setPlacementIncumbent();
+        vars.updatePenalties();
         double bestKnownObjVal = vars.objVal;
         Auxiliary.printLog(log, INFO, "initial incumbent [" + bestKnownObjVal + "]");
         List<Integer> services = Interval.zeroTo(pm.getServices().size() - 1).toList();
-        Collections.shuffle(services);
+        Collections.shuffle(services, rnd);
         for (int sIndex1 = 0; sIndex1 < pm.getServices().size(); sIndex1++)
             for (int sIndex = 0; sIndex < pm.getServices().size(); sIndex++) {
+                if (tracker.shouldStop())
+                    return;
                 int s = services.get(sIndex);
                 for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++) {
+                    if (networkManager.isDemandBlocked(s, d))
+                        continue;
                     List<Integer> availablePaths = networkManager.getAvailablePaths(s, d);
                     boolean removePreviousAllocation = true;
                     for (Integer p : availablePaths) {
@@ -180,13 +341,14 @@ public class HeuristicAlgorithm {
                         boolean lastTry = false;
                         if (availablePaths.size() == 1)
                             lastTry = true;
-                        List<Integer> functionServerMapping = allocateDemandInPathGreedy(GRD, s, d, p, lastTry);
+                        networkManager.beginMove();
+                        List<Integer> functionServerMapping = allocateDemandInPathGreedy(s, d, p, lastTry);
                         if (functionServerMapping.size() == pm.getServices().get(s).getFunctions().size()) {
+                            networkManager.commitMove();
                             networkManager.addDemandToPath(s, p, d);
                             removePreviousAllocation = true;
                         } else {
-                            for (int v = 0; v < functionServerMapping.size(); v++)
-                                networkManager.removeDemandToFunctionToServer(s, functionServerMapping.get(v), v, d);
+                            networkManager.rollbackMove();
                             removePreviousAllocation = false;
                             continue;
                         }
@@ -194,110 +356,136 @@ public class HeuristicAlgorithm {
                         double currentBestKnownObjVal = reallocateFunctionsInPath(s, d, p, bestKnownObjVal);
                         if (currentBestKnownObjVal < bestKnownObjVal) {
                             bestKnownObjVal = currentBestKnownObjVal;
-                            pathsIncumbent.put(String.valueOf(s) + String.valueOf(d), p);
+                            pathsIncumbent.put(keys.key(s, d), p);
                         }
                     }
                     networkManager.removeDemandFromAllFunctionsToServer(s, d);
                     removeDemandFromOldPath(s, d);
-                    int pBest = pathsIncumbent.get(String.valueOf(s) + String.valueOf(d));
+                    int pBest = pathsIncumbent.getOrThrow(keys.key(s, d));
                     for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
-                        int xChosen = placementIncumbent
-                                .get(String.valueOf(s) + String.valueOf(d) + String.valueOf(pBest) + String.valueOf(v));
+                        int xChosen = placementIncumbent.getOrThrow(keys.key(s, d, pBest, v));
                         networkManager.addDemandToFunctionToServer(s, xChosen, v, d);
                     }
                     networkManager.addDemandToPath(s, pBest, d);
                 }
                 networkManager.removeUnusedFunctions(s);
-                networkManager.removeSyncTraffic(s);
-                networkManager.addSyncTraffic(s);
+                networkManager.updateSyncTraffic(s);
+                vars.updatePenalties();
+                tracker.publish(vars, GRD);
             }
     }
 
+    // every move is applied, the journal keeps the changes since the best placement found so far and undoes them
+    // at the end
     private double reallocateFunctionsInPath(int s, int d, int p, double bestObjVal) {
         double localBestObjVal = bestObjVal;
+        networkManager.beginMove();
         for (int j = 0; j < pm.getServices().get(s).getFunctions().size()
                 * pm.getServices().get(s).getFunctions().size(); j++) {
             List<Integer> functions = Interval.zeroTo(pm.getServices().get(s).getFunctions().size() - 1).toList();
-            Collections.shuffle(functions);
+            Collections.shuffle(functions, rnd);
             for (int vIndex = 0; vIndex < functions.size(); vIndex++) {
                 int v = functions.get(vIndex);
                 List<Integer> availableServers = networkManager.findServersForSpecificFunction(s, d, p, v, true, true);
-                Collections.shuffle(availableServers);
+                Collections.shuffle(availableServers, rnd);
                 for (int i = 0; i < availableServers.size(); i++) {
                     int xOld = networkManager.getUsedServerForFunction(s, d, v);
                     int xNew = availableServers.get(i);
                     if (xOld == xNew)
                         continue;
-                    reallocateSpecificFunction(s, d, v, xOld, xNew);
+                    networkManager.beginMove();
+                    if (!reallocateSpecificFunction(s, d, v, xOld, xNew)) {
+                        networkManager.rollbackMove();
+                        vars.updatePenalties();
+                        continue;
+                    }
+                    networkManager.commitMove();
                     if (vars.getObjVal() < localBestObjVal) {
                         Auxiliary.printLog(log, INFO, "new incumbent [" + vars.getObjVal() + "]");
                         localBestObjVal = vars.getObjVal();
-                        placementIncumbent.put(
-                                String.valueOf(s) + String.valueOf(d) + String.valueOf(p) + String.valueOf(v), xNew);
+                        for (int w = 0; w < pm.getServices().get(s).getFunctions().size(); w++)
+                            placementIncumbent.put(keys.key(s, d, p, w),
+                                    networkManager.getUsedServerForFunction(s, d, w));
+                        networkManager.commitMove();
+                        networkManager.beginMove();
                     }
                 }
             }
 
         }
-        if (localBestObjVal < bestObjVal)
-            for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
-                reallocateFunctionToBesKnownPlacement(s, d, v, p);
+        networkManager.rollbackMove();
+        vars.updatePenalties();
         return localBestObjVal;
     }
 
-    private void reallocateFunctionToBesKnownPlacement(int s, int d, int v, int p) {
-        int xOld = networkManager.getUsedServerForFunction(s, d, v);
-        int xBest = placementIncumbent
-                .get(String.valueOf(s) + String.valueOf(d) + String.valueOf(p) + String.valueOf(v));
-        if (xOld != xBest)
-            reallocateSpecificFunction(s, d, v, xOld, xBest);
-    }
-
-    private void reallocateSpecificFunction(int s, int d, int v, int xOld, int xNew) {
+    // returns false if the sync traffic of the new placement does not fit
+    private boolean reallocateSpecificFunction(int s, int d, int v, int xOld, int xNew) {
         if (xOld != -1)
             networkManager.removeDemandToFunctionToServer(s, xOld, v, d);
         networkManager.addDemandToFunctionToServer(s, xNew, v, d);
         networkManager.removeUnusedFunctions(s);
-        networkManager.removeSyncTraffic(s);
-        networkManager.addSyncTraffic(s);
-        vars.generateRestOfVariablesForResults();
-    }
-
-    private Integer choosePath(String algorithm, int s, int d, List<Integer> paths, boolean lastTry) {
-        if (algorithm.equals(FF))
-            return paths.get(0);
-        else if (algorithm.equals(RF))
-            return paths.get(rnd.nextInt(paths.size()));
-        else if (algorithm.equals(GRD)) {
-            int pChosen = getAlreadyUsedPathForDemandFromInitialPlacement(s, d, paths);
-            if (pChosen != -1)
-                return pChosen;
-            pChosen = getAlreadyUsedPathFromInitialPlacement(s, paths);
-            if (pChosen != -1)
-                return pChosen;
-            pChosen = getAlreadyUsedPathForService(s, paths);
-            if (pChosen != -1)
-                return pChosen;
-            if (!lastTry)
-                return -1; // if not last path, discard
-            return getPathWithLowerServiceDelay(s, d, paths);
-        } else if (algorithm.equals(JOURNAL_GRD_FIRST))
-            return paths.get(0);
-        return -1;
+        boolean routed = networkManager.updateSyncTraffic(s);
+        vars.updatePenalties();
+        return routed;
+    }
+
+    private int choosePathGreedy(int s, int d, List<Integer> paths, boolean lastTry) {
+        int pChosen = getAlreadyUsedPathForDemandFromInitialPlacement(s, d, paths);
+        if (pChosen != -1)
+            return pChosen;
+        pChosen = getAlreadyUsedPathFromInitialPlacement(s, paths);
+        if (pChosen != -1)
+            return pChosen;
+        pChosen = getAlreadyUsedPathForService(s, paths);
+        if (pChosen != -1)
+            return pChosen;
+        if (!lastTry)
+            return -1; // if not last path, discard
+        return getPathWithLowerServiceDelay(s, d, paths);
+    }
+
+    // path with the lowest maximum link utilization among the ones within the propagation delay of the service
+    private int chooseLeastLoadedPath(int s, int d, List<Integer> paths, boolean lastTry) {
+        double maxPropagationDelay = pm.getServices().get(s).getMaxPropagationDelay();
+        int pChosen = -1;
+        boolean chosenWithinDelay = false;
+        double chosenUtilization = Double.MAX_VALUE, chosenDelay = Double.MAX_VALUE;
+        for (int p : paths) {
+            double utilization = 0, delay = 0;
+            for (Edge link : pm.getServices().get(s).getTrafficFlow().getPaths().get(p).getEdgePath()) {
+                utilization = Math.max(utilization, vars.uL[link.getIndex()]);
+                delay += (double) link.getAttribute(LINK_DELAY) * 1000; // in ms
+            }
+            boolean withinDelay = maxPropagationDelay <= 0 || delay <= maxPropagationDelay;
+            if (pChosen == -1 || withinDelay && !chosenWithinDelay || withinDelay == chosenWithinDelay
+                    && (utilization < chosenUtilization || utilization == chosenUtilization && delay < chosenDelay)) {
+                pChosen = p;
+                chosenWithinDelay = withinDelay;
+                chosenUtilization = utilization;
+                chosenDelay = delay;
+            }
+        }
+        return pChosen;
     }
 
     public List<Integer> chooseServersForAllFunctions(String algorithm, int s, int d, int p,
             List<List<Integer>> listAvailableServersPerFunction) {
+        useStrategies(algorithm);
+        return chooseServersForAllFunctions(s, d, p, listAvailableServersPerFunction);
+    }
+
+    private List<Integer> chooseServersForAllFunctions(int s, int d, int p,
+            List<List<Integer>> listAvailableServersPerFunction) {
         List<Integer> specificServers = new ArrayList<>();
         int lastPathNodeUsed = 0;
         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
             List<Integer> availableServers = listAvailableServersPerFunction.get(v);
             availableServers = removePreviousServersFromNodeIndex(availableServers, lastPathNodeUsed, s, p);
-            int xChosen = chooseServerForFunction(algorithm, availableServers, s, v, d, false);
+            int xChosen = placementStrategy.chooseServer(availableServers, s, v, d, false);
             if (xChosen == -1) {
-                Auxiliary.printLog(log, ERROR,
+                Auxiliary.printLog(log, WARNING,
                         "function could not be allocated [s][d][p][v] = [" + s + "][" + d + "][" + p + "][" + v + "]");
-                System.exit(-1);
+                return null;
             }
             specificServers.add(xChosen);
             lastPathNodeUsed = networkManager.getNodePathIndexFromServer(s, p, xChosen);
@@ -307,6 +495,12 @@ public class HeuristicAlgorithm {
 
     public int chooseServerForSpecificFunction(String algorithm, int s, int d, int p, int v,
             List<Integer> availableServers, boolean lastTry) {
+        useStrategies(algorithm);
+        return chooseServerForSpecificFunction(s, d, p, v, availableServers, lastTry);
+    }
+
+    private int chooseServerForSpecificFunction(int s, int d, int p, int v, List<Integer> availableServers,
+            boolean lastTry) {
         if (v > 0) {
             int previousServer = networkManager.getUsedServerForFunction(s, d, v - 1);
             int serverFromPreviousFunction = networkManager.getNodePathIndexFromServer(s, p, previousServer);
@@ -319,7 +513,7 @@ public class HeuristicAlgorithm {
                 availableServers = removeNextServersFromNodeIndex(availableServers, serverFromNextFunction, s, p);
             }
         }
-        return chooseServerForFunction(algorithm, availableServers, s, v, d, lastTry);
+        return placementStrategy.chooseServer(availableServers, s, v, d, lastTry);
     }
 
     public List<Integer> removePreviousServersFromNodeIndex(List<Integer> servers, int nodeIndex, int s, int p) {
@@ -344,18 +538,25 @@ public class HeuristicAlgorithm {
         return servers;
     }
 
-    private Integer chooseServerForFunction(String algorithm, List<Integer> availableServers, int s, int v, int d,
-            boolean lastTry) {
-        if (algorithm.equals(FF))
-            return availableServers.get(0);
-        else if (algorithm.equals(RF))
-            return availableServers.get(rnd.nextInt(availableServers.size()));
-        else if (algorithm.contains(GRD))
-            return chooseServerForFunctionGreedy(availableServers, s, v, d, lastTry);
-        return -1;
+    // available servers already fit the demand, they come from the free capacity index of every node on the path, so
+    // a scan over them is enough, best-fit keeps the least free capacity left
+    private int chooseBestFitServer(List<Integer> availableServers, int s, int v, int d, boolean lastTry) {
+        int xChosen = availableServers.get(0);
+        for (int x : availableServers)
+            if (vars.freeCapacity.getFreeCapacity(x) < vars.freeCapacity.getFreeCapacity(xChosen))
+                xChosen = x;
+        return xChosen;
     }
 
-    private Integer chooseServerForFunctionGreedy(List<Integer> availableServers, int s, int v, int d,
+    private int chooseWorstFitServer(List<Integer> availableServers, int s, int v, int d, boolean lastTry) {
+        int xChosen = availableServers.get(0);
+        for (int x : availableServers)
+            if (vars.freeCapacity.getFreeCapacity(x) > vars.freeCapacity.getFreeCapacity(xChosen))
+                xChosen = x;
+        return xChosen;
+    }
+
+    private int chooseServerForFunctionGreedy(List<Integer> availableServers, int s, int v, int d,
             boolean lastTry) {
         int xCloudIndex = -1;
         for (int x = 0; x < availableServers.size(); x++)
@@ -399,7 +600,7 @@ public class HeuristicAlgorithm {
             for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
                 for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
                     if (vars.zSPD[s][p][d])
-                        pathsIncumbent.put(String.valueOf(s) + String.valueOf(d), p);
+                        pathsIncumbent.put(keys.key(s, d), p);
     }
 
     private void setPlacementIncumbent() {
@@ -407,11 +608,8 @@ public class HeuristicAlgorithm {
             for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
                 for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
                     for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
-                        for (int x = 0; x < pm.getServers().size(); x++)
-                            if (vars.fXSVD[x][s][v][d])
-                                placementIncumbent.put(
-                                        String.valueOf(s) + String.valueOf(d) + String.valueOf(p) + String.valueOf(v),
-                                        x);
+                        if (vars.xSVD[s][v][d] != -1)
+                            placementIncumbent.put(keys.key(s, d, p, v), vars.xSVD[s][v][d]);
     }
 
     public void removeDemandFromOldPath(int s, int d) {
@@ -452,9 +650,9 @@ public class HeuristicAlgorithm {
     }
 
     private int getAlreadyUsedServerforDemandFromInitialPlacement(int s, int v, int d, List<Integer> servers) {
-        for (int x = 0; x < pm.getServers().size(); x++)
-            if (vars.fXSVDinitial[x][s][v][d] && servers.contains(x))
-                return x;
+        int x = vars.xSVDinitial[s][v][d];
+        if (x != -1 && servers.contains(x))
+            return x;
         return -1;
     }
 
@@ -466,12 +664,14 @@ public class HeuristicAlgorithm {
     }
 
     private int getPathWithLowerServiceDelay(int s, int d, List<Integer> paths) {
+        // delays only read the current state, so many paths are evaluated in parallel
+        List<Double> pathDelays = networkManager.evaluate(paths.size(), paths.size() >= PARALLEL_PATHS_THRESHOLD,
+                p -> vars.getCurrentServiceDelay(s, d, paths.get(p)));
         int pathWithLowestDelay = 0;
         double lowestDelay = Double.MAX_VALUE;
         for (int p = 0; p < paths.size(); p++) {
-            double pathDelay = vars.getCurrentServiceDelay(s, d, paths.get(p));
-            if (pathDelay < lowestDelay) {
-                lowestDelay = pathDelay;
+            if (pathDelays.get(p) < lowestDelay) {
+                lowestDelay = pathDelays.get(p);
                 pathWithLowestDelay = paths.get(p);
             }
         }
@@ -0,0 +1,345 @@
+package optimizer.algorithms.heuristics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static optimizer.Definitions.*;
+import org.eclipse.collections.impl.map.mutable.primitive.LongLongHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import optimizer.Parameters;
+import optimizer.algorithms.IncumbentTracker;
+import optimizer.algorithms.NetworkManager;
+import optimizer.algorithms.VariablesAlg;
+import optimizer.results.Auxiliary;
+
+public class LocalSearchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalSearchEngine.class);
+
+    private static final int REROUTE = 0;
+    private static final int RELOCATE = 1;
+    private static final int MERGE = 2;
+
+    private Parameters pm;
+    private VariablesAlg vars;
+    private NetworkManager networkManager;
+    private Random rnd;
+    private IncumbentTracker tracker;
+    private int[] neighbourhoods;
+    private boolean tabu;
+    private double timeLimit;
+    private long maxIterations;
+    private double temperature;
+    private double coolingRate;
+    private int tabuTenure;
+    private int tabuCandidates;
+    // move attribute -> last iteration in which the attribute is tabu
+    private LongLongHashMap tabuList;
+    // routed demands as [s, d]
+    private List<int[]> demands;
+    private double snapshotObjVal;
+    private int[][][] snapshotXSVD;
+    private int[][] snapshotPathSD;
+
+    public LocalSearchEngine(Parameters pm, VariablesAlg vars, NetworkManager networkManager, Random rnd) {
+        this.pm = pm;
+        this.vars = vars;
+        this.networkManager = networkManager;
+        this.rnd = rnd;
+        this.tracker = IncumbentTracker.unbounded();
+        this.tabu = LS_TABU.equals(pm.getGlobal(LS_ACCEPTANCE));
+        this.timeLimit = globalNumber(pm, LS_TIME_LIMIT, Double.POSITIVE_INFINITY) * 1000;
+        this.maxIterations = (long) globalNumber(pm, LS_MAX_ITERATIONS, Long.MAX_VALUE);
+        this.temperature = globalNumber(pm, LS_INITIAL_TEMPERATURE, 1.0);
+        this.coolingRate = globalNumber(pm, LS_COOLING_RATE, 0.999);
+        this.tabuTenure = (int) globalNumber(pm, LS_TABU_TENURE, 10);
+        this.tabuCandidates = (int) globalNumber(pm, LS_TABU_CANDIDATES, 10);
+        this.tabuList = new LongLongHashMap();
+        List<String> names = new ArrayList<>();
+        if (pm.getGlobal(LS_NEIGHBOURHOODS) != null)
+            for (Object name : (List<?>) pm.getGlobal(LS_NEIGHBOURHOODS))
+                names.add(String.valueOf(name));
+        else {
+            names.add(LS_REROUTE);
+            names.add(LS_RELOCATE);
+            names.add(LS_MERGE);
+        }
+        List<Integer> types = new ArrayList<>();
+        for (String name : names)
+            if (name.equals(LS_REROUTE))
+                types.add(REROUTE);
+            else if (name.equals(LS_RELOCATE))
+                types.add(RELOCATE);
+            else if (name.equals(LS_MERGE))
+                types.add(MERGE);
+            else
+                Auxiliary.printLog(log, WARNING, "unknown local search neighbourhood [" + name + "]");
+        this.neighbourhoods = types.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public void setIncumbentTracker(IncumbentTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    // the local search only runs when a budget is set in the global section, qos penalties are only computed when
+    // the results are exported so moves could not be evaluated with them
+    public static boolean isConfigured(Parameters pm, String objFunc) {
+        if (pm.getGlobal(LS_TIME_LIMIT) == null && pm.getGlobal(LS_MAX_ITERATIONS) == null)
+            return false;
+        if (QOS_PENALTIES.equals(objFunc) || ALL_MONETARY_COSTS.equals(objFunc)) {
+            Auxiliary.printLog(log, WARNING, "local search not supported for [" + objFunc + "], skipped");
+            return false;
+        }
+        return true;
+    }
+
+    private static double globalNumber(Parameters pm, String key, double defaultValue) {
+        Object value = pm.getGlobal(key);
+        if (value == null)
+            return defaultValue;
+        return ((Number) value).doubleValue();
+    }
+
+    public void run() {
+        demands = new ArrayList<>();
+        for (int s = 0; s < pm.getServices().size(); s++)
+            for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+                if (getRoutedPath(s, d) != -1)
+                    demands.add(new int[] { s, d });
+        if (demands.isEmpty() || neighbourhoods.length == 0)
+            return;
+        takeSnapshot();
+        Auxiliary.printLog(log, INFO, "local search (" + (tabu ? LS_TABU : LS_SA) + ") starting from ["
+                + vars.objVal + "]");
+        long startTime = System.currentTimeMillis();
+        long iteration = 0;
+        while (iteration < maxIterations && System.currentTimeMillis() - startTime < timeLimit
+                && !tracker.shouldStop()) {
+            iteration++;
+            if (tabu)
+                tabuIteration(iteration);
+            else
+                annealingIteration();
+            // the snapshot always holds the best solution found, so it is taken on every improvement
+            if (vars.objVal < snapshotObjVal) {
+                takeSnapshot();
+                tracker.publish(vars, tabu ? LS_TABU : LS_SA);
+                Auxiliary.printLog(log, INFO, "incumbent snapshot [" + snapshotObjVal + "] at iteration ["
+                        + iteration + "]");
+            }
+        }
+        if (snapshotObjVal < vars.objVal)
+            restoreSnapshot();
+        tracker.publish(vars, tabu ? LS_TABU : LS_SA);
+        Auxiliary.printLog(log, INFO, "local search finished after [" + iteration + "] iterations [" + vars.objVal
+                + "]");
+    }
+
+    private void annealingIteration() {
+        Move move = proposeMove();
+        if (move == null)
+            return;
+        double currentObjVal = vars.objVal;
+        networkManager.beginMove();
+        if (!applyMove(move)) {
+            networkManager.rollbackMove();
+            return;
+        }
+        double delta = vars.objVal - currentObjVal;
+        if (delta <= 0 || rnd.nextDouble() < Math.exp(-delta / temperature))
+            networkManager.commitMove();
+        else
+            networkManager.rollbackMove();
+        temperature *= coolingRate;
+    }
+
+    private void tabuIteration(long iteration) {
+        Move bestMove = null;
+        double bestMoveObjVal = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < tabuCandidates; i++) {
+            Move move = proposeMove();
+            if (move == null)
+                continue;
+            networkManager.beginMove();
+            boolean feasible = applyMove(move);
+            double objVal = vars.objVal;
+            networkManager.rollbackMove();
+            if (!feasible)
+                continue;
+            if (isTabu(move, iteration) && objVal >= snapshotObjVal) // aspiration
+                continue;
+            if (objVal < bestMoveObjVal) {
+                bestMove = move;
+                bestMoveObjVal = objVal;
+            }
+        }
+        if (bestMove == null)
+            return;
+        long reverseAttribute = reverseAttribute(bestMove);
+        networkManager.beginMove();
+        applyMove(bestMove);
+        networkManager.commitMove();
+        tabuList.put(reverseAttribute, iteration + tabuTenure);
+    }
+
+    private Move proposeMove() {
+        int[] demand = demands.get(rnd.nextInt(demands.size()));
+        int s = demand[0], d = demand[1];
+        int numFunctions = pm.getServices().get(s).getFunctions().size();
+        int p = getRoutedPath(s, d);
+        switch (neighbourhoods[rnd.nextInt(neighbourhoods.length)]) {
+        case REROUTE: {
+            List<Integer> paths = networkManager.getAvailablePaths(s, d);
+            paths.remove(Integer.valueOf(p));
+            if (paths.isEmpty())
+                return null;
+            return new Move(REROUTE, s, d, -1, paths.get(rnd.nextInt(paths.size())));
+        }
+        case RELOCATE: {
+            int v = rnd.nextInt(numFunctions);
+            List<Integer> servers = networkManager.findServersForSpecificFunction(s, d, p, v, true, true);
+            servers.remove(Integer.valueOf(vars.xSVD[s][v][d]));
+            if (servers.isEmpty())
+                return null;
+            return new Move(RELOCATE, s, d, v, servers.get(rnd.nextInt(servers.size())));
+        }
+        case MERGE: {
+            int v = rnd.nextInt(numFunctions);
+            if (vars.replicasSV[s][v].size() < 2)
+                return null;
+            return new Move(MERGE, s, d, v, vars.xSVD[s][v][d]);
+        }
+        }
+        return null;
+    }
+
+    // applies the move inside an open NetworkManager move, returns false if it is infeasible, also when the sync
+    // traffic of the new replicas does not fit
+    private boolean applyMove(Move move) {
+        int s = move.s, d = move.d, v = move.v;
+        switch (move.type) {
+        case REROUTE:
+            networkManager.removeDemandFromAllFunctionsToServer(s, d);
+            networkManager.removeDemandFromPath(s, getRoutedPath(s, d), d);
+            for (int v1 = 0; v1 < pm.getServices().get(s).getFunctions().size(); v1++) {
+                int x = chooseServer(s, d, move.target, v1, -1);
+                if (x == -1)
+                    return false;
+                networkManager.addDemandToFunctionToServer(s, x, v1, d);
+            }
+            networkManager.addDemandToPath(s, move.target, d);
+            break;
+        case RELOCATE:
+            networkManager.removeDemandToFunctionToServer(s, vars.xSVD[s][v][d], v, d);
+            networkManager.addDemandToFunctionToServer(s, move.target, v, d);
+            break;
+        case MERGE:
+            // moves every demand of the replica to another replica of the same function
+            for (int d1 = 0; d1 < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d1++) {
+                if (vars.xSVD[s][v][d1] != move.target)
+                    continue;
+                int x = chooseServer(s, d1, getRoutedPath(s, d1), v, move.target);
+                if (x == -1 || !vars.fXSV[x][s][v])
+                    return false;
+                networkManager.removeDemandToFunctionToServer(s, move.target, v, d1);
+                networkManager.addDemandToFunctionToServer(s, x, v, d1);
+            }
+            break;
+        }
+        networkManager.removeUnusedFunctions(s);
+        return networkManager.updateSyncTraffic(s);
+    }
+
+    // first server that already hosts the function, otherwise the first available one
+    private int chooseServer(int s, int d, int p, int v, int excludedServer) {
+        List<Integer> servers = networkManager.findServersForSpecificFunction(s, d, p, v, true, true);
+        servers.remove(Integer.valueOf(excludedServer));
+        if (servers.isEmpty())
+            return -1;
+        for (int x : servers)
+            if (vars.fXSV[x][s][v])
+                return x;
+        return servers.get(0);
+    }
+
+    private boolean isTabu(Move move, long iteration) {
+        if (tabuList.getIfAbsent(attribute(move.type, move.s, move.d, move.v, move.target), 0) >= iteration)
+            return true;
+        // relocating a demand back to a merged replica
+        return move.type == RELOCATE
+                && tabuList.getIfAbsent(attribute(MERGE, move.s, 0, move.v, move.target), 0) >= iteration;
+    }
+
+    private long reverseAttribute(Move move) {
+        switch (move.type) {
+        case REROUTE:
+            return attribute(REROUTE, move.s, move.d, -1, getRoutedPath(move.s, move.d));
+        case RELOCATE:
+            return attribute(RELOCATE, move.s, move.d, move.v, vars.xSVD[move.s][move.v][move.d]);
+        default:
+            return attribute(MERGE, move.s, 0, move.v, move.target);
+        }
+    }
+
+    private static long attribute(int type, int s, int d, int v, int target) {
+        return ((long) type << 60) | ((long) s << 44) | ((long) d << 28) | ((long) (v + 1) << 20) | target;
+    }
+
+    private int getRoutedPath(int s, int d) {
+        for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+            if (vars.zSPD[s][p][d])
+                return p;
+        return -1;
+    }
+
+    private void takeSnapshot() {
+        snapshotObjVal = vars.objVal;
+        if (snapshotXSVD == null) {
+            snapshotXSVD = new int[pm.getServices().size()][][];
+            snapshotPathSD = new int[pm.getServices().size()][];
+        }
+        for (int s = 0; s < pm.getServices().size(); s++) {
+            snapshotXSVD[s] = new int[vars.xSVD[s].length][];
+            for (int v = 0; v < vars.xSVD[s].length; v++)
+                snapshotXSVD[s][v] = vars.xSVD[s][v].clone();
+            snapshotPathSD[s] = new int[pm.getServices().get(s).getTrafficFlow().getDemands().size()];
+        }
+        for (int[] demand : demands)
+            snapshotPathSD[demand[0]][demand[1]] = getRoutedPath(demand[0], demand[1]);
+    }
+
+    private void restoreSnapshot() {
+        for (int[] demand : demands) {
+            networkManager.removeDemandFromAllFunctionsToServer(demand[0], demand[1]);
+            networkManager.removeDemandFromPath(demand[0], getRoutedPath(demand[0], demand[1]), demand[1]);
+        }
+        for (int[] demand : demands) {
+            int s = demand[0], d = demand[1];
+            for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+                networkManager.addDemandToFunctionToServer(s, snapshotXSVD[s][v][d], v, d);
+            networkManager.addDemandToPath(s, snapshotPathSD[s][d], d);
+        }
+        for (int s = 0; s < pm.getServices().size(); s++) {
+            networkManager.removeUnusedFunctions(s);
+            networkManager.updateSyncTraffic(s);
+        }
+    }
+
+    private static class Move {
+        private final int type;
+        private final int s;
+        private final int d;
+        private final int v;
+        private final int target;
+
+        private Move(int type, int s, int d, int v, int target) {
+            this.type = type;
+            this.s = s;
+            this.d = d;
+            this.v = v;
+            this.target = target;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package optimizer.algorithms.heuristics;
+
+import static optimizer.Definitions.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import optimizer.Parameters;
+import optimizer.algorithms.NetworkManager;
+import optimizer.elements.TrafficFlow;
+import optimizer.results.Auxiliary;
+
+// handles arriving and departing demands on top of the current state, only the affected service is updated
+public class OnlineAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(OnlineAllocator.class);
+
+    private Parameters pm;
+    private NetworkManager networkManager;
+    private HeuristicAlgorithm heuristicAlgorithm;
+    private String algorithm;
+
+    public OnlineAllocator(Parameters pm, NetworkManager networkManager, HeuristicAlgorithm heuristicAlgorithm,
+            String algorithm) {
+        this.pm = pm;
+        this.networkManager = networkManager;
+        this.heuristicAlgorithm = heuristicAlgorithm;
+        this.algorithm = algorithm;
+    }
+
+    // demands only count as offered traffic while they are active
+    public void deactivateAllDemands() {
+        for (TrafficFlow trafficFlow : pm.getTrafficFlows())
+            for (int d = 0; d < trafficFlow.getDemands().size(); d++)
+                trafficFlow.getAux().set(d, false);
+    }
+
+    // returns false if the demand is rejected
+    public boolean arrive(int s, int d) {
+        TrafficFlow trafficFlow = pm.getServices().get(s).getTrafficFlow();
+        if (trafficFlow.getAux().get(d)) {
+            Auxiliary.printLog(log, WARNING, "demand [s][d] = [" + s + "][" + d + "] is already active");
+            return !networkManager.isDemandBlocked(s, d);
+        }
+        trafficFlow.getAux().set(d, true);
+        networkManager.unblockDemand(s, d);
+        return heuristicAlgorithm.allocateSingleDemand(algorithm, s, d);
+    }
+
+    public void depart(int s, int d) {
+        TrafficFlow trafficFlow = pm.getServices().get(s).getTrafficFlow();
+        if (!trafficFlow.getAux().get(d))
+            return;
+        trafficFlow.getAux().set(d, false);
+        if (networkManager.isDemandBlocked(s, d)) {
+            networkManager.unblockDemand(s, d);
+            return;
+        }
+        networkManager.removeDemandFromAllFunctionsToServer(s, d);
+        heuristicAlgorithm.removeDemandFromOldPath(s, d);
+        networkManager.removeUnusedFunctions(s);
+        networkManager.updateSyncTraffic(s);
+    }
+}
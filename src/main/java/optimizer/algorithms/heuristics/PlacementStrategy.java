@@ -0,0 +1,10 @@
+package optimizer.algorithms.heuristics;
+
+import java.util.List;
+
+// chooses the server of function v of a demand among the available ones, -1 if none is chosen
+@FunctionalInterface
+public interface PlacementStrategy {
+
+    int chooseServer(List<Integer> availableServers, int s, int v, int d, boolean lastTry);
+}
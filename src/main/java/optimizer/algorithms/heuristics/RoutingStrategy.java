@@ -0,0 +1,10 @@
+package optimizer.algorithms.heuristics;
+
+import java.util.List;
+
+// chooses the path of a demand among the admissible ones, -1 discards all of them
+@FunctionalInterface
+public interface RoutingStrategy {
+
+    int choosePath(int s, int d, List<Integer> paths, boolean lastTry);
+}
@@ -3,9 +3,7 @@ package optimizer.algorithms.learning;
 import static optimizer.Definitions.*;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.deeplearning4j.nn.api.OptimizationAlgorithm;
 import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
@@ -19,8 +17,10 @@ import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.lossfunctions.LossFunctions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.eclipse.collections.impl.map.mutable.primitive.LongDoubleHashMap;
 
 import optimizer.Parameters;
+import optimizer.algorithms.IndexKeys;
 import optimizer.algorithms.NetworkManager;
 import optimizer.algorithms.VariablesAlg;
 import optimizer.results.Auxiliary;
@@ -34,7 +34,8 @@ public class PlacementModel {
    protected int environmentSize;
    private float bestGlobalObjVal;
    private float previousObjVal;
-   private Map<String, Double> epsilons;
+   private IndexKeys keys;
+   private LongDoubleHashMap epsilons;
    private NetworkManager heu;
 
    private static final Logger log = LoggerFactory.getLogger(PlacementModel.class);
@@ -43,7 +44,8 @@ public class PlacementModel {
       this.pm = pm;
       this.vars = variablesAlg;
       this.heu = heu;
-      epsilons = new HashMap<>();
+      keys = new IndexKeys(pm);
+      epsilons = new LongDoubleHashMap();
       environmentSize = pm.getServiceLength() * pm.getServers().size();
       offsetInput = 5;
       int inputLength = environmentSize + offsetInput;
@@ -78,7 +80,7 @@ public class PlacementModel {
       previousObjVal = bestGlobalObjVal;
       float[] environment = createEnvironment(s, d, p);
       float[] nextEnvironment;
-      String epsilonKey = String.valueOf(s) + String.valueOf(d) + String.valueOf(p);
+      long epsilonKey = keys.key(s, d, p);
       if (!epsilons.containsKey(epsilonKey))
          epsilons.put(epsilonKey, 1.0);
 
@@ -93,8 +95,7 @@ public class PlacementModel {
             int action = deepQ.getAction(inputIndArray, actionMask, epsilons.get(epsilonKey));
             // generate next environment of on the new chosen path
             nextEnvironment = modifyEnvironment(environment, action, i, s, d);
-            // calculate new objective value
-            vars.generateRestOfVariablesForResults();
+            vars.updatePenalties();
             // update new objective value to the next environment
             nextEnvironment[nextEnvironment.length - 2] = (float) vars.objVal;
             // calculate the reward and create a new experience
@@ -132,7 +133,7 @@ public class PlacementModel {
 
       for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
          for (int x = 0; x < pm.getServers().size(); x++) {
-            float value = vars.fXSVD[x][s][v][d] ? 1 : 0;
+            float value = vars.xSVD[s][v][d] == x ? 1 : 0;
             environmentList.add(value);
          }
 
@@ -2,9 +2,7 @@ package optimizer.algorithms.learning;
 
 import static optimizer.Definitions.*;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.deeplearning4j.nn.api.OptimizationAlgorithm;
 import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
@@ -18,8 +16,11 @@ import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.lossfunctions.LossFunctions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.eclipse.collections.impl.map.mutable.primitive.LongDoubleHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
 
 import optimizer.Parameters;
+import optimizer.algorithms.IndexKeys;
 import optimizer.algorithms.NetworkManager;
 import optimizer.algorithms.VariablesAlg;
 import optimizer.algorithms.heuristics.HeuristicAlgorithm;
@@ -33,8 +34,9 @@ public class PlacementModel2 {
    private final int offsetInput;
    private NetworkManager networkManager;
    private HeuristicAlgorithm heuristicAlgorithm;
-   private Map<String, Double> epsilons;
-   private Map<String, Integer> optimumPaths;
+   private IndexKeys keys;
+   private LongDoubleHashMap epsilons;
+   private LongIntHashMap optimumPaths;
    private int outputLength;
    private int inputLength;
 
@@ -49,8 +51,9 @@ public class PlacementModel2 {
       offsetInput = 5;
       inputLength = pm.getServers().size() + offsetInput;
       outputLength = pm.getServers().size() + 1;
-      epsilons = new HashMap<>();
-      optimumPaths = new HashMap<>();
+      keys = new IndexKeys(pm);
+      epsilons = new LongDoubleHashMap();
+      optimumPaths = new LongIntHashMap();
       if (conf == null)
          initializeModel(inputLength, outputLength);
       else
@@ -83,6 +86,8 @@ public class PlacementModel2 {
       for (int i = 0; i < pm.getServices().size() * pm.getDemandsTrafficFlow() * pm.getPathsTrafficFlow(); i++)
          for (int s = 0; s < pm.getServices().size(); s++)
             for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++) {
+               if (networkManager.isDemandBlocked(s, d))
+                  continue;
                // get paths with enough path link resources
                List<Integer> availablePaths = networkManager.getAvailablePaths(s, d);
                for (Integer p : availablePaths) {
@@ -95,6 +100,8 @@ public class PlacementModel2 {
                      continue;
                   List<Integer> chosenServers = heuristicAlgorithm.chooseServersForAllFunctions(algorithm, s, d, p,
                         availableServersPerFunction);
+                  if (chosenServers == null)
+                     continue;
                   networkManager.addDemandToFunctionsToSpecificServers(s, d, chosenServers);
                   // route traffic to path p
                   rerouteSpecificDemand(s, d, p);
@@ -117,20 +124,26 @@ public class PlacementModel2 {
       for (int i = 0; i < pm.getServices().size() * pm.getDemandsTrafficFlow() * pm.getPathsTrafficFlow(); i++) {
          for (int s = 0; s < pm.getServices().size(); s++)
             for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++) {
-               String optPathKey = String.valueOf(s) + String.valueOf(d);
+               if (networkManager.isDemandBlocked(s, d))
+                  continue;
+               long optPathKey = keys.key(s, d);
                // before placing in the best path remove previous ones
                networkManager.removeDemandFromAllFunctionsToServer(s, d);
                // and place them on servers in the best path
                List<List<Integer>> availableServersPerFunction = networkManager.findServersForFunctionsInPath(s, d,
-                     optimumPaths.get(optPathKey));
+                     optimumPaths.getOrThrow(optPathKey));
+               if (availableServersPerFunction == null)
+                  continue;
                List<Integer> chosenServers = heuristicAlgorithm.chooseServersForAllFunctions(algorithm, s, d,
-                     optimumPaths.get(optPathKey), availableServersPerFunction);
+                     optimumPaths.getOrThrow(optPathKey), availableServersPerFunction);
+               if (chosenServers == null)
+                  continue;
                networkManager.addDemandToFunctionsToSpecificServers(s, d, chosenServers);
-               rerouteSpecificDemand(s, d, optimumPaths.get(optPathKey));
+               rerouteSpecificDemand(s, d, optimumPaths.getOrThrow(optPathKey));
                // then, try to optimize the locations
                availableServersPerFunction = networkManager.findServersForFunctionsInPath(s, d,
-                     optimumPaths.get(optPathKey));
-               functionPlacement(s, d, optimumPaths.get(optPathKey), availableServersPerFunction, bestObjVal);
+                     optimumPaths.getOrThrow(optPathKey));
+               functionPlacement(s, d, optimumPaths.getOrThrow(optPathKey), availableServersPerFunction, bestObjVal);
             }
       }
    }
@@ -141,7 +154,7 @@ public class PlacementModel2 {
       for (int j = 0; j < pm.getServices().get(s).getFunctions().size()
             * pm.getServices().get(s).getFunctions().size(); j++)
          for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
-            String epsilonKey = String.valueOf(s) + String.valueOf(d) + String.valueOf(p) + String.valueOf(v);
+            long epsilonKey = keys.key(s, d, p, v);
             float[] environment = createEnvironment(s, d, v, p);
             float[] nextEnvironment;
             List<Integer> availableServers = availableServersPerFunction.get(v);
@@ -150,16 +163,21 @@ public class PlacementModel2 {
                INDArray inputIndArray = Nd4j.create(environment);
                int[] actionMask = generateActionMask(environment, s, availableServers);
                int action = deepQ.getAction(inputIndArray, actionMask, epsilons.get(epsilonKey));
+               networkManager.beginMove();
                nextEnvironment = modifyEnvironment(environment, action, s, d, v);
                networkManager.removeUnusedFunctions(s);
-               networkManager.removeSyncTraffic(s);
-               networkManager.addSyncTraffic(s);
-               vars.generateRestOfVariablesForResults();
+               networkManager.updateSyncTraffic(s);
+               vars.updatePenalties();
                float currentObjVal = (float) vars.getObjVal();
                float reward = computeReward(currentObjVal, localBestObjVal);
                int[] nextActionMask = generateActionMask(nextEnvironment, s, availableServers);
                deepQ.observeReward(Nd4j.create(environment), Nd4j.create(nextEnvironment), reward, nextActionMask);
-               environment = nextEnvironment;
+               if (currentObjVal > localBestObjVal) { // worse solution, undo the action
+                  networkManager.rollbackMove();
+               } else {
+                  networkManager.commitMove();
+                  environment = nextEnvironment;
+               }
                log.info("[s][d][p][v] - [" + s + "][" + d + "][" + p + "][" + v + "] placement iteration " + i + ": ["
                      + vars.objVal + "][" + reward + "][" + action + "]");
                if (currentObjVal < localBestObjVal) { // best case => reduce randomness to 0 and exit
@@ -187,7 +205,7 @@ public class PlacementModel2 {
 
       int srcNode = -1, dstNode = -1;
       for (int x = 0; x < pm.getServers().size(); x++) {
-         environment[x] = vars.fXSVD[x][s][v][d] ? 1 : 0;
+         environment[x] = vars.xSVD[s][v][d] == x ? 1 : 0;
          if (pm.getServers().get(x).getParent().getId().equals(pm.getServices().get(s).getTrafficFlow().getSrc()))
             srcNode = x;
          if (pm.getServers().get(x).getParent().getId().equals(pm.getServices().get(s).getTrafficFlow().getDst()))
@@ -269,7 +287,7 @@ public class PlacementModel2 {
          for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
             for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
                if (vars.zSPD[s][p][d])
-                  optimumPaths.put(String.valueOf(s) + String.valueOf(d), p);
+                  optimumPaths.put(keys.key(s, d), p);
    }
 
    private void initializeEpsilons() {
@@ -277,7 +295,7 @@ public class PlacementModel2 {
          for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
             for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
                for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
-                  epsilons.put(String.valueOf(s) + String.valueOf(d) + String.valueOf(p) + String.valueOf(v), 1.0);
+                  epsilons.put(keys.key(s, d, p, v), 1.0);
    }
 
    public MultiLayerConfiguration getConf() {
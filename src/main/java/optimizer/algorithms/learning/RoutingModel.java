@@ -88,8 +88,7 @@ public class RoutingModel {
          int action = deepQ.getAction(inputIndArray, actionMask, epsilon);
          // generate next environment for the new chosen path
          nextEnvironment = modifyEnvironment(environment, action, timeStep);
-         // calculate new objective value
-         vars.generateRestOfVariablesForResults();
+         vars.updatePenalties();
          // update new objective value to the next environment
          nextEnvironment[nextEnvironment.length - 2] = (float) vars.objVal;
          // calculate the reward and create a new experience
@@ -233,8 +232,7 @@ public class RoutingModel {
          heu.removeDemandFromPath(s, pOld, d); // remove demand from path
          heu.addDemandToPath(s, pNew, d); // add demand to path
          heu.removeUnusedFunctions(s);
-         heu.removeSyncTraffic(s);
-         heu.addSyncTraffic(s);
+         heu.updateSyncTraffic(s);
       }
    }
 
@@ -7,6 +7,7 @@ public class Function {
 
    private int type;
    private Map<String, Object> attributes;
+   private FunctionProfile profile;
 
    public Function() {
       attributes = new HashMap<>();
@@ -32,4 +33,12 @@ public class Function {
    public Map<String, Object> getAttributes() {
       return attributes;
    }
+
+   public FunctionProfile getProfile() {
+      return profile;
+   }
+
+   public void setProfile(FunctionProfile profile) {
+      this.profile = profile;
+   }
 }
@@ -0,0 +1,80 @@
+package optimizer.elements;
+
+import static optimizer.Definitions.*;
+
+public class FunctionProfile {
+
+   private final double loadRatio;
+   // overhead_ratio * max_bw * max_dem * load_ratio
+   private final double overhead;
+   // processing delay per unit of traffic
+   private final double processTrafficDelayRatio;
+   private final double minProcessDelay;
+   private final double processDelay;
+   private final double maxDelay;
+   private final double syncLoadRatio;
+   private final double charges;
+   private final boolean replicable;
+
+   public FunctionProfile(Function function) {
+      loadRatio = doubleAttribute(function, FUNCTION_LOAD_RATIO);
+      double maxBw = doubleAttribute(function, FUNCTION_MAX_BW);
+      double maxDem = doubleAttribute(function, FUNCTION_MAX_DEM);
+      overhead = doubleAttribute(function, FUNCTION_OVERHEAD_RATIO) * maxBw * maxDem * loadRatio;
+      if (maxDem * maxBw * loadRatio != 0)
+         processTrafficDelayRatio = loadRatio * doubleAttribute(function, FUNCTION_PROCESS_TRAFFIC_DELAY)
+               / (maxDem * maxBw * loadRatio);
+      else
+         processTrafficDelayRatio = 0;
+      minProcessDelay = doubleAttribute(function, FUNCTION_MIN_PROCESS_DELAY);
+      processDelay = doubleAttribute(function, FUNCTION_PROCESS_DELAY);
+      maxDelay = doubleAttribute(function, FUNCTION_MAX_DELAY);
+      syncLoadRatio = doubleAttribute(function, FUNCTION_SYNC_LOAD_RATIO);
+      charges = doubleAttribute(function, FUNCTION_CHARGES);
+      replicable = function.getAttribute(FUNCTION_REPLICABLE) != null
+            && (boolean) function.getAttribute(FUNCTION_REPLICABLE);
+   }
+
+   private static double doubleAttribute(Function function, String key) {
+      Object value = function.getAttribute(key);
+      if (value == null)
+         return 0;
+      return ((Number) value).doubleValue();
+   }
+
+   public double getLoadRatio() {
+      return loadRatio;
+   }
+
+   public double getOverhead() {
+      return overhead;
+   }
+
+   public double getProcessTrafficDelayRatio() {
+      return processTrafficDelayRatio;
+   }
+
+   public double getMinProcessDelay() {
+      return minProcessDelay;
+   }
+
+   public double getProcessDelay() {
+      return processDelay;
+   }
+
+   public double getMaxDelay() {
+      return maxDelay;
+   }
+
+   public double getSyncLoadRatio() {
+      return syncLoadRatio;
+   }
+
+   public double getCharges() {
+      return charges;
+   }
+
+   public boolean isReplicable() {
+      return replicable;
+   }
+}
@@ -0,0 +1,116 @@
+package optimizer.elements;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.graphstream.graph.Node;
+import org.graphstream.graph.Path;
+
+public class TopologyIndex {
+
+   // server -> node ordinal
+   private final int[] serverNode;
+   // servers by node (CSR), servers of node n are in [nodeServersStart[n], nodeServersStart[n + 1])
+   private final int[] nodeServersStart;
+   private final int[] nodeServers;
+   // global path -> node ordinals
+   private final int[][] pathNodes;
+   // global path -> node ordinal -> position in path (-1 if not traversed)
+   private final int[][] pathNodePosition;
+   // service, admissible path -> global path
+   private final int[][] servicePaths;
+   // global paths by (src node, dst node) (CSR), in the same order as the paths file
+   private final int[] endpointPathsStart;
+   private final int[] endpointPaths;
+   private final int numNodes;
+
+   public TopologyIndex(List<Node> nodes, List<Server> servers, List<Path> paths, List<Service> services) {
+      serverNode = new int[servers.size()];
+      nodeServersStart = new int[nodes.size() + 1];
+      for (int x = 0; x < servers.size(); x++) {
+         serverNode[x] = servers.get(x).getParent().getIndex();
+         nodeServersStart[serverNode[x] + 1]++;
+      }
+      for (int n = 0; n < nodes.size(); n++)
+         nodeServersStart[n + 1] += nodeServersStart[n];
+      nodeServers = new int[servers.size()];
+      int[] next = new int[nodes.size()];
+      for (int x = 0; x < servers.size(); x++)
+         nodeServers[nodeServersStart[serverNode[x]] + next[serverNode[x]]++] = x;
+
+      numNodes = nodes.size();
+      Map<Path, Integer> globalPaths = new IdentityHashMap<>();
+      pathNodes = new int[paths.size()][];
+      pathNodePosition = new int[paths.size()][nodes.size()];
+      for (int p = 0; p < paths.size(); p++) {
+         List<Node> nodePath = paths.get(p).getNodePath();
+         globalPaths.put(paths.get(p), p);
+         pathNodes[p] = new int[nodePath.size()];
+         Arrays.fill(pathNodePosition[p], -1);
+         for (int n = 0; n < nodePath.size(); n++) {
+            pathNodes[p][n] = nodePath.get(n).getIndex();
+            pathNodePosition[p][pathNodes[p][n]] = n;
+         }
+      }
+
+      endpointPathsStart = new int[numNodes * numNodes + 1];
+      for (int p = 0; p < paths.size(); p++)
+         endpointPathsStart[endpointKey(p) + 1]++;
+      for (int i = 0; i < numNodes * numNodes; i++)
+         endpointPathsStart[i + 1] += endpointPathsStart[i];
+      endpointPaths = new int[paths.size()];
+      int[] nextPath = new int[numNodes * numNodes];
+      for (int p = 0; p < paths.size(); p++)
+         endpointPaths[endpointPathsStart[endpointKey(p)] + nextPath[endpointKey(p)]++] = p;
+
+      servicePaths = new int[services.size()][];
+      for (int s = 0; s < services.size(); s++) {
+         List<Path> admissiblePaths = services.get(s).getTrafficFlow().getPaths();
+         servicePaths[s] = new int[admissiblePaths.size()];
+         for (int p = 0; p < admissiblePaths.size(); p++)
+            servicePaths[s][p] = globalPaths.get(admissiblePaths.get(p));
+      }
+   }
+
+   private int endpointKey(int p) {
+      return pathNodes[p][0] * numNodes + pathNodes[p][pathNodes[p].length - 1];
+   }
+
+   public int getServerNode(int x) {
+      return serverNode[x];
+   }
+
+   public int getNodeServersStart(int n) {
+      return nodeServersStart[n];
+   }
+
+   public int getNodeServersEnd(int n) {
+      return nodeServersStart[n + 1];
+   }
+
+   public int getNodeServer(int i) {
+      return nodeServers[i];
+   }
+
+   public int getEndpointPathsStart(int src, int dst) {
+      return endpointPathsStart[src * numNodes + dst];
+   }
+
+   public int getEndpointPathsEnd(int src, int dst) {
+      return endpointPathsStart[src * numNodes + dst + 1];
+   }
+
+   public int getEndpointPath(int i) {
+      return endpointPaths[i];
+   }
+
+   public int[] getPathNodes(int s, int p) {
+      return pathNodes[servicePaths[s][p]];
+   }
+
+   public int getServerPosition(int s, int p, int x) {
+      return pathNodePosition[servicePaths[s][p]][serverNode[x]];
+   }
+}
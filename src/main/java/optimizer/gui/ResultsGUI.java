@@ -34,7 +34,7 @@ public class ResultsGUI {
       messages = new LinkedList<>();
    }
 
-   public static void initialize(Parameters pm) {
+   public static synchronized void initialize(Parameters pm) {
       nodeList = new ArrayList<>();
       serverJsonMap = new HashMap<>();
       linkJsonMap = new HashMap<>();
@@ -72,7 +72,7 @@ public class ResultsGUI {
       }
    }
 
-   public static void updateResults(Results results) {
+   public static synchronized void updateResults(Results results) {
       if (results != null) {
          updateServers(getServerJsonResults(results));
          updateLinks(getLinkJsonResults(results));
@@ -90,7 +90,7 @@ public class ResultsGUI {
          linkJsonMap.replace(linkJson.getData().getId(), linkJson);
    }
 
-   public static void log(String message) {
+   public static synchronized void log(String message) {
       if (messages.isEmpty())
          messages.add(message);
       else {
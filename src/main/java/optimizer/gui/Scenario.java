@@ -15,6 +15,14 @@ public class Scenario {
       constraints = new HashMap<>();
    }
 
+   public Scenario(Scenario scenario) {
+      inputFileName = scenario.inputFileName;
+      objFunc = scenario.objFunc;
+      maximization = scenario.maximization;
+      name = scenario.name;
+      constraints = new HashMap<>(scenario.constraints);
+   }
+
    public String getInputFileName() {
       return inputFileName;
    }
@@ -4,12 +4,19 @@ import gurobi.GRB;
 import gurobi.GRBException;
 import gurobi.GRBLinExpr;
 import optimizer.elements.Service;
+import optimizer.elements.TopologyIndex;
 import optimizer.Parameters;
 import optimizer.gui.Scenario;
-import org.graphstream.graph.Node;
 
 import static optimizer.Definitions.*;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+
 public class Constraints {
 
    private ModelLP modelLP;
@@ -32,7 +39,8 @@ public class Constraints {
             RP2();
          if (scenario.getConstraints().get(PF1))
             PF1();
-         if (scenario.getConstraints().get(PF2))
+         boolean lazyPF2 = isEnabled(LAZY_PF2), lazyFD3 = isEnabled(LAZY_FD3);
+         if (scenario.getConstraints().get(PF2) && !lazyPF2)
             PF2();
          if (scenario.getConstraints().get(PF3))
             PF3();
@@ -40,13 +48,38 @@ public class Constraints {
             FD1();
          if (scenario.getConstraints().get(FD2))
             FD2();
-         if (scenario.getConstraints().get(FD3))
+         if (scenario.getConstraints().get(FD3) && !lazyFD3)
             FD3();
+         lazyPF2 &= scenario.getConstraints().get(PF2);
+         lazyFD3 &= scenario.getConstraints().get(FD3);
+         if (lazyPF2 || lazyFD3)
+            modelLP.setLazyConstraints(new OrderingSeparator(pm, vars, lazyPF2, lazyFD3));
+         if (isEnabled(SYMMETRY_BREAKING))
+            symmetryBreaking();
+         modelLP.addPendingConstrs();
       } catch (Exception e) {
          e.printStackTrace();
       }
    }
 
+   private boolean isEnabled(String key) {
+      return pm.getGlobal(key) != null && (boolean) pm.getGlobal(key);
+   }
+
+   // demands of a service with the same traffic are interchangeable, classes with a single demand are left out
+   static List<int[]> demandClasses(Service service) {
+      Map<Integer, IntArrayList> classes = new LinkedHashMap<>();
+      for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
+         if (service.getTrafficFlow().getAux().get(d))
+            classes.computeIfAbsent(service.getTrafficFlow().getDemands().get(d), traffic -> new IntArrayList())
+                  .add(d);
+      List<int[]> demandClasses = new ArrayList<>();
+      for (IntArrayList demands : classes.values())
+         if (demands.size() > 1)
+            demandClasses.add(demands.toArray());
+      return demandClasses;
+   }
+
    // One path per demand
    private void RP1() throws GRBException {
       for (int s = 0; s < pm.getServices().size(); s++)
@@ -55,7 +88,7 @@ public class Constraints {
                GRBLinExpr expr = new GRBLinExpr();
                for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
                   expr.addTerm(1.0, vars.zSPD[s][p][d]);
-               modelLP.getGrbModel().addConstr(expr, GRB.EQUAL, 1.0, RP1 + "[s][d] --> " + "[" + s + "][" + d + "]");
+               modelLP.addConstr(expr, GRB.EQUAL, 1.0, RP1, s, d);
             }
    }
 
@@ -65,18 +98,14 @@ public class Constraints {
          for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
             for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
                if (pm.getServices().get(s).getTrafficFlow().getAux().get(d))
-                  modelLP.getGrbModel().addConstr(vars.zSPD[s][p][d], GRB.LESS_EQUAL, vars.zSP[s][p],
-                        RP2 + "[s][p][d] --> " + "[" + s + "]"
-                              + pm.getServices().get(s).getTrafficFlow().getPaths().get(p).getNodePath() + "[" + d
-                              + "]");
+                  modelLP.addConstr(vars.zSPD[s][p][d], GRB.LESS_EQUAL, vars.zSP[s][p], RP2 + "_1", s, p, d);
       for (int s = 0; s < pm.getServices().size(); s++)
          for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++) {
             GRBLinExpr expr = new GRBLinExpr();
             for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
                if (pm.getServices().get(s).getTrafficFlow().getAux().get(d))
                   expr.addTerm(1.0, vars.zSPD[s][p][d]);
-            modelLP.getGrbModel().addConstr(expr, GRB.GREATER_EQUAL, vars.zSP[s][p], RP2 + "[s][p] --> " + "[" + s + "]"
-                  + pm.getServices().get(s).getTrafficFlow().getPaths().get(p).getNodePath());
+            modelLP.addConstr(expr, GRB.GREATER_EQUAL, vars.zSP[s][p], RP2 + "_2", s, p);
          }
    }
 
@@ -87,36 +116,32 @@ public class Constraints {
             GRBLinExpr expr = new GRBLinExpr();
             for (int x = 0; x < pm.getServers().size(); x++)
                expr.addTerm(1.0, vars.fXSV[x][s][v]);
-            if ((boolean) pm.getServices().get(s).getFunctions().get(v).getAttribute(FUNCTION_REPLICABLE)) {
+            if (pm.getServices().get(s).getFunctions().get(v).getProfile().isReplicable()) {
                GRBLinExpr expr2 = new GRBLinExpr();
                for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
                   expr2.addTerm(1.0, vars.zSP[s][p]);
-               modelLP.getGrbModel().addConstr(expr, GRB.LESS_EQUAL, expr2,
-                     PF1 + "[s][v] --> " + "[" + s + "][" + v + "]");
+               modelLP.addConstr(expr, GRB.LESS_EQUAL, expr2, PF1, s, v);
             } else
-               modelLP.getGrbModel().addConstr(expr, GRB.LESS_EQUAL, 1.0,
-                     PF1 + "[s][v] --> " + "[" + s + "][" + v + "]");
+               modelLP.addConstr(expr, GRB.LESS_EQUAL, 1.0, PF1, s, v);
          }
    }
 
-   // Function placement
+   // Function placement, placement variables removed by the presolve are null
    private void PF2() throws GRBException {
+      TopologyIndex ti = pm.getTopologyIndex();
+      Presolve presolve = vars.getPresolve();
       for (int s = 0; s < pm.getServices().size(); s++) {
          Service service = pm.getServices().get(s);
          for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++)
             for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
-               if (pm.getServices().get(s).getTrafficFlow().getAux().get(d))
+               if (pm.getServices().get(s).getTrafficFlow().getAux().get(d) && presolve.isPathAdmissible(s, p))
                   for (int v = 0; v < service.getFunctions().size(); v++) {
                      GRBLinExpr expr = new GRBLinExpr();
-                     for (int n = 0; n < service.getTrafficFlow().getPaths().get(p).getNodePath().size(); n++)
-                        for (int x = 0; x < pm.getServers().size(); x++)
-                           if (pm.getServers().get(x).getParent()
-                                 .equals(service.getTrafficFlow().getPaths().get(p).getNodePath().get(n)))
-                              expr.addTerm(1.0, vars.fXSVD[x][s][v][d]);
-                     modelLP.getGrbModel().addConstr(vars.zSPD[s][p][d], GRB.LESS_EQUAL, expr,
-                           PF2 + "[s][p][d][v] --> " + "[" + s + "]"
-                                 + pm.getServices().get(s).getTrafficFlow().getPaths().get(p).getNodePath() + "[" + d
-                                 + "][" + v + "]");
+                     for (int n : ti.getPathNodes(s, p))
+                        for (int i = ti.getNodeServersStart(n); i < ti.getNodeServersEnd(n); i++)
+                           if (vars.fXSVD[ti.getNodeServer(i)][s][v][d] != null)
+                              expr.addTerm(1.0, vars.fXSVD[ti.getNodeServer(i)][s][v][d]);
+                     modelLP.addConstr(vars.zSPD[s][p][d], GRB.LESS_EQUAL, expr, PF2, s, p, d, v);
                   }
       }
    }
@@ -132,8 +157,8 @@ public class Constraints {
                   expr.addTerm(1.0 / pm.getTotalNumFunctions(), vars.fXSV[x][s][v]);
                   expr2.addTerm(1.0, vars.fXSV[x][s][v]);
                }
-            modelLP.getGrbModel().addConstr(vars.fX[x], GRB.GREATER_EQUAL, expr, PF3);
-            modelLP.getGrbModel().addConstr(vars.fX[x], GRB.LESS_EQUAL, expr2, PF3);
+            modelLP.addConstr(vars.fX[x], GRB.GREATER_EQUAL, expr, PF3 + "_1", x);
+            modelLP.addConstr(vars.fX[x], GRB.LESS_EQUAL, expr2, PF3 + "_2", x);
          }
    }
 
@@ -145,9 +170,9 @@ public class Constraints {
                if (pm.getServices().get(s).getTrafficFlow().getAux().get(d)) {
                   GRBLinExpr expr = new GRBLinExpr();
                   for (int x = 0; x < pm.getServers().size(); x++)
-                     expr.addTerm(1.0, vars.fXSVD[x][s][v][d]);
-                  modelLP.getGrbModel().addConstr(expr, GRB.EQUAL, 1.0,
-                        FD1 + "[s][v][d] --> " + "[" + s + "][" + v + "][" + d + "]");
+                     if (vars.fXSVD[x][s][v][d] != null)
+                        expr.addTerm(1.0, vars.fXSVD[x][s][v][d]);
+                  modelLP.addConstr(expr, GRB.EQUAL, 1.0, FD1, s, v, d);
                }
    }
 
@@ -157,52 +182,72 @@ public class Constraints {
          for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
             for (int x = 0; x < pm.getServers().size(); x++)
                for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
-                  if (pm.getServices().get(s).getTrafficFlow().getAux().get(d))
-                     modelLP.getGrbModel().addConstr(vars.fXSVD[x][s][v][d], GRB.LESS_EQUAL, vars.fXSV[x][s][v],
-                           FD2 + "_1[s][v][x][d] --> " + "[" + s + "][" + v + "][" + x + "][" + d + "]");
+                  if (vars.fXSVD[x][s][v][d] != null)
+                     modelLP.addConstr(vars.fXSVD[x][s][v][d], GRB.LESS_EQUAL, vars.fXSV[x][s][v], FD2 + "_1", s, v,
+                           x, d);
       for (int s = 0; s < pm.getServices().size(); s++)
          for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
             for (int x = 0; x < pm.getServers().size(); x++) {
                GRBLinExpr expr = new GRBLinExpr();
                for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
-                  if (pm.getServices().get(s).getTrafficFlow().getAux().get(d))
+                  if (pm.getServices().get(s).getTrafficFlow().getAux().get(d) && vars.fXSVD[x][s][v][d] != null)
                      expr.addTerm(1.0, vars.fXSVD[x][s][v][d]);
-               modelLP.getGrbModel().addConstr(expr, GRB.GREATER_EQUAL, vars.fXSV[x][s][v],
-                     FD2 + "_2[s][v][x] --> " + "[" + s + "][" + v + "][" + x + "]");
+               modelLP.addConstr(expr, GRB.GREATER_EQUAL, vars.fXSV[x][s][v], FD2 + "_2", s, v, x);
             }
    }
 
    // Functions sequence order
    private void FD3() throws GRBException {
+      TopologyIndex ti = pm.getTopologyIndex();
+      Presolve presolve = vars.getPresolve();
       for (int s = 0; s < pm.getServices().size(); s++) {
          Service se = pm.getServices().get(s);
          for (int d = 0; d < se.getTrafficFlow().getDemands().size(); d++)
             if (pm.getServices().get(s).getTrafficFlow().getAux().get(d)) {
-               for (int p = 0; p < se.getTrafficFlow().getPaths().size(); p++)
+               for (int p = 0; p < se.getTrafficFlow().getPaths().size(); p++) {
+                  if (!presolve.isPathAdmissible(s, p))
+                     continue;
+                  int[] pathNodes = ti.getPathNodes(s, p);
                   for (int v = 1; v < se.getFunctions().size(); v++) {
-                     for (int n = 0; n < se.getTrafficFlow().getPaths().get(p).getNodePath().size(); n++) {
+                     for (int n = 0; n < pathNodes.length; n++) {
                         GRBLinExpr expr = new GRBLinExpr();
                         GRBLinExpr expr2 = new GRBLinExpr();
-                        Node nodeN = se.getTrafficFlow().getPaths().get(p).getNodePath().get(n);
-                        for (int m = 0; m <= n; m++) {
-                           Node nodeM = se.getTrafficFlow().getPaths().get(p).getNodePath().get(m);
-                           for (int x = 0; x < pm.getServers().size(); x++)
-                              if (pm.getServers().get(x).getParent().equals(nodeM))
-                                 expr.addTerm(1.0, vars.fXSVD[x][s][v - 1][d]);
-                        }
-                        for (int x = 0; x < pm.getServers().size(); x++)
-                           if (pm.getServers().get(x).getParent().equals(nodeN))
-                              expr.addTerm(-1.0, vars.fXSVD[x][s][v][d]);
+                        for (int m = 0; m <= n; m++)
+                           for (int i = ti.getNodeServersStart(pathNodes[m]); i < ti.getNodeServersEnd(pathNodes[m]); i++)
+                              if (vars.fXSVD[ti.getNodeServer(i)][s][v - 1][d] != null)
+                                 expr.addTerm(1.0, vars.fXSVD[ti.getNodeServer(i)][s][v - 1][d]);
+                        for (int i = ti.getNodeServersStart(pathNodes[n]); i < ti.getNodeServersEnd(pathNodes[n]); i++)
+                           if (vars.fXSVD[ti.getNodeServer(i)][s][v][d] != null)
+                              expr.addTerm(-1.0, vars.fXSVD[ti.getNodeServer(i)][s][v][d]);
 
                         expr2.addConstant(-1);
                         expr2.addTerm(1.0, vars.zSPD[s][p][d]);
-                        modelLP.getGrbModel().addConstr(expr, GRB.GREATER_EQUAL, expr2,
-                              FD3 + "[s][d][p][v][n] --> " + "[" + s + "][" + d + "]"
-                                    + pm.getServices().get(s).getTrafficFlow().getPaths().get(p).getNodePath() + "[" + v
-                                    + "][" + se.getTrafficFlow().getPaths().get(p).getNodePath().get(n).getId() + "]");
+                        modelLP.addConstr(expr, GRB.GREATER_EQUAL, expr2, FD3, s, d, p, v, n);
                      }
                   }
+               }
             }
       }
    }
+
+   // Symmetry breaking, interchangeable demands are ordered by path and then by the server of the first function
+   private void symmetryBreaking() throws GRBException {
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int[] demands : demandClasses(pm.getServices().get(s)))
+            for (int i = 1; i < demands.length; i++)
+               modelLP.addConstr(demandOrderExpr(s, demands[i - 1]), GRB.LESS_EQUAL, demandOrderExpr(s, demands[i]),
+                     SYMMETRY_BREAKING, s, demands[i - 1], demands[i]);
+   }
+
+   private GRBLinExpr demandOrderExpr(int s, int d) {
+      Service service = pm.getServices().get(s);
+      GRBLinExpr expr = new GRBLinExpr();
+      for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++)
+         expr.addTerm((double) p * pm.getServers().size(), vars.zSPD[s][p][d]);
+      if (!service.getFunctions().isEmpty())
+         for (int x = 0; x < pm.getServers().size(); x++)
+            if (vars.fXSVD[x][s][0][d] != null)
+               expr.addTerm(x, vars.fXSVD[x][s][0][d]);
+      return expr;
+   }
 }
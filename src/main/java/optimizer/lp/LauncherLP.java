@@ -2,8 +2,8 @@ package optimizer.lp;
 
 import gurobi.GRBException;
 import gurobi.GRBLinExpr;
-import gurobi.GRBModel;
 import optimizer.Parameters;
+import optimizer.algorithms.VariablesAlg;
 import optimizer.gui.ResultsGUI;
 import optimizer.gui.Scenario;
 import optimizer.results.Auxiliary;
@@ -22,19 +22,25 @@ public class LauncherLP {
 
    private static final Logger log = LoggerFactory.getLogger(LauncherLP.class);
 
-   public static GRBModel run(Parameters pm, Scenario sce, ResultsManager resultsManager, GRBModel initialModel,
-         GRBModel initialSolution, String outputFileName, boolean exportMST) throws GRBException {
-      boolean[][][] initialPlacement = null;
-      if (initialModel != null)
-         initialPlacement = Auxiliary.fXSVvarsFromInitialModel(pm, initialModel);
-      ModelLP modelLP = new ModelLP(pm, initialSolution);
-      printLog(log, INFO, "setting variables");
-      VariablesLP variablesLP = new VariablesLP(pm, modelLP.getGrbModel(), sce, initialSolution);
-      modelLP.setVars(variablesLP);
-      printLog(log, INFO, "setting constraints");
-      new Constraints(pm, modelLP, sce, initialPlacement);
+   public static ModelLP run(Parameters pm, Scenario sce, ResultsManager resultsManager,
+         boolean[][][] initialPlacement, VariablesAlg initialSolution, String outputFileName, boolean exportMST)
+         throws GRBException {
+      return run(pm, sce, resultsManager, initialPlacement, initialSolution, outputFileName, exportMST, null);
+   }
+
+   // with a model cache the model is only built once and every run sets its own objective function
+   public static ModelLP run(Parameters pm, Scenario sce, ResultsManager resultsManager,
+         boolean[][][] initialPlacement, VariablesAlg initialSolution, String outputFileName, boolean exportMST,
+         ModelCache modelCache) throws GRBException {
+      ModelLP modelLP;
+      if (modelCache != null)
+         modelLP = modelCache.getModel(pm, sce, initialPlacement, exportMST);
+      else
+         modelLP = buildModel(pm, sce, initialPlacement, exportMST);
       GRBLinExpr expr = generateExprForObjectiveFunction(pm, modelLP, sce.getObjFunc(), initialPlacement);
       modelLP.setObjectiveFunction(expr, sce.isMaximization());
+      if (initialSolution != null)
+         modelLP.setInitialSolution(initialSolution);
       printLog(log, INFO, "running model");
       LocalDateTime startTime = LocalDateTime.now();
       Double objVal = modelLP.run();
@@ -50,10 +56,22 @@ public class LauncherLP {
          ResultsGUI.updateResults(results);
       }
       Auxiliary.printLog(log, INFO, "done");
-      return modelLP.getGrbModel();
+      return modelLP;
+   }
+
+   // variables and constraints, without objective function
+   public static ModelLP buildModel(Parameters pm, Scenario sce, boolean[][][] initialPlacement, boolean names)
+         throws GRBException {
+      ModelLP modelLP = new ModelLP(pm);
+      printLog(log, INFO, "setting variables");
+      VariablesLP variablesLP = new VariablesLP(pm, modelLP.getGrbModel(), sce, names || modelLP.isNamed());
+      modelLP.setVars(variablesLP);
+      printLog(log, INFO, "setting constraints");
+      new Constraints(pm, modelLP, sce, initialPlacement);
+      return modelLP;
    }
 
-   private static GRBLinExpr generateExprForObjectiveFunction(Parameters pm, ModelLP modelLP, String objectiveFunction,
+   public static GRBLinExpr generateExprForObjectiveFunction(Parameters pm, ModelLP modelLP, String objectiveFunction,
          boolean[][][] initialPlacement) throws GRBException {
       GRBLinExpr expr = new GRBLinExpr();
       double serversWeight, linksWeight;
@@ -0,0 +1,114 @@
+package optimizer.lp;
+
+import static optimizer.Definitions.*;
+import static optimizer.results.Auxiliary.printLog;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gurobi.GRBEnv;
+import gurobi.GRBException;
+import gurobi.GRBModel;
+import optimizer.Parameters;
+import optimizer.gui.Scenario;
+
+// keeps the models already built so runs that only change the objective function solve the same model again and
+// start from its previous solution, a cached model must not be solved by two runs at the same time
+public class ModelCache {
+
+   private static final Logger log = LoggerFactory.getLogger(ModelCache.class);
+   // objective functions adding variables or constraints to the general model, see VariablesLP
+   private static final List<String> SPECIFIC_MODEL_OBJECTIVES = Arrays.asList(DIMEN_NUM_SERVERS, DIMEN_LINK_CAP,
+         DIMEN_SERVER_CAP, DIMEN_SERVER_COSTS, NUM_SERVERS_AND_UTIL_COSTS, UTIL_COSTS, UTIL_COSTS_AND_MAX_UTIL,
+         OPEX_SERVERS, FUNCTIONS_CHARGES, QOS_PENALTIES, ALL_MONETARY_COSTS);
+
+   private final Map<String, Parameters> parameters;
+   private final Map<ModelKey, ModelLP> models;
+
+   public ModelCache() {
+      parameters = new HashMap<>();
+      models = new HashMap<>();
+   }
+
+   public synchronized Parameters getParameters(String inputFileName, Supplier<Parameters> reader) {
+      return parameters.computeIfAbsent(inputFileName, name -> reader.get());
+   }
+
+   public synchronized ModelLP getModel(Parameters pm, Scenario sce, boolean[][][] initialPlacement, boolean names)
+         throws GRBException {
+      ModelKey key = new ModelKey(pm, sce, initialPlacement, names);
+      ModelLP modelLP = models.get(key);
+      if (modelLP == null) {
+         modelLP = LauncherLP.buildModel(pm, sce, initialPlacement, names);
+         models.put(key, modelLP);
+      } else
+         printLog(log, INFO, "reusing model [" + pm.getGraphName() + "]");
+      return modelLP;
+   }
+
+   // the initial placement is copied and compared element by element, a hash of it alone could match a different
+   // placement
+   static final class ModelKey {
+
+      private final String model;
+      private final boolean[][][] initialPlacement;
+
+      ModelKey(Parameters pm, Scenario sce, boolean[][][] initialPlacement, boolean names) {
+         String objective = "general";
+         if (SPECIFIC_MODEL_OBJECTIVES.contains(sce.getObjFunc()))
+            objective = sce.getObjFunc();
+         this.model = pm.getGraphName() + "_" + objective + "_" + new TreeMap<>(sce.getConstraints()) + "_" + names;
+         this.initialPlacement = copy(initialPlacement);
+      }
+
+      private static boolean[][][] copy(boolean[][][] placement) {
+         if (placement == null)
+            return null;
+         boolean[][][] copy = new boolean[placement.length][][];
+         for (int i = 0; i < placement.length; i++)
+            if (placement[i] != null) {
+               copy[i] = new boolean[placement[i].length][];
+               for (int j = 0; j < placement[i].length; j++)
+                  if (placement[i][j] != null)
+                     copy[i][j] = placement[i][j].clone();
+            }
+         return copy;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (this == o)
+            return true;
+         if (!(o instanceof ModelKey))
+            return false;
+         ModelKey other = (ModelKey) o;
+         return model.equals(other.model) && Arrays.deepEquals(initialPlacement, other.initialPlacement);
+      }
+
+      @Override
+      public int hashCode() {
+         return 31 * model.hashCode() + Arrays.deepHashCode(initialPlacement);
+      }
+   }
+
+   public synchronized void dispose() {
+      for (ModelLP modelLP : models.values())
+         try {
+            GRBModel model = modelLP.getGrbModel();
+            GRBEnv env = model.getEnv();
+            model.dispose();
+            env.dispose();
+         } catch (GRBException e) {
+            printLog(log, ERROR, "disposing model: " + e.getMessage());
+         }
+      models.clear();
+      parameters.clear();
+   }
+}
@@ -0,0 +1,69 @@
+package optimizer.lp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+
+// maps the index of a variable or constraint in the model to its family and indices, e.g. fXSVD[x][s][v][d], so
+// names are only built when they are needed
+public class ModelKeys {
+
+   private List<String> families;
+   private IntArrayList family;
+   private IntArrayList keysStart;
+   private IntArrayList keys;
+
+   public ModelKeys() {
+      families = new ArrayList<>();
+      family = new IntArrayList();
+      keysStart = new IntArrayList();
+      keys = new IntArrayList();
+   }
+
+   // returns the index of the new entry
+   public int add(String familyName, int... key) {
+      int f = families.size() - 1;
+      if (f < 0 || !families.get(f).equals(familyName)) {
+         f = families.indexOf(familyName);
+         if (f == -1) {
+            f = families.size();
+            families.add(familyName);
+         }
+      }
+      family.add(f);
+      keysStart.add(keys.size());
+      keys.addAll(key);
+      return family.size() - 1;
+   }
+
+   public int size() {
+      return family.size();
+   }
+
+   public String getFamily(int index) {
+      return families.get(family.get(index));
+   }
+
+   public int[] getKey(int index) {
+      int end = index + 1 < keysStart.size() ? keysStart.get(index + 1) : keys.size();
+      int[] key = new int[end - keysStart.get(index)];
+      for (int i = 0; i < key.length; i++)
+         key[i] = keys.get(keysStart.get(index) + i);
+      return key;
+   }
+
+   public String getName(int index) {
+      StringBuilder name = new StringBuilder(getFamily(index));
+      for (int k : getKey(index))
+         name.append("[").append(k).append("]");
+      return name.toString();
+   }
+
+   public String[] getNames(int from, int to) {
+      String[] names = new String[to - from];
+      for (int i = from; i < to; i++)
+         names[i - from] = getName(i);
+      return names;
+   }
+}
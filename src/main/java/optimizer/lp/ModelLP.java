@@ -3,6 +3,8 @@ package optimizer.lp;
 import gurobi.*;
 import optimizer.Parameters;
 import optimizer.Manager;
+import optimizer.algorithms.VariablesAlg;
+import optimizer.elements.Service;
 import optimizer.results.Auxiliary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,31 +13,112 @@ import static optimizer.Definitions.*;
 import static optimizer.results.Auxiliary.printLog;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 
 public class ModelLP {
 
    private static final Logger log = LoggerFactory.getLogger(ModelLP.class);
+   private static final int CONSTRS_CHUNK = 10000;
    private GRBModel grbModel;
    private VariablesLP vars;
    private Parameters pm;
    private double objVal;
-
-   public ModelLP(Parameters pm, GRBModel initialSolution) {
+   private OrderingSeparator separator;
+   private boolean names;
+   private ModelKeys constrKeys;
+   private GRBLinExpr[] pendingExprs;
+   private char[] pendingSenses;
+   private double[] pendingRhs;
+   private int pending;
+
+   public ModelLP(Parameters pm) {
       this.pm = pm;
+      this.names = pm.getGlobal(LP_NAMES) != null && (boolean) pm.getGlobal(LP_NAMES);
+      this.constrKeys = new ModelKeys();
+      this.pendingExprs = new GRBLinExpr[CONSTRS_CHUNK];
+      this.pendingSenses = new char[CONSTRS_CHUNK];
+      this.pendingRhs = new double[CONSTRS_CHUNK];
       try {
          GRBEnv grbEnv = new GRBEnv();
-         if (initialSolution == null)
-            grbModel = new GRBModel(grbEnv);
-         else
-            grbModel = initialSolution;
+         grbModel = new GRBModel(grbEnv);
          Callback cb = new Callback();
          grbModel.setCallback(cb);
          grbModel.getEnv().set(GRB.DoubleParam.MIPGap, (double) pm.getGlobal().get("gap"));
+         if (pm.getGlobal(LP_THREADS) != null)
+            grbModel.getEnv().set(GRB.IntParam.Threads, (int) pm.getGlobal(LP_THREADS));
       } catch (GRBException e) {
          e.printStackTrace();
       }
    }
 
+   // constraints are buffered and added to the model in chunks, the key is kept instead of the name
+   public void addConstr(GRBLinExpr lhs, char sense, GRBLinExpr rhs, String family, int... key)
+         throws GRBException {
+      GRBLinExpr expr = new GRBLinExpr(lhs);
+      expr.multAdd(-1.0, rhs);
+      bufferConstr(expr, sense, family, key);
+   }
+
+   public void addConstr(GRBLinExpr lhs, char sense, GRBVar rhs, String family, int... key) throws GRBException {
+      GRBLinExpr expr = new GRBLinExpr(lhs);
+      expr.addTerm(-1.0, rhs);
+      bufferConstr(expr, sense, family, key);
+   }
+
+   public void addConstr(GRBLinExpr lhs, char sense, double rhs, String family, int... key) throws GRBException {
+      GRBLinExpr expr = new GRBLinExpr(lhs);
+      expr.addConstant(-rhs);
+      bufferConstr(expr, sense, family, key);
+   }
+
+   public void addConstr(GRBVar lhs, char sense, GRBLinExpr rhs, String family, int... key) throws GRBException {
+      GRBLinExpr expr = new GRBLinExpr();
+      expr.addTerm(1.0, lhs);
+      expr.multAdd(-1.0, rhs);
+      bufferConstr(expr, sense, family, key);
+   }
+
+   public void addConstr(GRBVar lhs, char sense, GRBVar rhs, String family, int... key) throws GRBException {
+      GRBLinExpr expr = new GRBLinExpr();
+      expr.addTerm(1.0, lhs);
+      expr.addTerm(-1.0, rhs);
+      bufferConstr(expr, sense, family, key);
+   }
+
+   public void addConstr(GRBVar lhs, char sense, double rhs, String family, int... key) throws GRBException {
+      GRBLinExpr expr = new GRBLinExpr();
+      expr.addTerm(1.0, lhs);
+      expr.addConstant(-rhs);
+      bufferConstr(expr, sense, family, key);
+   }
+
+   // expr (sense) 0
+   private void bufferConstr(GRBLinExpr expr, char sense, String family, int[] key) throws GRBException {
+      double rhs = -expr.getConstant();
+      expr.addConstant(rhs);
+      constrKeys.add(family, key);
+      pendingExprs[pending] = expr;
+      pendingSenses[pending] = sense;
+      pendingRhs[pending] = rhs;
+      pending++;
+      if (pending == CONSTRS_CHUNK)
+         addPendingConstrs();
+   }
+
+   public void addPendingConstrs() throws GRBException {
+      if (pending == 0)
+         return;
+      String[] constrNames = null;
+      if (names)
+         constrNames = constrKeys.getNames(constrKeys.size() - pending, constrKeys.size());
+      grbModel.addConstrs(Arrays.copyOf(pendingExprs, pending), Arrays.copyOf(pendingSenses, pending),
+            Arrays.copyOf(pendingRhs, pending), constrNames);
+      Arrays.fill(pendingExprs, null);
+      pending = 0;
+   }
+
    public void setObjectiveFunction(GRBLinExpr expr, boolean isMaximization) throws GRBException {
       if (!isMaximization)
          grbModel.setObjective(expr, GRB.MINIMIZE);
@@ -193,8 +276,102 @@ public class ModelLP {
       return expr;
    }
 
+   // sets the start values of the model from a heuristic solution, as the MIP start files exported by the heuristics
+   public void setInitialSolution(VariablesAlg initialSolution) throws GRBException {
+      List<GRBVar> startVars = new ArrayList<>();
+      List<Boolean> startValues = new ArrayList<>();
+      boolean[] usedServers = new boolean[pm.getServers().size()];
+      for (int s = 0; s < pm.getServices().size(); s++) {
+         int[] order = startDemandOrder(initialSolution, s);
+         for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++) {
+            addStart(startVars, startValues, vars.zSP[s][p], initialSolution.zSP[s][p]);
+            for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+               addStart(startVars, startValues, vars.zSPD[s][p][d], initialSolution.zSPD[s][p][order[d]]);
+         }
+         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
+            for (int x = 0; x < pm.getServers().size(); x++) {
+               addStart(startVars, startValues, vars.fXSV[x][s][v], initialSolution.fXSV[x][s][v]);
+               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+                  addStart(startVars, startValues, vars.fXSVD[x][s][v][d],
+                        initialSolution.xSVD[s][v][order[d]] == x);
+            }
+            for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+               if (initialSolution.xSVD[s][v][d] != -1)
+                  usedServers[initialSolution.xSVD[s][v][d]] = true;
+            if (vars.gSVXY != null)
+               for (int x = 0; x < pm.getServers().size(); x++)
+                  for (int y = 0; y < pm.getServers().size(); y++)
+                     addStart(startVars, startValues, vars.gSVXY[s][v][x][y],
+                           initialSolution.syncPathsSV[s][v].containsKey(VariablesAlg.syncPairKey(x, y)));
+            if (vars.hSVP != null)
+               for (int p = 0; p < pm.getPaths().size(); p++)
+                  addStart(startVars, startValues, vars.hSVP[s][v][p],
+                        initialSolution.syncPathsSV[s][v].containsValue(p));
+         }
+      }
+      for (int x = 0; x < pm.getServers().size(); x++)
+         addStart(startVars, startValues, vars.fX[x], usedServers[x]);
+      double[] values = new double[startValues.size()];
+      for (int i = 0; i < values.length; i++)
+         values[i] = startValues.get(i) ? 1.0 : 0.0;
+      grbModel.set(GRB.DoubleAttr.Start, startVars.toArray(new GRBVar[0]), values);
+      printLog(log, INFO, "initial solution set [" + values.length + " variables]");
+   }
+
+   // demand of the initial solution whose allocation is used for every demand, with symmetry breaking the
+   // allocations of interchangeable demands are sorted as the constraints require
+   private int[] startDemandOrder(VariablesAlg initialSolution, int s) {
+      Service service = pm.getServices().get(s);
+      int[] order = new int[service.getTrafficFlow().getDemands().size()];
+      for (int d = 0; d < order.length; d++)
+         order[d] = d;
+      if (pm.getGlobal(SYMMETRY_BREAKING) == null || !(boolean) pm.getGlobal(SYMMETRY_BREAKING))
+         return order;
+      for (int[] demands : Constraints.demandClasses(service)) {
+         List<Integer> sorted = new ArrayList<>();
+         for (int d : demands)
+            sorted.add(d);
+         sorted.sort(Comparator.comparingInt(d -> startOrderKey(initialSolution, s, d)));
+         for (int i = 0; i < demands.length; i++)
+            order[demands[i]] = sorted.get(i);
+      }
+      return order;
+   }
+
+   // same value as Constraints.demandOrderExpr
+   private int startOrderKey(VariablesAlg initialSolution, int s, int d) {
+      int key = 0;
+      for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+         if (initialSolution.zSPD[s][p][d])
+            key += p * pm.getServers().size();
+      if (!pm.getServices().get(s).getFunctions().isEmpty() && initialSolution.xSVD[s][0][d] != -1)
+         key += initialSolution.xSVD[s][0][d];
+      return key;
+   }
+
+   private void addStart(List<GRBVar> startVars, List<Boolean> startValues, GRBVar var, boolean value) {
+      if (var == null)
+         return;
+      startVars.add(var);
+      startValues.add(value);
+   }
+
+   // constraints left out of the model are added by the callback when an incumbent violates them
+   public void setLazyConstraints(OrderingSeparator separator) throws GRBException {
+      this.separator = separator;
+      grbModel.getEnv().set(GRB.IntParam.LazyConstraints, 1);
+   }
+
+   // adds the lazy constraints as rows, a relaxation of the model does not use the callback
+   public void addLazyConstraintsAsRows() throws GRBException {
+      if (separator != null)
+         separator.addRows(this);
+   }
+
    public Double run() throws GRBException {
       grbModel.optimize();
+      if (separator != null)
+         printLog(log, INFO, "lazy constraints added [" + separator.getNumCuts() + "]");
       if (grbModel.get(GRB.IntAttr.Status) == GRB.Status.OPTIMAL
             || grbModel.get(GRB.IntAttr.Status) == GRB.Status.INTERRUPTED) {
          objVal = grbModel.get(GRB.DoubleAttr.ObjVal);
@@ -216,11 +393,15 @@ public class ModelLP {
       printLog(log, INFO, "constraints in IIS: ");
       for (GRBConstr constr : grbModel.getConstrs())
          if (constr.get(GRB.IntAttr.IISConstr) > 0)
-            printLog(log, INFO, constr.get(GRB.StringAttr.ConstrName));
+            printLog(log, INFO, constrKeys.getName(constr.index()));
       printLog(log, INFO, "variables in IIS: ");
       for (GRBVar var : grbModel.getVars())
          if (var.get(GRB.IntAttr.IISLB) > 0 || var.get(GRB.IntAttr.IISUB) > 0)
-            printLog(log, INFO, var.get(GRB.StringAttr.VarName));
+            printLog(log, INFO, vars.getKeys().getName(var.index()));
+   }
+
+   public boolean isNamed() {
+      return names;
    }
 
    public GRBModel getGrbModel() {
@@ -254,6 +435,10 @@ public class ModelLP {
             } else if (where == GRB.CB_PRESOLVE && !isPresolving) {
                printLog(log, INFO, "presolving model");
                isPresolving = true;
+            } else if (where == GRB.CB_MIPSOL && separator != null) {
+               double[] values = getSolution(separator.getSeparationVars());
+               for (GRBLinExpr[] cut : separator.separate(values))
+                  addLazy(cut[0], GRB.GREATER_EQUAL, cut[1]);
             } else if (where == GRB.CB_MIPNODE) {
                double objbst = getDoubleInfo(GRB.CB_MIPNODE_OBJBST);
                double objbnd = getDoubleInfo(GRB.CB_MIPNODE_OBJBND);
@@ -270,10 +455,8 @@ public class ModelLP {
                   }
                }
             }
-            if (Manager.isInterrupted()) {
+            if (Manager.isInterrupted())
                grbModel.terminate();
-               Manager.reset();
-            }
          } catch (GRBException e) {
             e.printStackTrace();
          }
@@ -0,0 +1,164 @@
+package optimizer.lp;
+
+import static optimizer.Definitions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gurobi.GRB;
+import gurobi.GRBException;
+import gurobi.GRBLinExpr;
+import gurobi.GRBVar;
+import optimizer.Parameters;
+import optimizer.elements.Service;
+import optimizer.elements.TopologyIndex;
+
+// finds the PF2 and FD3 constraints violated by an incumbent, only the paths used by the incumbent are checked since
+// both constraints are trivially satisfied on the rest, placement variables removed by the presolve have index -1
+public class OrderingSeparator {
+
+   private Parameters pm;
+   private VariablesLP vars;
+   private boolean functionPlacement; // PF2
+   private boolean functionsOrder; // FD3
+   private GRBVar[] separationVars;
+   private int[][][] zSPDindex;
+   private int[][][][] fXSVDindex;
+   private int numCuts;
+
+   public OrderingSeparator(Parameters pm, VariablesLP vars, boolean functionPlacement, boolean functionsOrder) {
+      this.pm = pm;
+      this.vars = vars;
+      this.functionPlacement = functionPlacement;
+      this.functionsOrder = functionsOrder;
+      List<GRBVar> varList = new ArrayList<>();
+      zSPDindex = new int[pm.getServices().size()][][];
+      fXSVDindex = new int[pm.getServers().size()][pm.getServices().size()][][];
+      for (int s = 0; s < pm.getServices().size(); s++) {
+         Service service = pm.getServices().get(s);
+         int demands = service.getTrafficFlow().getDemands().size();
+         zSPDindex[s] = new int[service.getTrafficFlow().getPaths().size()][demands];
+         for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++)
+            for (int d = 0; d < demands; d++) {
+               zSPDindex[s][p][d] = varList.size();
+               varList.add(vars.zSPD[s][p][d]);
+            }
+         for (int x = 0; x < pm.getServers().size(); x++) {
+            fXSVDindex[x][s] = new int[service.getFunctions().size()][demands];
+            for (int v = 0; v < service.getFunctions().size(); v++)
+               for (int d = 0; d < demands; d++) {
+                  fXSVDindex[x][s][v][d] = -1;
+                  if (vars.fXSVD[x][s][v][d] != null) {
+                     fXSVDindex[x][s][v][d] = varList.size();
+                     varList.add(vars.fXSVD[x][s][v][d]);
+                  }
+               }
+         }
+      }
+      separationVars = varList.toArray(new GRBVar[0]);
+   }
+
+   // variables whose values are needed by separate()
+   public GRBVar[] getSeparationVars() {
+      return separationVars;
+   }
+
+   // returns the violated constraints as pairs of expressions lhs >= rhs
+   public List<GRBLinExpr[]> separate(double[] values) {
+      List<GRBLinExpr[]> cuts = new ArrayList<>();
+      TopologyIndex ti = pm.getTopologyIndex();
+      for (int s = 0; s < pm.getServices().size(); s++) {
+         Service service = pm.getServices().get(s);
+         for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++) {
+            if (!service.getTrafficFlow().getAux().get(d))
+               continue;
+            for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++) {
+               if (values[zSPDindex[s][p][d]] < 0.5)
+                  continue;
+               int[] pathNodes = ti.getPathNodes(s, p);
+               // position on the path of the node hosting every function, -1 if it is not on the path
+               int[] position = new int[service.getFunctions().size()];
+               for (int v = 0; v < service.getFunctions().size(); v++) {
+                  position[v] = -1;
+                  for (int n = 0; n < pathNodes.length && position[v] == -1; n++)
+                     for (int i = ti.getNodeServersStart(pathNodes[n]); i < ti.getNodeServersEnd(pathNodes[n]); i++) {
+                        int index = fXSVDindex[ti.getNodeServer(i)][s][v][d];
+                        if (index != -1 && values[index] > 0.5)
+                           position[v] = n;
+                     }
+               }
+               for (int v = 0; v < service.getFunctions().size(); v++) {
+                  if (functionPlacement && position[v] == -1)
+                     cuts.add(functionPlacementCut(ti, pathNodes, s, p, v, d));
+                  if (functionsOrder && v > 0 && position[v] != -1
+                        && (position[v - 1] == -1 || position[v - 1] > position[v]))
+                     cuts.add(functionsOrderCut(ti, pathNodes, s, p, v, d, position[v]));
+               }
+            }
+         }
+      }
+      numCuts += cuts.size();
+      return cuts;
+   }
+
+   // all the constraints as rows of the model, for a relaxation that is solved without the callback
+   public void addRows(ModelLP modelLP) throws GRBException {
+      TopologyIndex ti = pm.getTopologyIndex();
+      for (int s = 0; s < pm.getServices().size(); s++) {
+         Service service = pm.getServices().get(s);
+         for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++) {
+            if (!service.getTrafficFlow().getAux().get(d))
+               continue;
+            for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++) {
+               if (!vars.getPresolve().isPathAdmissible(s, p))
+                  continue;
+               int[] pathNodes = ti.getPathNodes(s, p);
+               for (int v = 0; v < service.getFunctions().size(); v++) {
+                  if (functionPlacement) {
+                     GRBLinExpr[] row = functionPlacementCut(ti, pathNodes, s, p, v, d);
+                     modelLP.addConstr(row[0], GRB.GREATER_EQUAL, row[1], PF2, s, p, d, v);
+                  }
+                  if (functionsOrder && v > 0)
+                     for (int n = 0; n < pathNodes.length; n++) {
+                        GRBLinExpr[] row = functionsOrderCut(ti, pathNodes, s, p, v, d, n);
+                        modelLP.addConstr(row[0], GRB.GREATER_EQUAL, row[1], FD3, s, d, p, v, n);
+                     }
+               }
+            }
+         }
+      }
+      modelLP.addPendingConstrs();
+   }
+
+   // same expressions as Constraints.PF2
+   private GRBLinExpr[] functionPlacementCut(TopologyIndex ti, int[] pathNodes, int s, int p, int v, int d) {
+      GRBLinExpr expr = new GRBLinExpr();
+      for (int n : pathNodes)
+         for (int i = ti.getNodeServersStart(n); i < ti.getNodeServersEnd(n); i++)
+            if (vars.fXSVD[ti.getNodeServer(i)][s][v][d] != null)
+               expr.addTerm(1.0, vars.fXSVD[ti.getNodeServer(i)][s][v][d]);
+      GRBLinExpr expr2 = new GRBLinExpr();
+      expr2.addTerm(1.0, vars.zSPD[s][p][d]);
+      return new GRBLinExpr[] { expr, expr2 };
+   }
+
+   // same expressions as Constraints.FD3
+   private GRBLinExpr[] functionsOrderCut(TopologyIndex ti, int[] pathNodes, int s, int p, int v, int d, int n) {
+      GRBLinExpr expr = new GRBLinExpr();
+      for (int m = 0; m <= n; m++)
+         for (int i = ti.getNodeServersStart(pathNodes[m]); i < ti.getNodeServersEnd(pathNodes[m]); i++)
+            if (vars.fXSVD[ti.getNodeServer(i)][s][v - 1][d] != null)
+               expr.addTerm(1.0, vars.fXSVD[ti.getNodeServer(i)][s][v - 1][d]);
+      for (int i = ti.getNodeServersStart(pathNodes[n]); i < ti.getNodeServersEnd(pathNodes[n]); i++)
+         if (vars.fXSVD[ti.getNodeServer(i)][s][v][d] != null)
+            expr.addTerm(-1.0, vars.fXSVD[ti.getNodeServer(i)][s][v][d]);
+      GRBLinExpr expr2 = new GRBLinExpr();
+      expr2.addConstant(-1);
+      expr2.addTerm(1.0, vars.zSPD[s][p][d]);
+      return new GRBLinExpr[] { expr, expr2 };
+   }
+
+   public int getNumCuts() {
+      return numCuts;
+   }
+}
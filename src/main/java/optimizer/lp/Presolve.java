@@ -0,0 +1,144 @@
+package optimizer.lp;
+
+import static optimizer.Definitions.*;
+import static optimizer.results.Auxiliary.printLog;
+
+import java.util.Arrays;
+
+import org.graphstream.graph.Edge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import optimizer.Parameters;
+import optimizer.elements.FunctionProfile;
+import optimizer.elements.Service;
+import optimizer.elements.TopologyIndex;
+import optimizer.gui.Scenario;
+
+// finds the placement variables fXSVD that are zero in every feasible solution so they are not created, a server
+// can only host a function of a demand if it is on an admissible path of the service, is allowed by cloud/edge only
+// and has capacity for the demand alone, variables of inactive demands are in no constraint and are left out too
+public class Presolve {
+
+   private static final Logger log = LoggerFactory.getLogger(Presolve.class);
+
+   private Parameters pm;
+   private boolean[][] admissiblePath; // [s][p]
+   private boolean[][] serverOnPath; // [s][x], server on an admissible path of the service
+   private boolean[] allowedServer; // [x]
+   private boolean checkCapacity;
+   private boolean serverOverhead;
+   private int prunedPaths;
+   private int eliminatedVars;
+   private boolean disabled;
+
+   // keeps all variables, for models that are only read from files
+   public static Presolve disabled(Parameters pm) {
+      Presolve presolve = new Presolve(pm);
+      presolve.admissiblePath = new boolean[pm.getServices().size()][];
+      for (int s = 0; s < pm.getServices().size(); s++) {
+         presolve.admissiblePath[s] = new boolean[pm.getServices().get(s).getTrafficFlow().getPaths().size()];
+         Arrays.fill(presolve.admissiblePath[s], true);
+      }
+      presolve.disabled = true;
+      return presolve;
+   }
+
+   private Presolve(Parameters pm) {
+      this.pm = pm;
+   }
+
+   public Presolve(Parameters pm, Scenario sc) {
+      this.pm = pm;
+      boolean pruneByDelay = pm.getGlobal(PRESOLVE_PATH_DELAY) != null && (boolean) pm.getGlobal(PRESOLVE_PATH_DELAY);
+      admissiblePath = new boolean[pm.getServices().size()][];
+      for (int s = 0; s < pm.getServices().size(); s++)
+         admissiblePath[s] = admissiblePaths(pm.getServices().get(s), pruneByDelay);
+
+      // without PF2 functions are not bound to the paths of the service
+      TopologyIndex ti = pm.getTopologyIndex();
+      serverOnPath = new boolean[pm.getServices().size()][pm.getServers().size()];
+      for (int s = 0; s < pm.getServices().size(); s++)
+         if (isSet(sc, PF2)) {
+            for (int p = 0; p < admissiblePath[s].length; p++)
+               if (admissiblePath[s][p])
+                  for (int n : ti.getPathNodes(s, p))
+                     for (int i = ti.getNodeServersStart(n); i < ti.getNodeServersEnd(n); i++)
+                        serverOnPath[s][ti.getNodeServer(i)] = true;
+         } else
+            Arrays.fill(serverOnPath[s], true);
+
+      // cloud/edge only remove unused servers through PF3 and FD2
+      allowedServer = new boolean[pm.getServers().size()];
+      boolean serverUsage = isSet(sc, PF3) && isSet(sc, FD2);
+      for (int x = 0; x < pm.getServers().size(); x++) {
+         boolean cloud = (int) pm.getServers().get(x).getParent().getAttribute(NODE_TYPE) == NODE_TYPE_CLOUD;
+         allowedServer[x] = !serverUsage || !(isSet(sc, CLOUD_ONLY) && !cloud) && !(isSet(sc, EDGE_ONLY) && cloud);
+      }
+
+      // server utilization is bounded by 1 except when the server capacity is dimensioned
+      checkCapacity = !sc.getObjFunc().equals(DIMEN_NUM_SERVERS) && !sc.getObjFunc().equals(DIMEN_SERVER_CAP)
+            && !sc.getObjFunc().equals(DIMEN_SERVER_COSTS);
+      serverOverhead = isSet(sc, FD2); // fXSVD <= fXSV
+
+      int totalVars = 0;
+      for (int x = 0; x < pm.getServers().size(); x++)
+         for (int s = 0; s < pm.getServices().size(); s++)
+            for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++) {
+                  totalVars++;
+                  if (!canHost(x, s, v, d))
+                     eliminatedVars++;
+               }
+      printLog(log, INFO, "presolve removed [" + eliminatedVars + "/" + totalVars + "] placement variables and ["
+            + prunedPaths + "] paths");
+   }
+
+   private static boolean isSet(Scenario sc, String constraint) {
+      return Boolean.TRUE.equals(sc.getConstraints().get(constraint));
+   }
+
+   // paths over the max. propagation delay of the service, all of them are kept if none is within the delay
+   private boolean[] admissiblePaths(Service service, boolean pruneByDelay) {
+      boolean[] admissible = new boolean[service.getTrafficFlow().getPaths().size()];
+      double maxPropagationDelay = service.getMaxPropagationDelay();
+      int pruned = 0;
+      for (int p = 0; p < admissible.length; p++) {
+         double pathDelay = 0;
+         for (Edge link : service.getTrafficFlow().getPaths().get(p).getEdgePath())
+            pathDelay += (double) link.getAttribute(LINK_DELAY) * 1000; // in ms
+         admissible[p] = !pruneByDelay || maxPropagationDelay <= 0 || pathDelay <= maxPropagationDelay;
+         if (!admissible[p])
+            pruned++;
+      }
+      if (pruned == admissible.length) {
+         Arrays.fill(admissible, true);
+         pruned = 0;
+      }
+      prunedPaths += pruned;
+      return admissible;
+   }
+
+   public boolean isPathAdmissible(int s, int p) {
+      return admissiblePath[s][p];
+   }
+
+   public boolean hasPrunedPaths() {
+      return prunedPaths > 0;
+   }
+
+   public boolean canHost(int x, int s, int v, int d) {
+      if (disabled)
+         return true;
+      Service service = pm.getServices().get(s);
+      if (!service.getTrafficFlow().getAux().get(d) || !allowedServer[x] || !serverOnPath[s][x])
+         return false;
+      if (!checkCapacity)
+         return true;
+      FunctionProfile profile = service.getFunctions().get(v).getProfile();
+      double load = service.getTrafficFlow().getDemands().get(d) * profile.getLoadRatio();
+      if (serverOverhead)
+         load += profile.getOverhead();
+      return load <= pm.getServers().get(x).getCapacity();
+   }
+}
@@ -93,14 +93,13 @@ public class SpecificConstraints {
          // constraint link utilization
          if (!sc.getObjFunc().equals(DIMEN_LINK_CAP)) // except when dimensioning
             for (int l = 0; l < pm.getLinks().size(); l++)
-               modelLP.getGrbModel().addConstr(luExpr[l], GRB.EQUAL, vars.uL[l],
-                     uL + "[" + pm.getLinks().get(l).getId() + "]");
+               modelLP.addConstr(luExpr[l], GRB.EQUAL, vars.uL[l], uL, l);
 
          // constraint server utilization
          if (!sc.getObjFunc().equals(DIMEN_NUM_SERVERS) // except when dimensioning
                || !sc.getObjFunc().equals(DIMEN_SERVER_CAP) || !sc.getObjFunc().equals(DIMEN_SERVER_COSTS))
             for (int x = 0; x < pm.getServers().size(); x++)
-               modelLP.getGrbModel().addConstr(xuExpr[x], GRB.EQUAL, vars.uX[x], uX + "[x] --> " + "[" + x + "]");
+               modelLP.addConstr(xuExpr[x], GRB.EQUAL, vars.uX[x], uX, x);
 
       } catch (Exception e) {
          e.printStackTrace();
@@ -113,7 +112,7 @@ public class SpecificConstraints {
          expr1.addTerm((int) pm.getGlobal(SERVER_DIMENSIONING_CAPACITY), vars.xN[n]);
          GRBLinExpr expr2 = new GRBLinExpr();
          expr2.multAdd((double) pm.getGlobal(OVERPROVISIONING_NUM_SERVERS), serverLoadExpr[n]);
-         modelLP.getGrbModel().addConstr(expr2, GRB.LESS_EQUAL, expr1, DIMEN_NUM_SERVERS);
+         modelLP.addConstr(expr2, GRB.LESS_EQUAL, expr1, DIMEN_NUM_SERVERS, n);
       }
    }
 
@@ -125,13 +124,13 @@ public class SpecificConstraints {
          GRBLinExpr expr2 = new GRBLinExpr();
          for (int t = 0; t < types.size(); t++)
             expr2.addTerm((double) pm.getGlobal(OVERPROVISIONING_LINK_CAPACITY) * types.get(t), vars.cLT[l][t]);
-         modelLP.getGrbModel().addConstr(expr1, GRB.LESS_EQUAL, expr2, DIMEN_LINK_CAP);
+         modelLP.addConstr(expr1, GRB.LESS_EQUAL, expr2, DIMEN_LINK_CAP, l);
       }
       for (int l = 0; l < pm.getLinks().size(); l++) {
          GRBLinExpr expr1 = new GRBLinExpr();
          for (int t = 0; t < types.size(); t++)
             expr1.addTerm(1.0, vars.cLT[l][t]);
-         modelLP.getGrbModel().addConstr(expr1, GRB.EQUAL, 1.0, DIMEN_LINK_CAP);
+         modelLP.addConstr(expr1, GRB.EQUAL, 1.0, DIMEN_LINK_CAP + "_types", l);
       }
    }
 
@@ -143,13 +142,13 @@ public class SpecificConstraints {
          GRBLinExpr expr2 = new GRBLinExpr();
          for (int t = 0; t < types.size(); t++)
             expr2.addTerm((double) pm.getGlobal(OVERPROVISIONING_SERVER_CAPACITY) * types.get(t), vars.cXT[x][t]);
-         modelLP.getGrbModel().addConstr(expr1, GRB.LESS_EQUAL, expr2, DIMEN_SERVER_CAP);
+         modelLP.addConstr(expr1, GRB.LESS_EQUAL, expr2, DIMEN_SERVER_CAP, x);
       }
       for (int x = 0; x < pm.getServers().size(); x++) {
          GRBLinExpr expr1 = new GRBLinExpr();
          for (int t = 0; t < types.size(); t++)
             expr1.addTerm(1.0, vars.cXT[x][t]);
-         modelLP.getGrbModel().addConstr(expr1, GRB.EQUAL, 1.0, DIMEN_SERVER_CAP);
+         modelLP.addConstr(expr1, GRB.EQUAL, 1.0, DIMEN_SERVER_CAP + "_types", x);
       }
    }
 
@@ -177,15 +176,12 @@ public class SpecificConstraints {
          GRBLinExpr expr = new GRBLinExpr();
          for (int s = 0; s < pm.getServices().size(); s++)
             for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
-               Function function = pm.getServices().get(s).getFunctions().get(v);
+               FunctionProfile profile = pm.getServices().get(s).getFunctions().get(v).getProfile();
                for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
-                  if (pm.getServices().get(s).getTrafficFlow().getAux().get(d))
+                  if (pm.getServices().get(s).getTrafficFlow().getAux().get(d) && vars.fXSVD[x][s][v][d] != null)
                      expr.addTerm((pm.getServices().get(s).getTrafficFlow().getDemands().get(d)
-                           * (double) function.getAttribute(FUNCTION_LOAD_RATIO)), vars.fXSVD[x][s][v][d]);
-               double overhead = (double) function.getAttribute(FUNCTION_OVERHEAD_RATIO)
-                     * (int) function.getAttribute(FUNCTION_MAX_BW) * (int) function.getAttribute(FUNCTION_MAX_DEM)
-                     * (double) function.getAttribute(FUNCTION_LOAD_RATIO);
-               expr.addTerm(overhead, vars.fXSV[x][s][v]);
+                           * profile.getLoadRatio()), vars.fXSVD[x][s][v][d]);
+               expr.addTerm(profile.getOverhead(), vars.fXSV[x][s][v]);
             }
          expressions[x] = expr;
       }
@@ -219,15 +215,15 @@ public class SpecificConstraints {
             GRBLinExpr expr = new GRBLinExpr();
             expr.multAdd(costFunctions.getValues().get(c)[0], exprs[e]);
             expr.addConstant(costFunctions.getValues().get(c)[1]);
-            modelLP.getGrbModel().addConstr(expr, GRB.LESS_EQUAL, grbVar[e], UTIL_COSTS);
+            modelLP.addConstr(expr, GRB.LESS_EQUAL, grbVar[e], UTIL_COSTS, e, c);
          }
    }
 
    private void maxUtilization() throws GRBException {
       for (int x = 0; x < pm.getServers().size(); x++)
-         modelLP.getGrbModel().addConstr(vars.uX[x], GRB.LESS_EQUAL, vars.uMax, uMax);
+         modelLP.addConstr(vars.uX[x], GRB.LESS_EQUAL, vars.uMax, uMax + "_" + uX, x);
       for (int l = 0; l < pm.getLinks().size(); l++)
-         modelLP.getGrbModel().addConstr(vars.uL[l], GRB.LESS_EQUAL, vars.uMax, uMax);
+         modelLP.addConstr(vars.uL[l], GRB.LESS_EQUAL, vars.uMax, uMax + "_" + uL, l);
    }
 
    private void opexServers() throws GRBException {
@@ -236,9 +232,9 @@ public class SpecificConstraints {
             GRBLinExpr expr = new GRBLinExpr();
             expr.addTerm((double) pm.getGlobal().get(SERVER_IDLE_ENERGY_COST), vars.fX[x]);
             expr.addTerm((double) pm.getGlobal().get(SERVER_UTIL_ENERGY_COST), vars.uX[x]);
-            modelLP.getGrbModel().addConstr(expr, GRB.EQUAL, vars.oX[x], oX);
+            modelLP.addConstr(expr, GRB.EQUAL, vars.oX[x], oX, x);
          } else {
-            modelLP.getGrbModel().addConstr(vars.oX[x], GRB.EQUAL, 0, oX);
+            modelLP.addConstr(vars.oX[x], GRB.EQUAL, 0, oX, x);
          }
    }
 
@@ -248,14 +244,14 @@ public class SpecificConstraints {
             for (int x = 0; x < pm.getServers().size(); x++)
                if ((int) pm.getServers().get(x).getParent().getAttribute(NODE_TYPE) == NODE_TYPE_CLOUD) {
                   GRBLinExpr expr = new GRBLinExpr();
-                  expr.addTerm((double) pm.getServices().get(s).getFunctions().get(v).getAttribute(FUNCTION_CHARGES),
+                  expr.addTerm(pm.getServices().get(s).getFunctions().get(v).getProfile().getCharges(),
                         vars.fXSV[x][s][v]); // in $/h
-                  modelLP.getGrbModel().addConstr(vars.oSV[s][v], GRB.EQUAL, expr, oSV); // to be updated from the paper
-                                                                                         // (not affecting to the
-                                                                                         // results because only one
-                                                                                         // server in the cloud so no
-                                                                                         // replicas will be replicated
-                                                                                         // within the same server)
+                  modelLP.addConstr(vars.oSV[s][v], GRB.EQUAL, expr, oSV, s, v, x); // to be updated from the paper
+                                                                                    // (not affecting to the
+                                                                                    // results because only one
+                                                                                    // server in the cloud so no
+                                                                                    // replicas will be replicated
+                                                                                    // within the same server)
                }
    }
 
@@ -278,7 +274,7 @@ public class SpecificConstraints {
                   double maxDelay = 0;
                   maxDelay += service.getMaxPropagationDelay();
                   for (int v = 0; v < service.getFunctions().size(); v++)
-                     maxDelay += (double) service.getFunctions().get(v).getAttribute(FUNCTION_MAX_DELAY);
+                     maxDelay += service.getFunctions().get(v).getProfile().getMaxDelay();
 
                   GRBLinExpr expr = new GRBLinExpr();
                   expr.addTerm(1.0 / maxDelay, vars.ySDP[s][d][p]); // ratio
@@ -287,19 +283,19 @@ public class SpecificConstraints {
                   // qos_penalty value
                   double profit = 0;
                   for (int v = 0; v < service.getFunctions().size(); v++)
-                     profit += (double) service.getFunctions().get(v).getAttribute(FUNCTION_CHARGES);
+                     profit += service.getFunctions().get(v).getProfile().getCharges();
                   double qosPenalty = (double) pm.getGlobal().get(QOS_PENALTY_RATIO) * profit; // in $/h
 
                   GRBLinExpr expr2 = new GRBLinExpr();
                   expr2.multAdd(qosPenalty, expr); // in $/h
-                  modelLP.getGrbModel().addConstr(expr2, GRB.LESS_EQUAL, vars.qSDP[s][d][p], qSDP);
+                  modelLP.addConstr(expr2, GRB.LESS_EQUAL, vars.qSDP[s][d][p], qSDP, s, d, p);
                   if (maxDelay > bigM)
                      printLog(log, WARNING, "max. service delay is not bounding");
                   double upperBound = ((bigM / maxDelay) - 1) * qosPenalty;
-                  modelLP.getGrbModel().addConstr(vars.qSDP[s][d][p], GRB.LESS_EQUAL, upperBound, qSDP);
+                  modelLP.addConstr(vars.qSDP[s][d][p], GRB.LESS_EQUAL, upperBound, qSDP + "_max", s, d, p);
                } else {
-                  modelLP.getGrbModel().addConstr(vars.qSDP[s][d][p], GRB.EQUAL, 0.0, qSDP);
-                  modelLP.getGrbModel().addConstr(vars.ySDP[s][d][p], GRB.EQUAL, 0.0, ySDP);
+                  modelLP.addConstr(vars.qSDP[s][d][p], GRB.EQUAL, 0.0, qSDP, s, d, p);
+                  modelLP.addConstr(vars.ySDP[s][d][p], GRB.EQUAL, 0.0, ySDP, s, d, p);
                }
       }
    }
@@ -318,15 +314,15 @@ public class SpecificConstraints {
                   GRBLinExpr serviceDelayExpr = serviceDelayExpr(s, p, d, initialPlacement); // in ms
 
                   // linearization of delay and routing variables
-                  modelLP.getGrbModel().addConstr(vars.ySDP[s][d][p], GRB.LESS_EQUAL, serviceDelayExpr, ySDP);
+                  modelLP.addConstr(vars.ySDP[s][d][p], GRB.LESS_EQUAL, serviceDelayExpr, ySDP + "_1", s, d, p);
                   GRBLinExpr expr = new GRBLinExpr();
                   expr.addTerm(bigM, vars.zSPD[s][p][d]);
-                  modelLP.getGrbModel().addConstr(vars.ySDP[s][d][p], GRB.LESS_EQUAL, expr, ySDP);
+                  modelLP.addConstr(vars.ySDP[s][d][p], GRB.LESS_EQUAL, expr, ySDP + "_2", s, d, p);
                   expr = new GRBLinExpr();
                   expr.addTerm(bigM, vars.zSPD[s][p][d]);
                   expr.addConstant(-bigM);
                   expr.add(serviceDelayExpr);
-                  modelLP.getGrbModel().addConstr(vars.ySDP[s][d][p], GRB.GREATER_EQUAL, expr, ySDP);
+                  modelLP.addConstr(vars.ySDP[s][d][p], GRB.GREATER_EQUAL, expr, ySDP + "_3", s, d, p);
                }
       }
    }
@@ -347,7 +343,7 @@ public class SpecificConstraints {
                   pathDelayExpr.addTerm(pm.getServices().get(s).getMaxDelay(), vars.zSPD[s][p][d]);
                   pathDelayExpr.addConstant(bigM);
                   pathDelayExpr.addTerm(-bigM, vars.zSPD[s][p][d]);
-                  modelLP.getGrbModel().addConstr(serviceDelayExpr, GRB.LESS_EQUAL, pathDelayExpr, MAX_SERV_DELAY);
+                  modelLP.addConstr(serviceDelayExpr, GRB.LESS_EQUAL, pathDelayExpr, MAX_SERV_DELAY, s, p, d);
                }
       }
    }
@@ -363,48 +359,46 @@ public class SpecificConstraints {
 
    private GRBLinExpr processingDelayExpr(int s, int p, int d) throws GRBException {
       Service service = pm.getServices().get(s);
-      Path path = service.getTrafficFlow().getPaths().get(p);
+      TopologyIndex ti = pm.getTopologyIndex();
       GRBLinExpr processDelayGlobalExpr = new GRBLinExpr();
-      for (int n = 0; n < path.getNodePath().size(); n++)
-         for (int x = 0; x < pm.getServers().size(); x++)
-            if (pm.getServers().get(x).getParent().equals(path.getNodePath().get(n)))
-               for (int v = 0; v < service.getFunctions().size(); v++) {
-                  Function function = service.getFunctions().get(v);
-                  double ratio = (double) function.getAttribute(FUNCTION_LOAD_RATIO)
-                        * (double) function.getAttribute(FUNCTION_PROCESS_TRAFFIC_DELAY)
-                        / ((int) function.getAttribute(FUNCTION_MAX_DEM) * (int) function.getAttribute(FUNCTION_MAX_BW)
-                              * (double) function.getAttribute(FUNCTION_LOAD_RATIO));
-                  GRBLinExpr loadDelayExpr = new GRBLinExpr();
-                  for (int d1 = 0; d1 < service.getTrafficFlow().getDemands().size(); d1++)
-                     if (service.getTrafficFlow().getAux().get(d1))
-                        loadDelayExpr.addTerm(ratio * service.getTrafficFlow().getDemands().get(d1),
-                              vars.fXSVD[x][s][v][d1]);
-                  GRBLinExpr processDelayExpr1 = new GRBLinExpr();
-                  processDelayExpr1.addTerm((double) function.getAttribute(FUNCTION_MIN_PROCESS_DELAY),
-                        vars.fXSV[x][s][v]);
-                  GRBLinExpr processDelayExpr2 = new GRBLinExpr();
-                  processDelayExpr2.addTerm((double) function.getAttribute(FUNCTION_PROCESS_DELAY), vars.uX[x]);
-                  GRBLinExpr processDelayExpr = new GRBLinExpr();
-                  processDelayExpr.add(loadDelayExpr); // d_pro_q (first term)
-                  processDelayExpr.add(processDelayExpr1); // d_pro_q (second term)
-                  processDelayExpr.add(processDelayExpr2); // D_pro_x * ux
-                  for (int d1 = 0; d1 < service.getTrafficFlow().getDemands().size(); d1++)
-                     if (service.getTrafficFlow().getAux().get(d1)) {
-                        GRBLinExpr processConstraintExpr1 = new GRBLinExpr();
-                        processConstraintExpr1.addTerm(-(double) function.getAttribute(FUNCTION_MAX_DELAY),
-                              vars.fXSVD[x][s][v][d1]);
-                        processConstraintExpr1.addConstant((double) function.getAttribute(FUNCTION_MAX_DELAY));
-                        processConstraintExpr1.addTerm(1.0, vars.dSVXD[s][v][x][d1]);
-                        modelLP.getGrbModel().addConstr(processDelayExpr, GRB.LESS_EQUAL, processConstraintExpr1,
-                              FUNCTION_PROCESS_TRAFFIC_DELAY);
-                        GRBLinExpr processConstraintExpr2 = new GRBLinExpr();
-                        processConstraintExpr2.addTerm((double) function.getAttribute(FUNCTION_MAX_DELAY),
-                              vars.fXSVD[x][s][v][d1]);
-                        modelLP.getGrbModel().addConstr(vars.dSVXD[s][v][x][d1], GRB.LESS_EQUAL, processConstraintExpr2,
-                              FUNCTION_PROCESS_TRAFFIC_DELAY);
-                     }
-                  processDelayGlobalExpr.addTerm(1.0, vars.dSVXD[s][v][x][d]);
-               }
+      for (int n : ti.getPathNodes(s, p))
+         for (int i = ti.getNodeServersStart(n); i < ti.getNodeServersEnd(n); i++) {
+            int x = ti.getNodeServer(i);
+            for (int v = 0; v < service.getFunctions().size(); v++) {
+               FunctionProfile profile = service.getFunctions().get(v).getProfile();
+               double ratio = profile.getProcessTrafficDelayRatio();
+               GRBLinExpr loadDelayExpr = new GRBLinExpr();
+               for (int d1 = 0; d1 < service.getTrafficFlow().getDemands().size(); d1++)
+                  if (service.getTrafficFlow().getAux().get(d1) && vars.fXSVD[x][s][v][d1] != null)
+                     loadDelayExpr.addTerm(ratio * service.getTrafficFlow().getDemands().get(d1),
+                           vars.fXSVD[x][s][v][d1]);
+               GRBLinExpr processDelayExpr1 = new GRBLinExpr();
+               processDelayExpr1.addTerm(profile.getMinProcessDelay(), vars.fXSV[x][s][v]);
+               GRBLinExpr processDelayExpr2 = new GRBLinExpr();
+               processDelayExpr2.addTerm(profile.getProcessDelay(), vars.uX[x]);
+               GRBLinExpr processDelayExpr = new GRBLinExpr();
+               processDelayExpr.add(loadDelayExpr); // d_pro_q (first term)
+               processDelayExpr.add(processDelayExpr1); // d_pro_q (second term)
+               processDelayExpr.add(processDelayExpr2); // D_pro_x * ux
+               for (int d1 = 0; d1 < service.getTrafficFlow().getDemands().size(); d1++)
+                  if (service.getTrafficFlow().getAux().get(d1)) {
+                     GRBVar placement = vars.fXSVD[x][s][v][d1]; // null if removed by the presolve
+                     GRBLinExpr processConstraintExpr1 = new GRBLinExpr();
+                     if (placement != null)
+                        processConstraintExpr1.addTerm(-profile.getMaxDelay(), placement);
+                     processConstraintExpr1.addConstant(profile.getMaxDelay());
+                     processConstraintExpr1.addTerm(1.0, vars.dSVXD[s][v][x][d1]);
+                     modelLP.addConstr(processDelayExpr, GRB.LESS_EQUAL, processConstraintExpr1,
+                           FUNCTION_PROCESS_TRAFFIC_DELAY + "_1", s, v, x, d1);
+                     GRBLinExpr processConstraintExpr2 = new GRBLinExpr();
+                     if (placement != null)
+                        processConstraintExpr2.addTerm(profile.getMaxDelay(), placement);
+                     modelLP.addConstr(vars.dSVXD[s][v][x][d1], GRB.LESS_EQUAL, processConstraintExpr2,
+                           FUNCTION_PROCESS_TRAFFIC_DELAY + "_2", s, v, x, d1);
+                  }
+               processDelayGlobalExpr.addTerm(1.0, vars.dSVXD[s][v][x][d]);
+            }
+         }
       return processDelayGlobalExpr;
    }
 
@@ -439,16 +433,15 @@ public class SpecificConstraints {
                for (int y = 0; y < pm.getServers().size(); y++) {
                   if (pm.getServers().get(x).getParent().equals(pm.getServers().get(y).getParent()))
                      continue;
-                  modelLP.getGrbModel().addConstr(vars.gSVXY[s][v][x][y], GRB.LESS_EQUAL, vars.fXSV[x][s][v],
-                        gSVXY + "_1[s][v][x][y] --> " + "[" + s + "][" + v + "][" + x + "][" + y + "]");
-                  modelLP.getGrbModel().addConstr(vars.gSVXY[s][v][x][y], GRB.LESS_EQUAL, vars.fXSV[y][s][v],
-                        gSVXY + "_2[s][v][x][y] --> " + "[" + s + "][" + v + "][" + x + "][" + y + "]");
+                  modelLP.addConstr(vars.gSVXY[s][v][x][y], GRB.LESS_EQUAL, vars.fXSV[x][s][v], gSVXY + "_1", s, v, x,
+                        y);
+                  modelLP.addConstr(vars.gSVXY[s][v][x][y], GRB.LESS_EQUAL, vars.fXSV[y][s][v], gSVXY + "_2", s, v, x,
+                        y);
                   GRBLinExpr expr = new GRBLinExpr();
                   expr.addTerm(1.0, vars.fXSV[x][s][v]);
                   expr.addTerm(1.0, vars.fXSV[y][s][v]);
                   expr.addConstant(-1.0);
-                  modelLP.getGrbModel().addConstr(vars.gSVXY[s][v][x][y], GRB.GREATER_EQUAL, expr,
-                        gSVXY + "_3[s][v][x][y] --> " + "[" + s + "][" + v + "][" + x + "][" + y + "]");
+                  modelLP.addConstr(vars.gSVXY[s][v][x][y], GRB.GREATER_EQUAL, expr, gSVXY + "_3", s, v, x, y);
                   expr = new GRBLinExpr();
                   for (int p = 0; p < pm.getPaths().size(); p++) {
                      Path pa = pm.getPaths().get(p);
@@ -456,10 +449,8 @@ public class SpecificConstraints {
                            .get(pa.getNodePath().size() - 1).equals(pm.getServers().get(y).getParent()))
                         expr.addTerm(1.0, vars.hSVP[s][v][p]);
                   }
-                  modelLP.getGrbModel().addConstr(vars.gSVXY[s][v][x][y], GRB.LESS_EQUAL, expr,
-                        gSVXY + "_4[s][v][x][y] --> " + "[" + s + "][" + v + "][" + x + "][" + y + "]");
-                  modelLP.getGrbModel().addConstr(expr, GRB.LESS_EQUAL, 1.0,
-                        gSVXY + "_3[s][v][x][y] --> " + "[" + s + "][" + v + "][" + x + "][" + y + "]");
+                  modelLP.addConstr(vars.gSVXY[s][v][x][y], GRB.LESS_EQUAL, expr, gSVXY + "_4", s, v, x, y);
+                  modelLP.addConstr(expr, GRB.LESS_EQUAL, 1.0, gSVXY + "_5", s, v, x, y);
                }
       for (int s = 0; s < pm.getServices().size(); s++)
          for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
@@ -480,8 +471,7 @@ public class SpecificConstraints {
                         if (pm.getServers().get(x).getParent().equals(pm.getNodes().get(n))
                               && pm.getServers().get(y).getParent().equals(pm.getNodes().get(m)))
                            expr2.addTerm(1.0, vars.gSVXY[s][v][x][y]);
-                  modelLP.getGrbModel().addConstr(expr, GRB.LESS_EQUAL, expr2,
-                        SYNC_TRAFFIC + "[s][v][n][m] --> " + "[" + s + "][" + v + "][" + n + "][" + m + "]");
+                  modelLP.addConstr(expr, GRB.LESS_EQUAL, expr2, SYNC_TRAFFIC, s, v, n, m);
                }
       for (int l = 0; l < pm.getLinks().size(); l++) {
          GRBLinExpr expr = new GRBLinExpr();
@@ -495,7 +485,7 @@ public class SpecificConstraints {
                      traffic += pm.getServices().get(s).getTrafficFlow().getDemands().get(d);
                for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
                   double trafficScaled = traffic
-                        * (double) pm.getServices().get(s).getFunctions().get(v).getAttribute(FUNCTION_SYNC_LOAD_RATIO);
+                        * pm.getServices().get(s).getFunctions().get(v).getProfile().getSyncLoadRatio();
                   expr.addTerm(trafficScaled, vars.hSVP[s][v][p]);
                }
             }
@@ -508,14 +498,14 @@ public class SpecificConstraints {
    private void useOnlyCloudServers() throws GRBException {
       for (int x = 0; x < pm.getServers().size(); x++)
          if ((int) pm.getServers().get(x).getParent().getAttribute(NODE_TYPE) != NODE_TYPE_CLOUD)
-            modelLP.getGrbModel().addConstr(vars.fX[x], GRB.EQUAL, 0.0, CLOUD_ONLY);
+            modelLP.addConstr(vars.fX[x], GRB.EQUAL, 0.0, CLOUD_ONLY, x);
    }
 
    // use only edge servers
    private void useOnlyEdgeServers() throws GRBException {
       for (int x = 0; x < pm.getServers().size(); x++)
          if ((int) pm.getServers().get(x).getParent().getAttribute(NODE_TYPE) == NODE_TYPE_CLOUD)
-            modelLP.getGrbModel().addConstr(vars.fX[x], GRB.EQUAL, 0.0, EDGE_ONLY);
+            modelLP.addConstr(vars.fX[x], GRB.EQUAL, 0.0, EDGE_ONLY, x);
    }
 
    // Single path (no replicas)
@@ -524,7 +514,7 @@ public class SpecificConstraints {
          GRBLinExpr expr = new GRBLinExpr();
          for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
             expr.addTerm(1.0, vars.zSP[s][p]);
-         modelLP.getGrbModel().addConstr(expr, GRB.EQUAL, 1, SINGLE_PATH);
+         modelLP.addConstr(expr, GRB.EQUAL, 1, SINGLE_PATH, s);
       }
    }
 
@@ -535,7 +525,7 @@ public class SpecificConstraints {
             for (int s = 0; s < pm.getServices().size(); s++)
                for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
                   if (initialPlacement[x][s][v])
-                     modelLP.getGrbModel().addConstr(vars.fXSV[x][s][v], GRB.EQUAL, 1, SET_INIT_PLC);
+                     modelLP.addConstr(vars.fXSV[x][s][v], GRB.EQUAL, 1, SET_INIT_PLC, x, s, v);
       }
    }
 
@@ -550,7 +540,7 @@ public class SpecificConstraints {
                      if (pm.getServices().get(s).getTrafficFlow().getPaths().get(p)
                            .contains(pm.getServers().get(x).getParent()))
                         expr.addTerm(1.0, vars.zSP[s][p]);
-                  modelLP.getGrbModel().addConstr(expr, GRB.LESS_EQUAL, vars.fXSV[x][s][v], PATHS_SERVERS_CLOUD);
+                  modelLP.addConstr(expr, GRB.LESS_EQUAL, vars.fXSV[x][s][v], PATHS_SERVERS_CLOUD, x, s, v);
                }
    }
 
@@ -564,7 +554,7 @@ public class SpecificConstraints {
             if (pm.getServers().get(x).getParent().getId().equals(srcNode.getId()))
                exprSrc.addTerm(1.0, vars.fXSV[x][s][0]);
          }
-         modelLP.getGrbModel().addConstr(exprSrc, GRB.EQUAL, 1.0, FORCE_SRC);
+         modelLP.addConstr(exprSrc, GRB.EQUAL, 1.0, FORCE_SRC, s);
       }
    }
 
@@ -577,7 +567,7 @@ public class SpecificConstraints {
             if (pm.getServers().get(x).getParent().getId().equals(dstNode.getId()))
                exprDst.addTerm(1.0, vars.fXSV[x][s][pm.getServices().get(s).getFunctions().size() - 1]);
          }
-         modelLP.getGrbModel().addConstr(exprDst, GRB.EQUAL, 1.0, FORCE_DST);
+         modelLP.addConstr(exprDst, GRB.EQUAL, 1.0, FORCE_DST, s);
       }
    }
 
@@ -589,8 +579,8 @@ public class SpecificConstraints {
             expr.addTerm(1.0, vars.zSP[s][p]);
          int minPaths = (int) pm.getServices().get(s).getAttribute(SERVICE_MIN_PATHS);
          int maxPaths = (int) pm.getServices().get(s).getAttribute(SERVICE_MAX_PATHS);
-         modelLP.getGrbModel().addConstr(expr, GRB.GREATER_EQUAL, minPaths, CONST_REP);
-         modelLP.getGrbModel().addConstr(expr, GRB.LESS_EQUAL, maxPaths, CONST_REP);
+         modelLP.addConstr(expr, GRB.GREATER_EQUAL, minPaths, CONST_REP + "_min", s);
+         modelLP.addConstr(expr, GRB.LESS_EQUAL, maxPaths, CONST_REP + "_max", s);
       }
    }
 
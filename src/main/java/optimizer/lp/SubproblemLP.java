@@ -0,0 +1,359 @@
+package optimizer.lp;
+
+import static optimizer.Definitions.*;
+
+import java.util.Map;
+
+import org.graphstream.graph.Edge;
+
+import gurobi.GRB;
+import gurobi.GRBEnv;
+import gurobi.GRBException;
+import gurobi.GRBLinExpr;
+import gurobi.GRBModel;
+import gurobi.GRBVar;
+import optimizer.Parameters;
+import optimizer.elements.FunctionProfile;
+import optimizer.elements.Service;
+import optimizer.elements.TopologyIndex;
+import optimizer.gui.Scenario;
+
+// routing and placement model of a group of services, the shared link and server capacities are moved to the
+// objective with lagrangian multipliers and only the capacity used by the group itself is constrained. The general
+// constraints enabled in the scenario are added as in the full model and the variables removed by the presolve are
+// left out. The families left out only relax the subproblem, so the bound stays valid:
+// - PF3 only links the used servers fX, which are not in the objectives of the decomposition
+// - CLOUD_ONLY and EDGE_ONLY are applied by the presolve when PF3 and FD2 are set, as in the full model
+// - SYNC_TRAFFIC is routed by the repair, the subproblems do not see the traffic between groups
+// - the ordering constraints PF2 and FD3 are added as rows even when they are lazy in the full model, the
+//   subproblems are small
+public class SubproblemLP {
+
+   private Parameters pm;
+   private Map<String, Boolean> constraints;
+   private Presolve presolve;
+   private int[] services;
+   private GRBModel grbModel;
+   private GRBVar[][][] zSPD; // [i][p][d], null for demands not used
+   private GRBVar[][] zSP; // [i][p]
+   private GRBVar[][][] fXSV; // [i][x][v]
+   private GRBVar[][][][] fXSVD; // [i][x][v][d], null for demands not used or removed by the presolve
+
+   public SubproblemLP(Parameters pm, Scenario sce, Presolve presolve, int[] services) throws GRBException {
+      this.pm = pm;
+      this.constraints = sce.getConstraints();
+      this.presolve = presolve;
+      this.services = services;
+      GRBEnv grbEnv = new GRBEnv();
+      grbEnv.set(GRB.IntParam.LogToConsole, 0);
+      // subproblems are solved in parallel
+      grbEnv.set(GRB.IntParam.Threads, 1);
+      grbEnv.set(GRB.DoubleParam.MIPGap, (double) pm.getGlobal().get("gap"));
+      grbModel = new GRBModel(grbEnv);
+      initializeVariables();
+      grbModel.update();
+      initializeConstraints();
+   }
+
+   private void initializeVariables() throws GRBException {
+      zSPD = new GRBVar[services.length][][];
+      zSP = new GRBVar[services.length][];
+      fXSV = new GRBVar[services.length][pm.getServers().size()][];
+      fXSVD = new GRBVar[services.length][pm.getServers().size()][][];
+      for (int i = 0; i < services.length; i++) {
+         int s = services[i];
+         Service service = pm.getServices().get(s);
+         int paths = service.getTrafficFlow().getPaths().size();
+         int demands = service.getTrafficFlow().getDemands().size();
+         zSP[i] = new GRBVar[paths];
+         zSPD[i] = new GRBVar[paths][demands];
+         for (int p = 0; p < paths; p++) {
+            // paths discarded by the presolve are fixed to zero
+            double ub = presolve.isPathAdmissible(s, p) ? 1.0 : 0.0;
+            zSP[i][p] = grbModel.addVar(0.0, ub, 0.0, GRB.BINARY, null);
+            for (int d = 0; d < demands; d++)
+               if (service.getTrafficFlow().getAux().get(d))
+                  zSPD[i][p][d] = grbModel.addVar(0.0, ub, 0.0, GRB.BINARY, null);
+         }
+         for (int x = 0; x < pm.getServers().size(); x++) {
+            fXSV[i][x] = new GRBVar[service.getFunctions().size()];
+            fXSVD[i][x] = new GRBVar[service.getFunctions().size()][demands];
+            for (int v = 0; v < service.getFunctions().size(); v++) {
+               fXSV[i][x][v] = grbModel.addVar(0.0, 1.0, 0.0, GRB.BINARY, null);
+               for (int d = 0; d < demands; d++)
+                  if (presolve.canHost(x, s, v, d))
+                     fXSVD[i][x][v][d] = grbModel.addVar(0.0, 1.0, 0.0, GRB.BINARY, null);
+            }
+         }
+      }
+   }
+
+   private void initializeConstraints() throws GRBException {
+      for (int i = 0; i < services.length; i++) {
+         if (isSet(RP1))
+            RP1(i);
+         if (isSet(RP2))
+            RP2(i);
+         if (isSet(PF1))
+            PF1(i);
+         if (isSet(PF2))
+            PF2(i);
+         if (isSet(FD1))
+            FD1(i);
+         if (isSet(FD2))
+            FD2(i);
+         if (isSet(FD3))
+            FD3(i);
+      }
+      // the capacity used by the group alone is still constrained
+      GRBLinExpr[] linkLoad = linkLoadExpr();
+      for (int l = 0; l < pm.getLinks().size(); l++)
+         grbModel.addConstr(linkLoad[l], GRB.LESS_EQUAL, (int) pm.getLinks().get(l).getAttribute(LINK_CAPACITY), uL);
+      GRBLinExpr[] serverLoad = serverLoadExpr();
+      for (int x = 0; x < pm.getServers().size(); x++)
+         grbModel.addConstr(serverLoad[x], GRB.LESS_EQUAL, pm.getServers().get(x).getCapacity(), uX);
+   }
+
+   private boolean isSet(String constraint) {
+      return Boolean.TRUE.equals(constraints.get(constraint));
+   }
+
+   // One path per demand
+   private void RP1(int i) throws GRBException {
+      Service service = pm.getServices().get(services[i]);
+      for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
+         if (service.getTrafficFlow().getAux().get(d)) {
+            GRBLinExpr expr = new GRBLinExpr();
+            for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++)
+               expr.addTerm(1.0, zSPD[i][p][d]);
+            grbModel.addConstr(expr, GRB.EQUAL, 1.0, RP1);
+         }
+   }
+
+   // Activate path for service
+   private void RP2(int i) throws GRBException {
+      Service service = pm.getServices().get(services[i]);
+      for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++) {
+         GRBLinExpr expr = new GRBLinExpr();
+         for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
+            if (service.getTrafficFlow().getAux().get(d)) {
+               grbModel.addConstr(zSPD[i][p][d], GRB.LESS_EQUAL, zSP[i][p], RP2 + "_1");
+               expr.addTerm(1.0, zSPD[i][p][d]);
+            }
+         grbModel.addConstr(expr, GRB.GREATER_EQUAL, zSP[i][p], RP2 + "_2");
+      }
+   }
+
+   // Paths constrained by functions
+   private void PF1(int i) throws GRBException {
+      Service service = pm.getServices().get(services[i]);
+      for (int v = 0; v < service.getFunctions().size(); v++) {
+         GRBLinExpr expr = new GRBLinExpr();
+         for (int x = 0; x < pm.getServers().size(); x++)
+            expr.addTerm(1.0, fXSV[i][x][v]);
+         if (service.getFunctions().get(v).getProfile().isReplicable()) {
+            GRBLinExpr expr2 = new GRBLinExpr();
+            for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++)
+               expr2.addTerm(1.0, zSP[i][p]);
+            grbModel.addConstr(expr, GRB.LESS_EQUAL, expr2, PF1);
+         } else
+            grbModel.addConstr(expr, GRB.LESS_EQUAL, 1.0, PF1);
+      }
+   }
+
+   // Function placement
+   private void PF2(int i) throws GRBException {
+      TopologyIndex ti = pm.getTopologyIndex();
+      int s = services[i];
+      Service service = pm.getServices().get(s);
+      for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++)
+         for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
+            if (service.getTrafficFlow().getAux().get(d) && presolve.isPathAdmissible(s, p))
+               for (int v = 0; v < service.getFunctions().size(); v++) {
+                  GRBLinExpr expr = new GRBLinExpr();
+                  for (int n : ti.getPathNodes(s, p))
+                     for (int j = ti.getNodeServersStart(n); j < ti.getNodeServersEnd(n); j++)
+                        if (fXSVD[i][ti.getNodeServer(j)][v][d] != null)
+                           expr.addTerm(1.0, fXSVD[i][ti.getNodeServer(j)][v][d]);
+                  grbModel.addConstr(zSPD[i][p][d], GRB.LESS_EQUAL, expr, PF2);
+               }
+   }
+
+   // One function per demand
+   private void FD1(int i) throws GRBException {
+      Service service = pm.getServices().get(services[i]);
+      for (int v = 0; v < service.getFunctions().size(); v++)
+         for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
+            if (service.getTrafficFlow().getAux().get(d)) {
+               GRBLinExpr expr = new GRBLinExpr();
+               for (int x = 0; x < pm.getServers().size(); x++)
+                  if (fXSVD[i][x][v][d] != null)
+                     expr.addTerm(1.0, fXSVD[i][x][v][d]);
+               grbModel.addConstr(expr, GRB.EQUAL, 1.0, FD1);
+            }
+   }
+
+   // Mapping functions with demands
+   private void FD2(int i) throws GRBException {
+      Service service = pm.getServices().get(services[i]);
+      for (int v = 0; v < service.getFunctions().size(); v++)
+         for (int x = 0; x < pm.getServers().size(); x++) {
+            GRBLinExpr expr = new GRBLinExpr();
+            for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
+               if (fXSVD[i][x][v][d] != null) {
+                  grbModel.addConstr(fXSVD[i][x][v][d], GRB.LESS_EQUAL, fXSV[i][x][v], FD2 + "_1");
+                  expr.addTerm(1.0, fXSVD[i][x][v][d]);
+               }
+            grbModel.addConstr(expr, GRB.GREATER_EQUAL, fXSV[i][x][v], FD2 + "_2");
+         }
+   }
+
+   // Functions sequence order
+   private void FD3(int i) throws GRBException {
+      TopologyIndex ti = pm.getTopologyIndex();
+      int s = services[i];
+      Service service = pm.getServices().get(s);
+      for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++) {
+         if (!service.getTrafficFlow().getAux().get(d))
+            continue;
+         for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++) {
+            if (!presolve.isPathAdmissible(s, p))
+               continue;
+            int[] pathNodes = ti.getPathNodes(s, p);
+            for (int v = 1; v < service.getFunctions().size(); v++)
+               for (int n = 0; n < pathNodes.length; n++) {
+                  GRBLinExpr expr = new GRBLinExpr();
+                  for (int m = 0; m <= n; m++)
+                     for (int j = ti.getNodeServersStart(pathNodes[m]); j < ti.getNodeServersEnd(pathNodes[m]); j++)
+                        if (fXSVD[i][ti.getNodeServer(j)][v - 1][d] != null)
+                           expr.addTerm(1.0, fXSVD[i][ti.getNodeServer(j)][v - 1][d]);
+                  for (int j = ti.getNodeServersStart(pathNodes[n]); j < ti.getNodeServersEnd(pathNodes[n]); j++)
+                     if (fXSVD[i][ti.getNodeServer(j)][v][d] != null)
+                        expr.addTerm(-1.0, fXSVD[i][ti.getNodeServer(j)][v][d]);
+                  GRBLinExpr expr2 = new GRBLinExpr();
+                  expr2.addConstant(-1);
+                  expr2.addTerm(1.0, zSPD[i][p][d]);
+                  grbModel.addConstr(expr, GRB.GREATER_EQUAL, expr2, FD3);
+               }
+         }
+      }
+   }
+
+   private GRBLinExpr[] linkLoadExpr() {
+      GRBLinExpr[] expressions = new GRBLinExpr[pm.getLinks().size()];
+      for (int l = 0; l < pm.getLinks().size(); l++)
+         expressions[l] = new GRBLinExpr();
+      for (int i = 0; i < services.length; i++) {
+         Service service = pm.getServices().get(services[i]);
+         for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++)
+            for (Edge link : service.getTrafficFlow().getPaths().get(p).getEdgePath())
+               for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
+                  if (service.getTrafficFlow().getAux().get(d))
+                     expressions[link.getIndex()].addTerm(service.getTrafficFlow().getDemands().get(d),
+                           zSPD[i][p][d]);
+      }
+      return expressions;
+   }
+
+   private GRBLinExpr[] serverLoadExpr() {
+      GRBLinExpr[] expressions = new GRBLinExpr[pm.getServers().size()];
+      for (int x = 0; x < pm.getServers().size(); x++) {
+         expressions[x] = new GRBLinExpr();
+         for (int i = 0; i < services.length; i++) {
+            Service service = pm.getServices().get(services[i]);
+            for (int v = 0; v < service.getFunctions().size(); v++) {
+               FunctionProfile profile = service.getFunctions().get(v).getProfile();
+               for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
+                  if (fXSVD[i][x][v][d] != null)
+                     expressions[x].addTerm(service.getTrafficFlow().getDemands().get(d) * profile.getLoadRatio(),
+                           fXSVD[i][x][v][d]);
+               expressions[x].addTerm(profile.getOverhead(), fXSV[i][x][v]);
+            }
+         }
+      }
+      return expressions;
+   }
+
+   // replications and functions in the cloud weighted as in the full model, plus the priced utilization
+   public void setObjective(double replicationsWeight, double cloudWeight, double[] linkMultipliers,
+         double[] serverMultipliers) throws GRBException {
+      GRBLinExpr expr = new GRBLinExpr();
+      for (int i = 0; i < services.length; i++) {
+         Service service = pm.getServices().get(services[i]);
+         for (int v = 0; v < service.getFunctions().size(); v++) {
+            expr.addConstant(-replicationsWeight);
+            for (int x = 0; x < pm.getServers().size(); x++) {
+               double weight = replicationsWeight;
+               if ((int) pm.getServers().get(x).getParent().getAttribute(NODE_TYPE) == NODE_TYPE_CLOUD)
+                  weight += cloudWeight;
+               expr.addTerm(weight, fXSV[i][x][v]);
+            }
+         }
+      }
+      GRBLinExpr[] linkLoad = linkLoadExpr();
+      for (int l = 0; l < pm.getLinks().size(); l++)
+         if (linkMultipliers[l] > 0)
+            expr.multAdd(linkMultipliers[l] / (int) pm.getLinks().get(l).getAttribute(LINK_CAPACITY), linkLoad[l]);
+      GRBLinExpr[] serverLoad = serverLoadExpr();
+      for (int x = 0; x < pm.getServers().size(); x++)
+         if (serverMultipliers[x] > 0)
+            expr.multAdd(serverMultipliers[x] / pm.getServers().get(x).getCapacity(), serverLoad[x]);
+      grbModel.setObjective(expr, GRB.MINIMIZE);
+   }
+
+   public boolean solve() throws GRBException {
+      grbModel.optimize();
+      return grbModel.get(GRB.IntAttr.SolCount) > 0;
+   }
+
+   public double getObjBound() throws GRBException {
+      return grbModel.get(GRB.DoubleAttr.ObjBound);
+   }
+
+   // adds the utilization of links and servers used by the group
+   public void addUtilization(double[] uL, double[] uX) throws GRBException {
+      for (int i = 0; i < services.length; i++) {
+         Service service = pm.getServices().get(services[i]);
+         for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++)
+            for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
+               if (zSPD[i][p][d] != null && zSPD[i][p][d].get(GRB.DoubleAttr.X) > 0.5)
+                  for (Edge link : service.getTrafficFlow().getPaths().get(p).getEdgePath())
+                     uL[link.getIndex()] += service.getTrafficFlow().getDemands().get(d)
+                           / (double) (int) link.getAttribute(LINK_CAPACITY);
+         for (int x = 0; x < pm.getServers().size(); x++)
+            for (int v = 0; v < service.getFunctions().size(); v++) {
+               FunctionProfile profile = service.getFunctions().get(v).getProfile();
+               double load = 0;
+               if (fXSV[i][x][v].get(GRB.DoubleAttr.X) > 0.5)
+                  load += profile.getOverhead();
+               for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
+                  if (fXSVD[i][x][v][d] != null && fXSVD[i][x][v][d].get(GRB.DoubleAttr.X) > 0.5)
+                     load += service.getTrafficFlow().getDemands().get(d) * profile.getLoadRatio();
+               uX[x] += load / pm.getServers().get(x).getCapacity();
+            }
+      }
+   }
+
+   // copies the routing and placement of the group, indexed as in the full model
+   public void getSolution(double[][][] zSPDvalues, double[][][][] fXSVDvalues) throws GRBException {
+      for (int i = 0; i < services.length; i++) {
+         int s = services[i];
+         Service service = pm.getServices().get(s);
+         for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++)
+            for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
+               if (zSPD[i][p][d] != null)
+                  zSPDvalues[s][p][d] = zSPD[i][p][d].get(GRB.DoubleAttr.X);
+         for (int x = 0; x < pm.getServers().size(); x++)
+            for (int v = 0; v < service.getFunctions().size(); v++)
+               for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++)
+                  if (fXSVD[i][x][v][d] != null)
+                     fXSVDvalues[x][s][v][d] = fXSVD[i][x][v][d].get(GRB.DoubleAttr.X);
+      }
+   }
+
+   public void dispose() throws GRBException {
+      GRBEnv grbEnv = grbModel.getEnv();
+      grbModel.dispose();
+      grbEnv.dispose();
+   }
+}
@@ -11,6 +11,8 @@ import optimizer.gui.Scenario;
 import static optimizer.Definitions.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class VariablesLP {
 
@@ -38,317 +40,353 @@ public class VariablesLP {
    public GRBVar[][][][] gSVXY; // binary, aux synchronization traffic
    public GRBVar[][][] hSVP; // binary, traffic synchronization
 
-   public VariablesLP(Parameters pm, GRBModel model, Scenario sc, GRBModel initialSolution) {
+   private ModelKeys keys;
+   private boolean names;
+   private int created;
+   private Presolve presolve;
+
+   // variables are created in one call per family, names are only given when needed to read or write MIP starts,
+   // placement variables removed by the presolve are left null
+   public VariablesLP(Parameters pm, GRBModel model, Scenario sc, boolean names) {
+      this(pm, model, sc, names, true);
+   }
+
+   public VariablesLP(Parameters pm, GRBModel model, Scenario sc, boolean names, boolean usePresolve) {
+      this.keys = new ModelKeys();
+      this.names = names;
+      this.presolve = usePresolve ? new Presolve(pm, sc) : Presolve.disabled(pm);
       try {
 
-         zSP_init(pm, model, initialSolution);
-         zSPD_init(pm, model, initialSolution);
-         fX_init(pm, model, initialSolution);
-         fXSV_init(pm, model, initialSolution);
-         fXSVD_init(pm, model, initialSolution);
-         uL_init(pm, model, initialSolution);
-         uX_init(pm, model, initialSolution);
+         zSP_init(pm, model);
+         zSPD_init(pm, model);
+         if (presolve.hasPrunedPaths())
+            fixPrunedPaths(pm, model);
+         fX_init(pm, model);
+         fXSV_init(pm, model);
+         fXSVD_init(pm, model);
+         uL_init(pm, model);
+         uX_init(pm, model);
 
          /************ additional variables **********/
          // model dimension number of servers
          if (sc.getObjFunc().equals(DIMEN_NUM_SERVERS))
-            xN_init(pm, model, initialSolution);
+            xN_init(pm, model);
          // model dimension link capacity
          if (sc.getObjFunc().equals(DIMEN_LINK_CAP))
-            cLT_init(pm, model, initialSolution);
+            cLT_init(pm, model);
          // model dimension server capacity
          if (sc.getObjFunc().equals(DIMEN_SERVER_CAP) || sc.getObjFunc().equals(DIMEN_SERVER_COSTS))
-            cXT_init(pm, model, initialSolution);
+            cXT_init(pm, model);
          // model optimizes utilization costs
          if (sc.getObjFunc().equals(NUM_SERVERS_AND_UTIL_COSTS) || sc.getObjFunc().equals(UTIL_COSTS)
                || sc.getObjFunc().equals(UTIL_COSTS_AND_MAX_UTIL)) {
-            kL_init(pm, model, initialSolution);
-            kX_init(pm, model, initialSolution);
+            kL_init(pm, model);
+            kX_init(pm, model);
          }
          // model optimizes max utilization
          if (sc.getObjFunc().equals(UTIL_COSTS_AND_MAX_UTIL))
-            uMax_init(pm, model, initialSolution);
+            uMax_init(pm, model);
          // model optimizes opex costs
          if (sc.getObjFunc().equals(OPEX_SERVERS)) {
-            oX_init(pm, model, initialSolution);
-            dSVXD_init(pm, model, initialSolution);
+            oX_init(pm, model);
+            dSVXD_init(pm, model);
          }
          // model optimizes charges
          if (sc.getObjFunc().equals(FUNCTIONS_CHARGES)) {
-            oSV_init(pm, model, initialSolution);
-            dSVXD_init(pm, model, initialSolution);
+            oSV_init(pm, model);
+            dSVXD_init(pm, model);
          }
          // model optimizes qos penalties
          if (sc.getObjFunc().equals(QOS_PENALTIES)) {
-            qSDP_init(pm, model, initialSolution);
-            ySDP_init(pm, model, initialSolution);
-            dSVXD_init(pm, model, initialSolution);
+            qSDP_init(pm, model);
+            ySDP_init(pm, model);
+            dSVXD_init(pm, model);
          }
          // model optimizes all monetary costs
          if (sc.getObjFunc().equals(ALL_MONETARY_COSTS)) {
-            oX_init(pm, model, initialSolution);
-            oSV_init(pm, model, initialSolution);
-            qSDP_init(pm, model, initialSolution);
-            ySDP_init(pm, model, initialSolution);
-            dSVXD_init(pm, model, initialSolution);
+            oX_init(pm, model);
+            oSV_init(pm, model);
+            qSDP_init(pm, model);
+            ySDP_init(pm, model);
+            dSVXD_init(pm, model);
          }
          // model optimizes migrations or replications
          if (sc.getObjFunc().equals(MGR) || sc.getObjFunc().equals(REP) || sc.getObjFunc().equals(MGR_REP)) {
-            // qSDP_init(pm, model, initialSolution);
-            // ySDP_init(pm, model, initialSolution);
-            // dSVXD_init(pm, model, initialSolution);
+            // qSDP_init(pm, model);
+            // ySDP_init(pm, model);
+            // dSVXD_init(pm, model);
          }
          // model considers synchronization traffic
          if (sc.getConstraints().get(SYNC_TRAFFIC)) {
-            gSVXY_init(pm, model, initialSolution);
-            hSVP_init(pm, model, initialSolution);
+            gSVXY_init(pm, model);
+            hSVP_init(pm, model);
          }
          // model constrainst max service delay
          if (sc.getConstraints().get(MAX_SERV_DELAY))
-            dSVXD_init(pm, model, initialSolution);
+            dSVXD_init(pm, model);
 
          model.update();
       } catch (Exception ignored) {
       }
    }
 
-   private void zSP_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
+   // creates the variables of the keys added since the last call
+   private GRBVar[] addVars(GRBModel model, double lb, double ub, char type) throws GRBException {
+      int count = keys.size() - created;
+      double[] lbs = new double[count];
+      double[] ubs = new double[count];
+      char[] types = new char[count];
+      Arrays.fill(lbs, lb);
+      Arrays.fill(ubs, ub);
+      Arrays.fill(types, type);
+      String[] varNames = null;
+      if (names)
+         varNames = keys.getNames(created, keys.size());
+      created = keys.size();
+      return model.addVars(lbs, ubs, null, types, varNames);
+   }
+
+   private void zSP_init(Parameters pm, GRBModel model) throws GRBException {
       zSP = new GRBVar[pm.getServices().size()][pm.getPathsTrafficFlow()];
       for (int s = 0; s < pm.getServices().size(); s++)
-         for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++) {
-            String varName = Definitions.zSP + "[" + s + "][" + p + "]";
-            if (initialSolution != null)
-               zSP[s][p] = initialSolution.getVarByName(varName);
-            else
-               zSP[s][p] = model.addVar(0.0, 1.0, 0.0, GRB.BINARY, varName);
-         }
+         for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+            keys.add(Definitions.zSP, s, p);
+      GRBVar[] added = addVars(model, 0.0, 1.0, GRB.BINARY);
+      int i = 0;
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+            zSP[s][p] = added[i++];
    }
 
-   private void zSPD_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
+   private void zSPD_init(Parameters pm, GRBModel model) throws GRBException {
       zSPD = new GRBVar[pm.getServices().size()][pm.getPathsTrafficFlow()][pm.getDemandsTrafficFlow()];
       for (int s = 0; s < pm.getServices().size(); s++)
          for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
-            for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++) {
-               String varName = Definitions.zSPD + "[" + s + "][" + p + "][" + d + "]";
-               if (initialSolution != null)
-                  zSPD[s][p][d] = initialSolution.getVarByName(varName);
-               else
-                  zSPD[s][p][d] = model.addVar(0.0, 1.0, 0.0, GRB.BINARY, varName);
-            }
+            for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+               keys.add(Definitions.zSPD, s, p, d);
+      GRBVar[] added = addVars(model, 0.0, 1.0, GRB.BINARY);
+      int i = 0;
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+            for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+               zSPD[s][p][d] = added[i++];
    }
 
-   private void fX_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
-      fX = new GRBVar[pm.getServers().size()];
-      for (int x = 0; x < pm.getServers().size(); x++) {
-         String varName = Definitions.fX + "[" + x + "]";
-         if (initialSolution != null)
-            fX[x] = initialSolution.getVarByName(varName);
-         else
-            fX[x] = model.addVar(0.0, 1.0, 0.0, GRB.BINARY, varName);
-      }
+   private void fX_init(Parameters pm, GRBModel model) throws GRBException {
+      for (int x = 0; x < pm.getServers().size(); x++)
+         keys.add(Definitions.fX, x);
+      fX = addVars(model, 0.0, 1.0, GRB.BINARY);
    }
 
-   private void fXSV_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
+   private void fXSV_init(Parameters pm, GRBModel model) throws GRBException {
       fXSV = new GRBVar[pm.getServers().size()][pm.getServices().size()][pm.getServiceLength()];
       for (int x = 0; x < pm.getServers().size(); x++)
          for (int s = 0; s < pm.getServices().size(); s++)
-            for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
-               String varName = Definitions.fXSV + "[" + x + "][" + s + "][" + v + "]";
-               if (initialSolution != null)
-                  fXSV[x][s][v] = initialSolution.getVarByName(varName);
-               else
-                  fXSV[x][s][v] = model.addVar(0.0, 1.0, 0.0, GRB.BINARY, varName);
-            }
+            for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+               keys.add(Definitions.fXSV, x, s, v);
+      GRBVar[] added = addVars(model, 0.0, 1.0, GRB.BINARY);
+      int i = 0;
+      for (int x = 0; x < pm.getServers().size(); x++)
+         for (int s = 0; s < pm.getServices().size(); s++)
+            for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+               fXSV[x][s][v] = added[i++];
    }
 
-   private void fXSVD_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
+   private void fXSVD_init(Parameters pm, GRBModel model) throws GRBException {
       fXSVD = new GRBVar[pm.getServers().size()][pm.getServices().size()][pm.getServiceLength()][pm
             .getDemandsTrafficFlow()];
       for (int x = 0; x < pm.getServers().size(); x++)
          for (int s = 0; s < pm.getServices().size(); s++)
             for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
-               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++) {
-                  String varName = Definitions.fXSVD + "[" + x + "][" + s + "][" + v + "][" + d + "]";
-                  if (initialSolution != null)
-                     fXSVD[x][s][v][d] = initialSolution.getVarByName(varName);
-                  else
-                     fXSVD[x][s][v][d] = model.addVar(0.0, 1.0, 0.0, GRB.BINARY, varName);
-               }
+               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+                  if (presolve.canHost(x, s, v, d))
+                     keys.add(Definitions.fXSVD, x, s, v, d);
+      GRBVar[] added = addVars(model, 0.0, 1.0, GRB.BINARY);
+      int i = 0;
+      for (int x = 0; x < pm.getServers().size(); x++)
+         for (int s = 0; s < pm.getServices().size(); s++)
+            for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+                  if (presolve.canHost(x, s, v, d))
+                     fXSVD[x][s][v][d] = added[i++];
    }
 
-   private void uL_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
-      uL = new GRBVar[pm.getLinks().size()];
-      for (int l = 0; l < pm.getLinks().size(); l++) {
-         String varName = Definitions.uL + "[" + l + "]";
-         if (initialSolution != null)
-            uL[l] = initialSolution.getVarByName(varName);
-         else
-            uL[l] = model.addVar(0.0, 1.0, 0.0, GRB.CONTINUOUS, varName);
-      }
+   // routing variables of the paths discarded by the presolve are fixed to zero
+   private void fixPrunedPaths(Parameters pm, GRBModel model) throws GRBException {
+      List<GRBVar> pruned = new ArrayList<>();
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+            if (!presolve.isPathAdmissible(s, p)) {
+               pruned.add(zSP[s][p]);
+               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+                  pruned.add(zSPD[s][p][d]);
+            }
+      model.set(GRB.DoubleAttr.UB, pruned.toArray(new GRBVar[0]), new double[pruned.size()]);
    }
 
-   private void uX_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
-      uX = new GRBVar[pm.getServers().size()];
-      for (int x = 0; x < pm.getServers().size(); x++) {
-         String varName = Definitions.uX + "[" + x + "]";
-         if (initialSolution != null)
-            uX[x] = initialSolution.getVarByName(varName);
-         else
-            uX[x] = model.addVar(0.0, 1.0, 0.0, GRB.CONTINUOUS, varName);
-      }
+   private void uL_init(Parameters pm, GRBModel model) throws GRBException {
+      for (int l = 0; l < pm.getLinks().size(); l++)
+         keys.add(Definitions.uL, l);
+      uL = addVars(model, 0.0, 1.0, GRB.CONTINUOUS);
    }
 
-   private void xN_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
-      xN = new GRBVar[pm.getNodes().size()];
-      for (int n = 0; n < pm.getNodes().size(); n++) {
-         String varName = Definitions.xN + "[" + n + "]";
-         if (initialSolution != null)
-            xN[n] = initialSolution.getVarByName(varName);
-         else
-            xN[n] = model.addVar(0.0, GRB.INFINITY, 0.0, GRB.INTEGER, varName);
-      }
+   private void uX_init(Parameters pm, GRBModel model) throws GRBException {
+      for (int x = 0; x < pm.getServers().size(); x++)
+         keys.add(Definitions.uX, x);
+      uX = addVars(model, 0.0, 1.0, GRB.CONTINUOUS);
+   }
+
+   private void xN_init(Parameters pm, GRBModel model) throws GRBException {
+      for (int n = 0; n < pm.getNodes().size(); n++)
+         keys.add(Definitions.xN, n);
+      xN = addVars(model, 0.0, GRB.INFINITY, GRB.INTEGER);
    }
 
-   private void cLT_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
+   private void cLT_init(Parameters pm, GRBModel model) throws GRBException {
       ArrayList<Integer> types = (ArrayList<Integer>) pm.getGlobal().get(LINK_CAPACITY_TYPES);
       cLT = new GRBVar[pm.getLinks().size()][types.size()];
       for (int l = 0; l < pm.getLinks().size(); l++)
-         for (int t = 0; t < types.size(); t++) {
-            String varName = Definitions.cLT + "[" + l + "][" + t + "]";
-            cLT[l][t] = model.addVar(0.0, 1.0, 0.0, GRB.BINARY, varName);
-         }
+         for (int t = 0; t < types.size(); t++)
+            keys.add(Definitions.cLT, l, t);
+      GRBVar[] added = addVars(model, 0.0, 1.0, GRB.BINARY);
+      int i = 0;
+      for (int l = 0; l < pm.getLinks().size(); l++)
+         for (int t = 0; t < types.size(); t++)
+            cLT[l][t] = added[i++];
    }
 
-   private void cXT_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
+   private void cXT_init(Parameters pm, GRBModel model) throws GRBException {
       ArrayList<Integer> types = (ArrayList<Integer>) pm.getGlobal().get(SERVER_CAPACITY_TYPES);
       cXT = new GRBVar[pm.getServers().size()][types.size()];
       for (int x = 0; x < pm.getServers().size(); x++)
-         for (int t = 0; t < types.size(); t++) {
-            String varName = Definitions.cXT + "[" + x + "][" + t + "]";
-            cXT[x][t] = model.addVar(0.0, 1.0, 0.0, GRB.BINARY, varName);
-         }
+         for (int t = 0; t < types.size(); t++)
+            keys.add(Definitions.cXT, x, t);
+      GRBVar[] added = addVars(model, 0.0, 1.0, GRB.BINARY);
+      int i = 0;
+      for (int x = 0; x < pm.getServers().size(); x++)
+         for (int t = 0; t < types.size(); t++)
+            cXT[x][t] = added[i++];
    }
 
-   private void kL_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
-      kL = new GRBVar[pm.getLinks().size()];
-      for (int l = 0; l < pm.getLinks().size(); l++) {
-         String varName = Definitions.kL + "[" + l + "]";
-         if (initialSolution != null)
-            kL[l] = initialSolution.getVarByName(varName);
-         else
-            kL[l] = model.addVar(0.0, GRB.INFINITY, 0.0, GRB.CONTINUOUS, varName);
-      }
+   private void kL_init(Parameters pm, GRBModel model) throws GRBException {
+      for (int l = 0; l < pm.getLinks().size(); l++)
+         keys.add(Definitions.kL, l);
+      kL = addVars(model, 0.0, GRB.INFINITY, GRB.CONTINUOUS);
    }
 
-   private void kX_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
-      kX = new GRBVar[pm.getServers().size()];
-      for (int x = 0; x < pm.getServers().size(); x++) {
-         String varName = Definitions.kX + "[" + x + "]";
-         if (initialSolution != null)
-            kX[x] = initialSolution.getVarByName(varName);
-         else
-            kX[x] = model.addVar(0.0, GRB.INFINITY, 0.0, GRB.CONTINUOUS, varName);
-      }
+   private void kX_init(Parameters pm, GRBModel model) throws GRBException {
+      for (int x = 0; x < pm.getServers().size(); x++)
+         keys.add(Definitions.kX, x);
+      kX = addVars(model, 0.0, GRB.INFINITY, GRB.CONTINUOUS);
    }
 
-   private void uMax_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
-      String varName = Definitions.uMax;
-      if (initialSolution != null)
-         uMax = initialSolution.getVarByName(varName);
-      else
-         uMax = model.addVar(0.0, 1.0, 0.0, GRB.CONTINUOUS, varName);
+   private void uMax_init(Parameters pm, GRBModel model) throws GRBException {
+      keys.add(Definitions.uMax);
+      uMax = addVars(model, 0.0, 1.0, GRB.CONTINUOUS)[0];
    }
 
-   private void oX_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
-      oX = new GRBVar[pm.getServers().size()];
-      for (int x = 0; x < pm.getServers().size(); x++) {
-         String varName = Definitions.oX + "[" + x + "]";
-         if (initialSolution != null)
-            oX[x] = initialSolution.getVarByName(varName);
-         else
-            oX[x] = model.addVar(0, GRB.INFINITY, 0.0, GRB.CONTINUOUS, varName);
-      }
+   private void oX_init(Parameters pm, GRBModel model) throws GRBException {
+      for (int x = 0; x < pm.getServers().size(); x++)
+         keys.add(Definitions.oX, x);
+      oX = addVars(model, 0.0, GRB.INFINITY, GRB.CONTINUOUS);
    }
 
-   private void oSV_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
+   private void oSV_init(Parameters pm, GRBModel model) throws GRBException {
       oSV = new GRBVar[pm.getServices().size()][pm.getServiceLength()];
       for (int s = 0; s < pm.getServices().size(); s++)
-         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
-            String varName = Definitions.oSV + "[" + s + "][" + v + "]";
-            if (initialSolution != null)
-               oSV[s][v] = initialSolution.getVarByName(varName);
-            else
-               oSV[s][v] = model.addVar(0.0, GRB.INFINITY, 0.0, GRB.CONTINUOUS, varName);
-         }
+         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+            keys.add(Definitions.oSV, s, v);
+      GRBVar[] added = addVars(model, 0.0, GRB.INFINITY, GRB.CONTINUOUS);
+      int i = 0;
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+            oSV[s][v] = added[i++];
    }
 
-   private void qSDP_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
+   private void qSDP_init(Parameters pm, GRBModel model) throws GRBException {
       qSDP = new GRBVar[pm.getServices().size()][pm.getDemandsTrafficFlow()][pm.getPathsTrafficFlow()];
       for (int s = 0; s < pm.getServices().size(); s++)
          for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
-            for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++) {
-               String varName = Definitions.qSDP + "[" + s + "][" + d + "][" + p + "]";
-               if (initialSolution != null)
-                  qSDP[s][d][p] = initialSolution.getVarByName(varName);
-               else
-                  qSDP[s][d][p] = model.addVar(0.0, GRB.INFINITY, 0.0, GRB.CONTINUOUS, varName);
-            }
+            for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+               keys.add(Definitions.qSDP, s, d, p);
+      GRBVar[] added = addVars(model, 0.0, GRB.INFINITY, GRB.CONTINUOUS);
+      int i = 0;
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+            for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+               qSDP[s][d][p] = added[i++];
    }
 
-   private void ySDP_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
+   private void ySDP_init(Parameters pm, GRBModel model) throws GRBException {
       ySDP = new GRBVar[pm.getServices().size()][pm.getDemandsTrafficFlow()][pm.getPathsTrafficFlow()];
       for (int s = 0; s < pm.getServices().size(); s++)
          for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
-            for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++) {
-               String varName = Definitions.ySDP + "[" + s + "][" + d + "][" + p + "]";
-               if (initialSolution != null)
-                  ySDP[s][d][p] = initialSolution.getVarByName(varName);
-               else
-                  ySDP[s][d][p] = model.addVar(0.0, GRB.INFINITY, 0.0, GRB.CONTINUOUS, varName);
-            }
+            for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+               keys.add(Definitions.ySDP, s, d, p);
+      GRBVar[] added = addVars(model, 0.0, GRB.INFINITY, GRB.CONTINUOUS);
+      int i = 0;
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+            for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+               ySDP[s][d][p] = added[i++];
    }
 
-   private void gSVXY_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
+   private void gSVXY_init(Parameters pm, GRBModel model) throws GRBException {
       gSVXY = new GRBVar[pm.getServices().size()][pm.getServiceLength()][pm.getServers().size()][pm.getServers()
             .size()];
       for (int s = 0; s < pm.getServices().size(); s++)
          for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
             for (int x = 0; x < pm.getServers().size(); x++)
                for (int y = 0; y < pm.getServers().size(); y++)
-                  if (!pm.getServers().get(x).getParent().equals(pm.getServers().get(y).getParent())) {
-                     String varName = Definitions.gSVXY + "[" + s + "][" + v + "][" + x + "][" + y + "]";
-                     if (initialSolution != null)
-                        gSVXY[s][v][x][y] = initialSolution.getVarByName(varName);
-                     else
-                        gSVXY[s][v][x][y] = model.addVar(0.0, 1.0, 0.0, GRB.BINARY, varName);
-                  }
+                  if (!pm.getServers().get(x).getParent().equals(pm.getServers().get(y).getParent()))
+                     keys.add(Definitions.gSVXY, s, v, x, y);
+      GRBVar[] added = addVars(model, 0.0, 1.0, GRB.BINARY);
+      int i = 0;
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+            for (int x = 0; x < pm.getServers().size(); x++)
+               for (int y = 0; y < pm.getServers().size(); y++)
+                  if (!pm.getServers().get(x).getParent().equals(pm.getServers().get(y).getParent()))
+                     gSVXY[s][v][x][y] = added[i++];
    }
 
-   private void hSVP_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
+   private void hSVP_init(Parameters pm, GRBModel model) throws GRBException {
       hSVP = new GRBVar[pm.getServices().size()][pm.getServiceLength()][pm.getPaths().size()];
       for (int s = 0; s < pm.getServices().size(); s++)
          for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
-            for (int p = 0; p < pm.getPaths().size(); p++) {
-               String varName = Definitions.hSVP + "[" + s + "][" + v + "][" + p + "]";
-               if (initialSolution != null)
-                  hSVP[s][v][p] = initialSolution.getVarByName(varName);
-               else
-                  hSVP[s][v][p] = model.addVar(0.0, 1.0, 0.0, GRB.BINARY, varName);
-            }
+            for (int p = 0; p < pm.getPaths().size(); p++)
+               keys.add(Definitions.hSVP, s, v, p);
+      GRBVar[] added = addVars(model, 0.0, 1.0, GRB.BINARY);
+      int i = 0;
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+            for (int p = 0; p < pm.getPaths().size(); p++)
+               hSVP[s][v][p] = added[i++];
    }
 
-   private void dSVXD_init(Parameters pm, GRBModel model, GRBModel initialSolution) throws GRBException {
+   private void dSVXD_init(Parameters pm, GRBModel model) throws GRBException {
       dSVXD = new GRBVar[pm.getServices().size()][pm.getServiceLength()][pm.getServers().size()][pm
             .getDemandsTrafficFlow()];
       for (int s = 0; s < pm.getServices().size(); s++)
          for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
             for (int x = 0; x < pm.getServers().size(); x++)
-               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++) {
-                  String varName = Definitions.dSVXD + "[" + s + "][" + v + "][" + x + "][" + d + "]";
-                  if (initialSolution != null)
-                     dSVXD[s][v][x][d] = initialSolution.getVarByName(varName);
-                  else
-                     dSVXD[s][v][x][d] = model.addVar(0.0, GRB.INFINITY, 0.0, GRB.CONTINUOUS, varName);
-               }
+               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+                  keys.add(Definitions.dSVXD, s, v, x, d);
+      GRBVar[] added = addVars(model, 0.0, GRB.INFINITY, GRB.CONTINUOUS);
+      int i = 0;
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+            for (int x = 0; x < pm.getServers().size(); x++)
+               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+                  dSVXD[s][v][x][d] = added[i++];
+   }
+
+   // keys of the variables in the order they were added to the model
+   public ModelKeys getKeys() {
+      return keys;
+   }
+
+   public Presolve getPresolve() {
+      return presolve;
    }
 }
@@ -8,6 +8,7 @@ import static optimizer.Definitions.SERVICE_DOWNTIME;
 import static optimizer.Definitions.WARNING;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 
 import org.decimal4j.util.DoubleRounder;
@@ -127,8 +128,8 @@ public class Auxiliary {
    public static double getMaxProcessingDelay(List<Function> functions) {
       double maxProcessingDelay = 0;
       for (Function f : functions)
-         if ((double) f.getAttribute(FUNCTION_MAX_DELAY) > maxProcessingDelay)
-            maxProcessingDelay = (double) f.getAttribute(FUNCTION_MAX_DELAY);
+         if (f.getProfile().getMaxDelay() > maxProcessingDelay)
+            maxProcessingDelay = f.getProfile().getMaxDelay();
       return maxProcessingDelay;
    }
 
@@ -232,6 +233,17 @@ public class Auxiliary {
       return convertedVar;
    }
 
+   public static int[][][] grbVarsToXSVD(Parameters pm, GRBVar[][][][] fXSVD) throws GRBException {
+      int[][][] xSVDvar = newXSVDvars(pm);
+      for (int x = 0; x < pm.getServers().size(); x++)
+         for (int s = 0; s < pm.getServices().size(); s++)
+            for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+                  if (fXSVD[x][s][v][d] != null && roundDouble(fXSVD[x][s][v][d].get(GRB.DoubleAttr.X), 1) == 1.0)
+                     xSVDvar[s][v][d] = x;
+      return xSVDvar;
+   }
+
    public static boolean[][] zSPvarsFromInitialModel(Parameters pm, GRBModel initialModel) {
       boolean[][] zSPvar = new boolean[pm.getServices().size()][pm.getPathsTrafficFlow()];
       if (initialModel != null)
@@ -279,22 +291,23 @@ public class Auxiliary {
       return fXSVvar;
    }
 
-   public static boolean[][][][] fXSVDvarsFromInitialModel(Parameters pm, GRBModel initialModel) {
-      boolean[][][][] fXSVDvar = new boolean[pm.getServers().size()][pm.getServices().size()][pm.getServiceLength()][pm
-            .getDemandsTrafficFlow()];
+   public static int[][][] xSVDvarsFromInitialModel(Parameters pm, GRBModel initialModel) {
+      int[][][] xSVDvar = newXSVDvars(pm);
       if (initialModel != null)
          try {
             for (int x = 0; x < pm.getServers().size(); x++)
                for (int s = 0; s < pm.getServices().size(); s++)
                   for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
-                     for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
-                        if (initialModel.getVarByName(fXSVD + "[" + x + "][" + s + "][" + v + "][" + d + "]")
-                              .get(GRB.DoubleAttr.X) == 1.0)
-                           fXSVDvar[x][s][v][d] = true;
+                     for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++) {
+                        // placement variables removed by the presolve are not in the model
+                        GRBVar var = initialModel.getVarByName(fXSVD + "[" + x + "][" + s + "][" + v + "][" + d + "]");
+                        if (var != null && var.get(GRB.DoubleAttr.X) == 1.0)
+                           xSVDvar[s][v][d] = x;
+                     }
          } catch (GRBException e) {
             e.printStackTrace();
          }
-      return fXSVDvar;
+      return xSVDvar;
    }
 
    public static boolean[][] zSPvarsFromInitialModel(Parameters pm, VariablesAlg initialPlacementVars) {
@@ -330,17 +343,25 @@ public class Auxiliary {
       return fXSVvar;
    }
 
-   public static boolean[][][][] fXSVDvarsFromInitialModel(Parameters pm, VariablesAlg initialPlacementVars) {
-      boolean[][][][] fXSVDvar = new boolean[pm.getServers().size()][pm.getServices().size()][pm.getServiceLength()][pm
-            .getDemandsTrafficFlow()];
+   public static int[][][] xSVDvarsFromInitialModel(Parameters pm, VariablesAlg initialPlacementVars) {
+      int[][][] xSVDvar = newXSVDvars(pm);
       if (initialPlacementVars != null)
-         for (int x = 0; x < pm.getServers().size(); x++)
-            for (int s = 0; s < pm.getServices().size(); s++)
-               for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
-                  for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
-                     if (initialPlacementVars.fXSVD[x][s][v][d])
-                        fXSVDvar[x][s][v][d] = true;
-      return fXSVDvar;
+         for (int s = 0; s < pm.getServices().size(); s++)
+            for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+                  xSVDvar[s][v][d] = initialPlacementVars.xSVD[s][v][d];
+      return xSVDvar;
+   }
+
+   public static int[][][] newXSVDvars(Parameters pm) {
+      int[][][] xSVDvar = new int[pm.getServices().size()][][];
+      for (int s = 0; s < pm.getServices().size(); s++) {
+         Service service = pm.getServices().get(s);
+         xSVDvar[s] = new int[service.getFunctions().size()][service.getTrafficFlow().getDemands().size()];
+         for (int v = 0; v < service.getFunctions().size(); v++)
+            Arrays.fill(xSVDvar[s][v], -1);
+      }
+      return xSVDvar;
    }
 
    public static void removeCapacityOfCloudServers(Parameters pm) {
@@ -54,6 +54,10 @@ public class Results {
    private double avgPathLength;
    @JsonProperty("total_traffic")
    private double totalTraffic;
+   @JsonProperty("carried_traffic")
+   private double carriedTraffic;
+   @JsonProperty("blocking_probability")
+   private double blockingProbability;
    @JsonProperty("traffic_on_links")
    private double trafficLinks;
    @JsonProperty("synchronization_traffic")
@@ -122,6 +126,8 @@ public class Results {
       totalNumFunctions = countFunctions();
       numFunctionsCloud = countFunctionsInCloudServers();
       totalTraffic = calculateTotalTraffic();
+      carriedTraffic = calculateCarriedTraffic();
+      blockingProbability = Auxiliary.roundDouble(calculateBlockingProbability(), 6);
       trafficLinks = Auxiliary.roundDouble(trafficOnLinks(), 2);
       avgPathLength = Auxiliary.roundDouble(avgPathLength(), 2);
       this.objVal = Auxiliary.roundDouble(objVal, 6);
@@ -140,6 +146,7 @@ public class Results {
       fXSVD(); // binary, placement per demand
       uX(); // link utilization
       uL(); // server utilization
+      bSD(); // blocked demands
 
       // model specific variables
       if (sc.getObjFunc().equals(DIMEN_NUM_SERVERS))
@@ -202,7 +209,7 @@ public class Results {
                   if (var[x][s][v])
                      replicasTemp++;
                int functionType = pm.getServices().get(s).getFunctions().get(v).getType();
-               replicationsMap.put(functionType, replicationsMap.get(functionType) + replicasTemp);
+               replicationsMap.put(functionType, replicationsMap.get(functionType) + Math.max(replicasTemp, 0));
             }
       } catch (Exception e) {
          printLog(log, ERROR, "counting replications: " + e.getMessage());
@@ -251,6 +258,51 @@ public class Results {
       return totalTraffic;
    }
 
+   private int calculateCarriedTraffic() {
+      int carriedTraffic = 0;
+      try {
+         boolean[][][] var = (boolean[][][]) rawVariables.get(zSPD);
+         for (int s = 0; s < pm.getServices().size(); s++) {
+            TrafficFlow trafficFlow = pm.getServices().get(s).getTrafficFlow();
+            for (int d = 0; d < trafficFlow.getDemands().size(); d++)
+               if (trafficFlow.getAux().get(d) && isDemandRouted(var, s, d))
+                  carriedTraffic += trafficFlow.getDemands().get(d);
+         }
+      } catch (Exception e) {
+         printLog(log, ERROR, "calculating carried traffic: " + e.getMessage());
+      }
+      return carriedTraffic;
+   }
+
+   // ratio of offered demands that could not be routed
+   private double calculateBlockingProbability() {
+      int offeredDemands = 0, blockedDemands = 0;
+      try {
+         boolean[][][] var = (boolean[][][]) rawVariables.get(zSPD);
+         for (int s = 0; s < pm.getServices().size(); s++) {
+            TrafficFlow trafficFlow = pm.getServices().get(s).getTrafficFlow();
+            for (int d = 0; d < trafficFlow.getDemands().size(); d++)
+               if (trafficFlow.getAux().get(d)) {
+                  offeredDemands++;
+                  if (!isDemandRouted(var, s, d))
+                     blockedDemands++;
+               }
+         }
+      } catch (Exception e) {
+         printLog(log, ERROR, "calculating blocking probability: " + e.getMessage());
+      }
+      if (offeredDemands == 0)
+         return 0;
+      return (double) blockedDemands / offeredDemands;
+   }
+
+   private boolean isDemandRouted(boolean[][][] var, int s, int d) {
+      for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++)
+         if (var[s][p][d])
+            return true;
+      return false;
+   }
+
    public Map<Edge, Double> linkUtilizationMap() {
       Map<Edge, Double> linkMapResults = new HashMap<>();
       try {
@@ -279,9 +331,10 @@ public class Results {
    private List<Double> serviceDelayList(boolean[][][] initialPlacement) {
       List<Double> serviceDelayList = new ArrayList<>();
       boolean[][][] zSPDvar = (boolean[][][]) rawVariables.get(zSPD);
-      boolean[][][][] fXSVDvar = (boolean[][][][]) rawVariables.get(fXSVD);
+      Object fXSVDvar = rawVariables.get(fXSVD);
       boolean[][][] fXSVvar = (boolean[][][]) rawVariables.get(fXSV);
       double[] uXvar = (double[]) rawVariables.get(uX);
+      TopologyIndex ti = pm.getTopologyIndex();
       List<String> strings = new ArrayList<>();
       for (int s = 0; s < pm.getServices().size(); s++) {
          Service service = pm.getServices().get(s);
@@ -293,28 +346,24 @@ public class Results {
                      double serviceDelay = 0;
 
                      // add processing delay
-                     for (int n = 0; n < path.getNodePath().size(); n++)
-                        for (int x = 0; x < pm.getServers().size(); x++)
-                           if (pm.getServers().get(x).getParent().equals(path.getNodePath().get(n)))
-                              for (int v = 0; v < service.getFunctions().size(); v++) {
-                                 if (fXSVDvar[x][s][v][d]) {
-                                    Function function = service.getFunctions().get(v);
-                                    double ratio = (double) function.getAttribute(FUNCTION_LOAD_RATIO)
-                                          * (double) function.getAttribute(FUNCTION_PROCESS_TRAFFIC_DELAY)
-                                          / ((int) function.getAttribute(FUNCTION_MAX_DEM)
-                                                * (int) function.getAttribute(FUNCTION_MAX_BW)
-                                                * (double) function.getAttribute(FUNCTION_LOAD_RATIO));
-                                    double processingDelay = 0;
-                                    for (int d1 = 0; d1 < service.getTrafficFlow().getDemands().size(); d1++)
-                                       if (service.getTrafficFlow().getAux().get(d1))
-                                          if (fXSVDvar[x][s][v][d1])
-                                             processingDelay += ratio * service.getTrafficFlow().getDemands().get(d1);
-                                    processingDelay += (double) function.getAttribute(FUNCTION_MIN_PROCESS_DELAY);
-                                    processingDelay += (double) function.getAttribute(FUNCTION_PROCESS_DELAY)
-                                          * uXvar[x];
-                                    serviceDelay += processingDelay;
-                                 }
+                     for (int n : ti.getPathNodes(s, p))
+                        for (int i = ti.getNodeServersStart(n); i < ti.getNodeServersEnd(n); i++) {
+                           int x = ti.getNodeServer(i);
+                           for (int v = 0; v < service.getFunctions().size(); v++) {
+                              if (isDemandAllocated(fXSVDvar, x, s, v, d)) {
+                                 FunctionProfile profile = service.getFunctions().get(v).getProfile();
+                                 double ratio = profile.getProcessTrafficDelayRatio();
+                                 double processingDelay = 0;
+                                 for (int d1 = 0; d1 < service.getTrafficFlow().getDemands().size(); d1++)
+                                    if (service.getTrafficFlow().getAux().get(d1))
+                                       if (isDemandAllocated(fXSVDvar, x, s, v, d1))
+                                          processingDelay += ratio * service.getTrafficFlow().getDemands().get(d1);
+                                 processingDelay += profile.getMinProcessDelay();
+                                 processingDelay += profile.getProcessDelay() * uXvar[x];
+                                 serviceDelay += processingDelay;
                               }
+                           }
+                        }
 
                      // add propagation delay
                      for (Edge link : path.getEdgePath())
@@ -386,8 +435,8 @@ public class Results {
                      if (pm.getServices().get(s).getTrafficFlow().getAux().get(d))
                         traffic += pm.getServices().get(s).getTrafficFlow().getDemands().get(d);
                   for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++) {
-                     double trafficScaled = traffic * (double) pm.getServices().get(s).getFunctions().get(v)
-                           .getAttribute(FUNCTION_SYNC_LOAD_RATIO);
+                     double trafficScaled = traffic
+                           * pm.getServices().get(s).getFunctions().get(v).getProfile().getSyncLoadRatio();
                      if (var[s][v][p])
                         synchronizationTraffic += trafficScaled;
                   }
@@ -438,6 +487,19 @@ public class Results {
       }
    }
 
+   private void bSD() {
+      String[][] var = (String[][]) rawVariables.get(bSD);
+      if (var == null)
+         return;
+      List<String> strings = new ArrayList<>();
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+            if (var[s][d] != null)
+               strings.add("(" + (s + this.offset) + "," + (d + this.offset) + "): [" + pm.getServices().get(s).getId()
+                     + "][" + pm.getServices().get(s).getTrafficFlow().getDemands().get(d) + "][" + var[s][d] + "]");
+      variables.put(bSD, strings);
+   }
+
    private void fX() {
       try {
          boolean[] var = (boolean[]) rawVariables.get(fX);
@@ -470,25 +532,49 @@ public class Results {
 
    private void fXSVD() {
       try {
-         boolean[][][][] var = (boolean[][][][]) rawVariables.get(fXSVD);
+         Object var = rawVariables.get(fXSVD);
          List<String> strings = new ArrayList<>();
-         for (int x = 0; x < pm.getServers().size(); x++)
+         if (var instanceof int[][][]) {
+            // the server of each [s][v][d] is read once, the entries are grouped per server as in the tensor
+            int[][][] xSVD = (int[][][]) var;
+            List<List<String>> stringsX = new ArrayList<>();
+            for (int x = 0; x < pm.getServers().size(); x++)
+               stringsX.add(new ArrayList<>());
             for (int s = 0; s < pm.getServices().size(); s++)
                for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
                   for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
-                     if (pm.getServices().get(s).getTrafficFlow().getAux().get(d))
-                        if (var[x][s][v][d])
-                           strings.add("(" + (x + this.offset) + "," + (s + this.offset) + "," + (v + this.offset) + ","
-                                 + (d + this.offset) + "): [" + pm.getServers().get(x).getId() + "]["
-                                 + pm.getServices().get(s).getId() + "]["
-                                 + pm.getServices().get(s).getFunctions().get(v).getType() + "]["
-                                 + pm.getServices().get(s).getTrafficFlow().getDemands().get(d) + "]");
+                     if (pm.getServices().get(s).getTrafficFlow().getAux().get(d) && xSVD[s][v][d] >= 0)
+                        stringsX.get(xSVD[s][v][d]).add(fXSVDString(xSVD[s][v][d], s, v, d));
+            for (List<String> stringsServer : stringsX)
+               strings.addAll(stringsServer);
+         } else
+            for (int x = 0; x < pm.getServers().size(); x++)
+               for (int s = 0; s < pm.getServices().size(); s++)
+                  for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+                     for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+                        if (pm.getServices().get(s).getTrafficFlow().getAux().get(d))
+                           if (isDemandAllocated(var, x, s, v, d))
+                              strings.add(fXSVDString(x, s, v, d));
          variables.put(fXSVD, strings);
       } catch (Exception e) {
          printLog(log, ERROR, fXSVD + " var results: " + e.getMessage());
       }
    }
 
+   private String fXSVDString(int x, int s, int v, int d) {
+      return "(" + (x + this.offset) + "," + (s + this.offset) + "," + (v + this.offset) + "," + (d + this.offset)
+            + "): [" + pm.getServers().get(x).getId() + "][" + pm.getServices().get(s).getId() + "]["
+            + pm.getServices().get(s).getFunctions().get(v).getType() + "]["
+            + pm.getServices().get(s).getTrafficFlow().getDemands().get(d) + "]";
+   }
+
+   // heuristics store the server allocated per [s][v][d] instead of the binary [x][s][v][d] tensor
+   private boolean isDemandAllocated(Object fXSVDvar, int x, int s, int v, int d) {
+      if (fXSVDvar instanceof int[][][])
+         return ((int[][][]) fXSVDvar)[s][v][d] == x;
+      return ((boolean[][][][]) fXSVDvar)[x][s][v][d];
+   }
+
    private void uX() {
       try {
          double[] var = (double[]) rawVariables.get(uX);
@@ -627,10 +713,10 @@ public class Results {
             double maxServiceDelay = 0;
             maxServiceDelay += service.getMaxPropagationDelay();
             for (int v = 0; v < service.getFunctions().size(); v++)
-               maxServiceDelay += (double) service.getFunctions().get(v).getAttribute(FUNCTION_MAX_DELAY);
+               maxServiceDelay += service.getFunctions().get(v).getProfile().getMaxDelay();
 
             for (int v = 0; v < service.getFunctions().size(); v++)
-               profit += (double) service.getFunctions().get(v).getAttribute(FUNCTION_CHARGES);
+               profit += service.getFunctions().get(v).getProfile().getCharges();
             double qosPenalty = (double) pm.getGlobal().get(QOS_PENALTY_RATIO) * profit; // in $/h
 
             for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
@@ -820,6 +906,14 @@ public class Results {
       return totalTraffic;
    }
 
+   public double getCarriedTraffic() {
+      return carriedTraffic;
+   }
+
+   public double getBlockingProbability() {
+      return blockingProbability;
+   }
+
    public double getTrafficLinks() {
       return trafficLinks;
    }
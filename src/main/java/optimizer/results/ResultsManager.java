@@ -95,7 +95,8 @@ public class ResultsManager {
          if (isInitialPlacement)
             grbEnv.set(GRB.IntParam.LogToConsole, 0);
          model = new GRBModel(grbEnv);
-         new VariablesLP(pm, model, sce, null);
+         // only gives names to the variables of the solution file, all of them are kept
+         new VariablesLP(pm, model, sce, true, false);
          model.read(pathFile + ".mst");
          model.optimize();
          if (!isInitialPlacement)
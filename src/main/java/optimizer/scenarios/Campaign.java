@@ -0,0 +1,155 @@
+package optimizer.scenarios;
+
+import static optimizer.Definitions.*;
+import static optimizer.results.Auxiliary.printLog;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import optimizer.Manager;
+import optimizer.Parameters;
+import optimizer.results.ResultsManager;
+
+// runs the jobs of an experiment campaign concurrently, a job starts when its parent has finished and enough cores
+// are free, the status of every job is appended to a JSON-lines file as soon as it finishes
+public class Campaign {
+
+    private static final Logger log = LoggerFactory.getLogger(Campaign.class);
+
+    private final int cores;
+    private final int lpThreads;
+    private final Semaphore freeCores;
+    private final ExecutorService executor;
+    private final List<CompletableFuture<?>> jobs;
+    private final PrintWriter progress;
+    private final ObjectMapper mapper;
+    private final long startTime;
+    private volatile boolean stopped; // once a stop is requested no further job starts
+
+    public Campaign(Parameters pm, ResultsManager resultsManager) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (pm != null && pm.getGlobal(CAMPAIGN_CORES) != null)
+            cores = (int) pm.getGlobal(CAMPAIGN_CORES);
+        int lpThreads = Math.max(1, cores / 4);
+        if (pm != null && pm.getGlobal(LP_THREADS) != null)
+            lpThreads = (int) pm.getGlobal(LP_THREADS);
+        this.cores = cores;
+        this.lpThreads = Math.min(lpThreads, cores);
+        this.freeCores = new Semaphore(cores, true);
+        this.executor = Executors.newCachedThreadPool();
+        this.jobs = new ArrayList<>();
+        this.progress = resultsManager.getPrinterFromPlainTextFile("campaign", ".jsonl");
+        this.mapper = new ObjectMapper();
+        this.startTime = System.currentTimeMillis();
+        printLog(log, INFO, "campaign with [" + cores + "] cores, [" + this.lpThreads + "] threads per LP");
+    }
+
+    public int getCores() {
+        return cores;
+    }
+
+    public int getLpThreads() {
+        return lpThreads;
+    }
+
+    // a job is called with the number of cores reserved for it, which it uses as the size of its threads
+    public interface Job<T> {
+        T call(int threads) throws Exception;
+    }
+
+    // the job is skipped if the parent fails, the result of the parent can be read with join() inside the job
+    public <T> CompletableFuture<T> submit(String name, int threads, CompletableFuture<?> parent, Job<T> job) {
+        CompletableFuture<?> after = parent != null ? parent : CompletableFuture.completedFuture(null);
+        CompletableFuture<T> future = after.handleAsync((result, error) -> {
+            if (error != null) {
+                record(name, "skipped", 0);
+                throw new CompletionException(error);
+            }
+            return execute(name, Math.min(threads, cores), job);
+        }, executor);
+        synchronized (jobs) {
+            jobs.add(future);
+        }
+        return future;
+    }
+
+    private <T> T execute(String name, int threads, Job<T> job) {
+        if (isStopped())
+            throw stop(name);
+        freeCores.acquireUninterruptibly(threads);
+        // the stop may have been requested while waiting for free cores
+        if (isStopped()) {
+            freeCores.release(threads);
+            throw stop(name);
+        }
+        long jobStartTime = System.currentTimeMillis();
+        try {
+            T result = job.call(threads);
+            record(name, "done", System.currentTimeMillis() - jobStartTime);
+            return result;
+        } catch (Exception e) {
+            printLog(log, ERROR, "job " + name + " failed: " + e.getMessage());
+            record(name, "failed", System.currentTimeMillis() - jobStartTime);
+            throw new CompletionException(e);
+        } finally {
+            freeCores.release(threads);
+        }
+    }
+
+    private boolean isStopped() {
+        if (Manager.isInterrupted())
+            stopped = true;
+        return stopped;
+    }
+
+    private CompletionException stop(String name) {
+        record(name, BLOCKED_STOPPED, 0);
+        return new CompletionException(new InterruptedException("campaign stopped"));
+    }
+
+    private synchronized void record(String name, String status, long elapsedTime) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("job", name);
+        entry.put("status", status);
+        entry.put("computation_time", elapsedTime / 1000.0);
+        entry.put("campaign_time", (System.currentTimeMillis() - startTime) / 1000.0);
+        try {
+            progress.println(mapper.writeValueAsString(entry));
+            progress.flush();
+        } catch (JsonProcessingException e) {
+            printLog(log, ERROR, "writing campaign progress: " + e.getMessage());
+        }
+    }
+
+    // waits until all submitted jobs have finished, including jobs submitted meanwhile
+    public void await() {
+        int finished = 0;
+        while (true) {
+            CompletableFuture<?>[] pending;
+            synchronized (jobs) {
+                if (finished == jobs.size())
+                    break;
+                pending = jobs.subList(finished, jobs.size()).toArray(new CompletableFuture<?>[0]);
+                finished = jobs.size();
+            }
+            CompletableFuture.allOf(pending).exceptionally(error -> null).join();
+        }
+        executor.shutdown();
+        progress.close();
+        printLog(log, INFO, "campaign finished [" + jobs.size() + " jobs]");
+    }
+}
@@ -3,18 +3,26 @@ package optimizer.scenarios;
 import static optimizer.Definitions.*;
 
 import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import gurobi.GRB;
+import gurobi.GRBEnv;
 import gurobi.GRBException;
 import gurobi.GRBModel;
 import optimizer.Manager;
 import optimizer.Parameters;
+import optimizer.algorithms.IncumbentTracker;
 import optimizer.algorithms.LauncherAlg;
+import optimizer.algorithms.MultiStartRunner;
 import optimizer.algorithms.VariablesAlg;
 import optimizer.gui.Scenario;
 import optimizer.lp.LauncherLP;
+import optimizer.lp.ModelCache;
+import optimizer.lp.ModelLP;
 import optimizer.results.Auxiliary;
 import optimizer.results.ResultsManager;
 import static optimizer.results.Auxiliary.printLog;
@@ -25,24 +33,25 @@ public class Journal {
 
     private static Parameters pm;
 
-    public static String readParameters(String graphNameForm, boolean considerSubsetOfDemands,
+    // each run reads its own parameters so that runs can be executed concurrently
+    public static Parameters readParameters(String graphNameForm, boolean considerSubsetOfDemands,
             ArrayList<Integer> services, ArrayList<Integer> serviceLength, int serverCapacity) {
         String path = Auxiliary.getResourcesPath(graphNameForm + ".yml");
-        String graphName = Manager.readYamlFile(path, graphNameForm);
-        modifyYamlParameters(services, serviceLength, serverCapacity);
-        Manager.readTopologyFiles(path, graphName);
-        Manager.determineUsedDemands(pm, considerSubsetOfDemands);
-        return graphName;
+        Parameters parameters = Manager.loadYamlFile(path, graphNameForm);
+        modifyYamlParameters(parameters, services, serviceLength, serverCapacity);
+        Manager.loadTopologyFiles(parameters, path, graphNameForm.split("_")[0]);
+        Manager.determineUsedDemands(parameters, considerSubsetOfDemands);
+        return parameters;
     }
 
-    private static void modifyYamlParameters(ArrayList<Integer> services, ArrayList<Integer> serviceLength,
-            int serverCapacity) {
+    private static void modifyYamlParameters(Parameters parameters, ArrayList<Integer> services,
+            ArrayList<Integer> serviceLength, int serverCapacity) {
         if (services.get(0) > 0)
-            pm.getGlobal().put(SERVICES, services);
+            parameters.getGlobal().put(SERVICES, services);
         if (serviceLength.get(0) > 0)
-            pm.getGlobal().put(SERVICE_LENGTH, serviceLength);
+            parameters.getGlobal().put(SERVICE_LENGTH, serviceLength);
         if (serverCapacity > 0)
-            pm.getGlobal().put(SERVER_CAPACITY, serverCapacity);
+            parameters.getGlobal().put(SERVER_CAPACITY, serverCapacity);
     }
 
     public static void run(Parameters parameters, Scenario sce) {
@@ -58,12 +67,19 @@ public class Journal {
                             Auxiliary.getResourcesPath(graphNameShort + "_init-lp.mst") + graphNameShort + "_init-lp",
                             pm,
                             sce);
-                    GRBModel initSol = rm.loadModel(
-                            Auxiliary.getResourcesPath(pm.getGraphName() + "_" + GRD + "_" + sce.getObjFunc() + ".mst")
-                                    + pm.getGraphName() + "_" + GRD + "_" + sce.getObjFunc(),
-                            pm, sce, false);
+                    VariablesAlg initPlacementVars = null;
+                    if (initModel != null)
+                        initPlacementVars = new VariablesAlg(pm, initModel);
+                    // the greedy solution is passed to the LP as start values, it is seeded and not exported
+                    Scenario greedySce = new Scenario(sce);
+                    greedySce.setName(GRD);
+                    VariablesAlg initSol = LauncherAlg.optimize(pm, greedySce, initPlacementVars,
+                            new Random(pm.getSeed(0)), IncumbentTracker.unbounded(), null);
                     outputFileName = pm.getGraphName() + "_" + LP + "_" + sce.getObjFunc();
-                    LauncherLP.run(pm, sce, rm, initModel, initSol, outputFileName, true);
+                    boolean[][][] initPlacement = null;
+                    if (initModel != null)
+                        initPlacement = Auxiliary.fXSVvarsFromInitialModel(pm, initModel);
+                    LauncherLP.run(pm, sce, rm, initPlacement, initSol, outputFileName, true);
                     break;
 
                 case JOURNAL_ALL_SFC_LENGTH:
@@ -88,7 +104,8 @@ public class Journal {
         }
     }
 
-    private static void runCustomSFCLength(Scenario sce, String customString) throws GRBException {
+    private static void runCustomSFCLength(Scenario sce, String customString) {
+        Campaign campaign = new Campaign(pm, new ResultsManager(sce.getInputFileName() + "_campaign"));
         ArrayList<Integer> services = new ArrayList<>();
         ArrayList<Integer> serviceLength = new ArrayList<>();
         for (int s = 1; s <= 10; s++) {
@@ -97,13 +114,15 @@ public class Journal {
             serviceLength = new ArrayList<>();
             serviceLength.add(s);
             if (customString.equals(JOURNAL_ALL))
-                runJournalAll(sce, services, serviceLength, 0);
+                runJournalAll(campaign, sce, services, serviceLength, 0);
             if (customString.equals(JOURNAL_HEU))
-                runJournalHeu(sce, services, serviceLength, 0);
+                runJournalHeu(campaign, sce, services, serviceLength, 0);
         }
+        campaign.await();
     }
 
-    private static void runCustomServerCap(Scenario sce, String customString) throws GRBException {
+    private static void runCustomServerCap(Scenario sce, String customString) {
+        Campaign campaign = new Campaign(pm, new ResultsManager(sce.getInputFileName() + "_campaign"));
         ArrayList<Integer> services = new ArrayList<>();
         ArrayList<Integer> serviceLength = new ArrayList<>();
         for (int s = 1; s <= 10; s++) {
@@ -114,14 +133,15 @@ public class Journal {
         int[] serverCaps = new int[] { 250, 500, 750, 1000, 1250, 1500, 1750, 2000, 2250, 2500, 2750, 3000 };
         for (int s = 0; s < serverCaps.length; s++) {
             if (customString.equals(JOURNAL_ALL))
-                runJournalAll(sce, services, serviceLength, serverCaps[s]);
+                runJournalAll(campaign, sce, services, serviceLength, serverCaps[s]);
             if (customString.equals(JOURNAL_HEU))
-                runJournalHeu(sce, services, serviceLength, serverCaps[s]);
+                runJournalHeu(campaign, sce, services, serviceLength, serverCaps[s]);
         }
+        campaign.await();
     }
 
-    private static void runJournalAll(Scenario sce, ArrayList<Integer> services, ArrayList<Integer> service_lengths,
-            int serverCap) throws GRBException {
+    private static void runJournalAll(Campaign campaign, Scenario sce, ArrayList<Integer> services,
+            ArrayList<Integer> service_lengths, int serverCap) {
         String resultsFolderExtension = "";
         if (serverCap != 0)
             resultsFolderExtension = "_" + String.valueOf(serverCap);
@@ -131,70 +151,30 @@ public class Journal {
         boolean toMST = false;
 
         // 1 - obsv1 [LP]
-        GRBModel obsv1LP = runJournalLP(sce, MGR_REP_CLOUD, OBSV_1, NULL, rm, null, toMST, services, service_lengths,
-                serverCap);
-        VariablesAlg obsv1Alg = new VariablesAlg(pm, obsv1LP);
+        CompletableFuture<VariablesAlg> obsv1 = runJournalLP(campaign, sce, MGR_REP_CLOUD, OBSV_1, NULL, rm, null,
+                toMST, services, service_lengths, serverCap);
         // 2 - pred2 [LP]
-        GRBModel pred2LP = runJournalLP(sce, MGR_REP_CLOUD, PRED_2, NULL, rm, null, toMST, services, service_lengths,
-                serverCap);
-        VariablesAlg pred2Alg = new VariablesAlg(pm, pred2LP);
+        CompletableFuture<VariablesAlg> pred2 = runJournalLP(campaign, sce, MGR_REP_CLOUD, PRED_2, NULL, rm, null,
+                toMST, services, service_lengths, serverCap);
         // 3 - over2 [LP]
-        GRBModel over2LP = runJournalLP(sce, MGR_REP_CLOUD, OVER_2, NULL, rm, null, toMST, services, service_lengths,
-                serverCap);
-        VariablesAlg over2Alg = new VariablesAlg(pm, over2LP);
+        CompletableFuture<VariablesAlg> over2 = runJournalLP(campaign, sce, MGR_REP_CLOUD, OVER_2, NULL, rm, null,
+                toMST, services, service_lengths, serverCap);
 
         // 1 - obsv1 -- > obsv2 [LP]
-        runJournalLP(sce, MGR, OBSV_2, OBSV_1, rm, obsv1LP, toMST, services, service_lengths, serverCap);
-        runJournalLP(sce, REP, OBSV_2, OBSV_1, rm, obsv1LP, toMST, services, service_lengths, serverCap);
-        runJournalLP(sce, CLOUD, OBSV_2, OBSV_1, rm, obsv1LP, toMST, services, service_lengths, serverCap);
-        runJournalLP(sce, MGR_REP_CLOUD, OBSV_2, OBSV_1, rm, obsv1LP, toMST, services, service_lengths, serverCap);
-        // 2 - pred2 -- > obsv2 [LP]
-        runJournalLP(sce, MGR, OBSV_2, PRED_2, rm, pred2LP, toMST, services, service_lengths, serverCap);
-        runJournalLP(sce, REP, OBSV_2, PRED_2, rm, pred2LP, toMST, services, service_lengths, serverCap);
-        runJournalLP(sce, CLOUD, OBSV_2, PRED_2, rm, pred2LP, toMST, services, service_lengths, serverCap);
-        runJournalLP(sce, MGR_REP_CLOUD, OBSV_2, PRED_2, rm, pred2LP, toMST, services, service_lengths, serverCap);
-        // 3 - over2 -- > obsv2 [LP]
-        runJournalLP(sce, MGR, OBSV_2, OVER_2, rm, over2LP, toMST, services, service_lengths, serverCap);
-        runJournalLP(sce, REP, OBSV_2, OVER_2, rm, over2LP, toMST, services, service_lengths, serverCap);
-        runJournalLP(sce, CLOUD, OBSV_2, OVER_2, rm, over2LP, toMST, services, service_lengths, serverCap);
-        runJournalLP(sce, MGR_REP_CLOUD, OBSV_2, OVER_2, rm, over2LP, toMST, services, service_lengths, serverCap);
-
-        // 1 - obsv1 -- > obsv2 [FF]
-        runJournalHeu(sce, FF, MGR_REP_CLOUD, OBSV_2, OBSV_1, rm, obsv1Alg, toMST, services, service_lengths, serverCap);
-        // 2 - pred2 -- > obsv2 [FF]
-        runJournalHeu(sce, FF, MGR_REP_CLOUD, OBSV_2, PRED_2, rm, pred2Alg, toMST, services, service_lengths, serverCap);
-        // 3 - over2 -- > obsv2 [FF]
-        runJournalHeu(sce, FF, MGR_REP_CLOUD, OBSV_2, OVER_2, rm, over2Alg, toMST, services, service_lengths, serverCap);
-
-        // 1 - obsv1 -- > obsv2 [RF]
-        for (int i = 0; i < 10; i++)
-            runJournalHeu(sce, RF, MGR_REP_CLOUD, OBSV_2, OBSV_1 + "_" + i, rm, obsv1Alg, toMST, services,
-                    service_lengths,
-                    serverCap);
-        // 2 - pred2 -- > obsv2 [RF]
-        for (int i = 0; i < 10; i++)
-            runJournalHeu(sce, RF, MGR_REP_CLOUD, OBSV_2, PRED_2 + "_" + i, rm, pred2Alg, toMST, services,
-                    service_lengths,
-                    serverCap);
-        // 3 - over2 -- > obsv2 [RF]
-        for (int i = 0; i < 10; i++)
-            runJournalHeu(sce, RF, MGR_REP_CLOUD, OBSV_2, OVER_2 + "_" + i, rm, over2Alg, toMST, services,
-                    service_lengths,
-                    serverCap);
-
-        // 1 - obsv1 -- > obsv2 [GRD]
-        runJournalHeu(sce, GRD, MGR_REP_CLOUD, OBSV_2, OBSV_1, rm, obsv1Alg, toMST, services, service_lengths,
+        runJournalLPObjectives(campaign, sce, OBSV_2, OBSV_1, rm, obsv1, toMST, services, service_lengths,
                 serverCap);
-        // 2 - pred2 -- > obsv2 [GRD]
-        runJournalHeu(sce, GRD, MGR_REP_CLOUD, OBSV_2, PRED_2, rm, pred2Alg, toMST, services, service_lengths,
+        // 2 - pred2 -- > obsv2 [LP]
+        runJournalLPObjectives(campaign, sce, OBSV_2, PRED_2, rm, pred2, toMST, services, service_lengths,
                 serverCap);
-        // 3 - over2 -- > obsv2 [GRD]
-        runJournalHeu(sce, GRD, MGR_REP_CLOUD, OBSV_2, OVER_2, rm, over2Alg, toMST, services, service_lengths,
+        // 3 - over2 -- > obsv2 [LP]
+        runJournalLPObjectives(campaign, sce, OBSV_2, OVER_2, rm, over2, toMST, services, service_lengths,
                 serverCap);
+
+        runJournalHeuFromParents(campaign, sce, rm, obsv1, pred2, over2, toMST, services, service_lengths, serverCap);
     }
 
-    private static void runJournalHeu(Scenario sce, ArrayList<Integer> services, ArrayList<Integer> service_lengths,
-            int serverCap) {
+    private static void runJournalHeu(Campaign campaign, Scenario sce, ArrayList<Integer> services,
+            ArrayList<Integer> service_lengths, int serverCap) {
         String resultsFolderExtension = "";
         if (serverCap != 0)
             resultsFolderExtension = "_" + String.valueOf(serverCap);
@@ -204,68 +184,162 @@ public class Journal {
         boolean toMST = false;
 
         // 1 - obsv1 [GRD]
-        VariablesAlg obsv1GRD = runJournalHeu(sce, JOURNAL_GRD_FIRST, MGR_REP_CLOUD, OBSV_1, NULL, rm, null, toMST, services,
-                service_lengths, serverCap);
+        CompletableFuture<VariablesAlg> obsv1GRD = runJournalHeu(campaign, sce, JOURNAL_GRD_FIRST, MGR_REP_CLOUD,
+                OBSV_1, NULL, rm, null, toMST, services, service_lengths, serverCap);
         // 2 - pred2 [GRD]
-        VariablesAlg pred2GRD = runJournalHeu(sce, JOURNAL_GRD_FIRST, MGR_REP_CLOUD, PRED_2, NULL, rm, null, toMST, services,
-                service_lengths, serverCap);
+        CompletableFuture<VariablesAlg> pred2GRD = runJournalHeu(campaign, sce, JOURNAL_GRD_FIRST, MGR_REP_CLOUD,
+                PRED_2, NULL, rm, null, toMST, services, service_lengths, serverCap);
         // 3 - over2 [GRD]
-        VariablesAlg over2GRD = runJournalHeu(sce, JOURNAL_GRD_FIRST, MGR_REP_CLOUD, OVER_2, NULL, rm, null, toMST, services,
-                service_lengths, serverCap);
+        CompletableFuture<VariablesAlg> over2GRD = runJournalHeu(campaign, sce, JOURNAL_GRD_FIRST, MGR_REP_CLOUD,
+                OVER_2, NULL, rm, null, toMST, services, service_lengths, serverCap);
+
+        runJournalHeuFromParents(campaign, sce, rm, obsv1GRD, pred2GRD, over2GRD, toMST, services, service_lengths,
+                serverCap);
+    }
 
+    private static void runJournalHeuFromParents(Campaign campaign, Scenario sce, ResultsManager rm,
+            CompletableFuture<VariablesAlg> obsv1, CompletableFuture<VariablesAlg> pred2,
+            CompletableFuture<VariablesAlg> over2, boolean toMST, ArrayList<Integer> services,
+            ArrayList<Integer> service_lengths, int serverCap) {
         // 1 - obsv1 -- > obsv2 [FF]
-        runJournalHeu(sce, FF, MGR_REP_CLOUD, OBSV_2, OBSV_1, rm, obsv1GRD, toMST, services, service_lengths, serverCap);
+        runJournalHeu(campaign, sce, FF, MGR_REP_CLOUD, OBSV_2, OBSV_1, rm, obsv1, toMST, services, service_lengths,
+                serverCap);
         // 2 - pred2 -- > obsv2 [FF]
-        runJournalHeu(sce, FF, MGR_REP_CLOUD, OBSV_2, PRED_2, rm, pred2GRD, toMST, services, service_lengths, serverCap);
+        runJournalHeu(campaign, sce, FF, MGR_REP_CLOUD, OBSV_2, PRED_2, rm, pred2, toMST, services, service_lengths,
+                serverCap);
         // 3 - over2 -- > obsv2 [FF]
-        runJournalHeu(sce, FF, MGR_REP_CLOUD, OBSV_2, OVER_2, rm, over2GRD, toMST, services, service_lengths, serverCap);
+        runJournalHeu(campaign, sce, FF, MGR_REP_CLOUD, OBSV_2, OVER_2, rm, over2, toMST, services, service_lengths,
+                serverCap);
 
         // 1 - obsv1 -- > obsv2 [RF]
-        for (int i = 0; i < 10; i++)
-            runJournalHeu(sce, RF, MGR_REP_CLOUD, OBSV_2, OBSV_1 + "_" + i, rm, obsv1GRD, toMST, services,
-                    service_lengths,
-                    serverCap);
+        runJournalHeuMultiStart(campaign, sce, RF, MGR_REP_CLOUD, OBSV_2, OBSV_1, rm, obsv1, toMST, services,
+                service_lengths, serverCap);
         // 2 - pred2 -- > obsv2 [RF]
-        for (int i = 0; i < 10; i++)
-            runJournalHeu(sce, RF, MGR_REP_CLOUD, OBSV_2, PRED_2 + "_" + i, rm, pred2GRD, toMST, services,
-                    service_lengths,
-                    serverCap);
+        runJournalHeuMultiStart(campaign, sce, RF, MGR_REP_CLOUD, OBSV_2, PRED_2, rm, pred2, toMST, services,
+                service_lengths, serverCap);
         // 3 - over2 -- > obsv2 [RF]
-        for (int i = 0; i < 10; i++)
-            runJournalHeu(sce, RF, MGR_REP_CLOUD, OBSV_2, OVER_2 + "_" + i, rm, over2GRD, toMST, services,
-                    service_lengths,
-                    serverCap);
+        runJournalHeuMultiStart(campaign, sce, RF, MGR_REP_CLOUD, OBSV_2, OVER_2, rm, over2, toMST, services,
+                service_lengths, serverCap);
 
         // 1 - obsv1 -- > obsv2 [GRD]
-        runJournalHeu(sce, GRD, MGR_REP_CLOUD, OBSV_2, OBSV_1, rm, obsv1GRD, toMST, services, service_lengths,
+        runJournalHeu(campaign, sce, GRD, MGR_REP_CLOUD, OBSV_2, OBSV_1, rm, obsv1, toMST, services, service_lengths,
                 serverCap);
         // 2 - pred2 -- > obsv2 [GRD]
-        runJournalHeu(sce, GRD, MGR_REP_CLOUD, OBSV_2, PRED_2, rm, pred2GRD, toMST, services, service_lengths,
+        runJournalHeu(campaign, sce, GRD, MGR_REP_CLOUD, OBSV_2, PRED_2, rm, pred2, toMST, services, service_lengths,
                 serverCap);
         // 3 - over2 -- > obsv2 [GRD]
-        runJournalHeu(sce, GRD, MGR_REP_CLOUD, OBSV_2, OVER_2, rm, over2GRD, toMST, services, service_lengths,
+        runJournalHeu(campaign, sce, GRD, MGR_REP_CLOUD, OBSV_2, OVER_2, rm, over2, toMST, services, service_lengths,
                 serverCap);
     }
 
-    private static GRBModel runJournalLP(Scenario sce, String objFunc, String inputFileExtension,
-            String outputFileExtension, ResultsManager resultsManager, GRBModel initPlacementModel, boolean exportMST,
-            ArrayList<Integer> services, ArrayList<Integer> serviceLength, int serverCap) throws GRBException {
-        readParameters(sce.getInputFileName() + "_" + inputFileExtension, false, services, serviceLength, serverCap);
-        sce.setObjFunc(objFunc);
-        sce.setConstraint(PATHS_SERVERS_CLOUD, true);
-        String outputFileName = pm.getGraphName() + "_" + LP + "_" + sce.getObjFunc() + "_" + outputFileExtension;
-        return LauncherLP.run(pm, sce, resultsManager, initPlacementModel, null, outputFileName, exportMST);
+    // the objectives are solved one after another over the same model, a failed objective does not stop the next
+    // ones and the model is released after the last one
+    private static void runJournalLPObjectives(Campaign campaign, Scenario sce, String inputFileExtension,
+            String outputFileExtension, ResultsManager resultsManager, CompletableFuture<VariablesAlg> initPlacement,
+            boolean exportMST, ArrayList<Integer> services, ArrayList<Integer> serviceLength, int serverCap) {
+        ModelCache modelCache = new ModelCache();
+        CompletableFuture<?> after = initPlacement;
+        CompletableFuture<VariablesAlg> job = null;
+        for (String objFunc : new String[] { MGR, REP, CLOUD, MGR_REP_CLOUD }) {
+            job = runJournalLP(campaign, sce, objFunc, inputFileExtension, outputFileExtension, resultsManager,
+                    initPlacement, after, modelCache, exportMST, services, serviceLength, serverCap);
+            after = CompletableFuture.allOf(initPlacement, job.exceptionally(error -> null));
+        }
+        job.whenComplete((result, error) -> modelCache.dispose());
+    }
+
+    private static CompletableFuture<VariablesAlg> runJournalLP(Campaign campaign, Scenario sce, String objFunc,
+            String inputFileExtension, String outputFileExtension, ResultsManager resultsManager,
+            CompletableFuture<VariablesAlg> initPlacement, boolean exportMST, ArrayList<Integer> services,
+            ArrayList<Integer> serviceLength, int serverCap) {
+        return runJournalLP(campaign, sce, objFunc, inputFileExtension, outputFileExtension, resultsManager,
+                initPlacement, initPlacement, null, exportMST, services, serviceLength, serverCap);
+    }
+
+    // the placement of the LP is kept and the model is released as soon as the job finishes, unless it is cached
+    private static CompletableFuture<VariablesAlg> runJournalLP(Campaign campaign, Scenario sce, String objFunc,
+            String inputFileExtension, String outputFileExtension, ResultsManager resultsManager,
+            CompletableFuture<VariablesAlg> initPlacement, CompletableFuture<?> after, ModelCache modelCache,
+            boolean exportMST, ArrayList<Integer> services, ArrayList<Integer> serviceLength, int serverCap) {
+        String jobName = jobName(sce, LP, objFunc, inputFileExtension, outputFileExtension, serviceLength, serverCap);
+        return campaign.submit(jobName, campaign.getLpThreads(), after, threads -> {
+            String inputFileName = sce.getInputFileName() + "_" + inputFileExtension;
+            Parameters parameters;
+            if (modelCache != null)
+                parameters = modelCache.getParameters(inputFileName,
+                        () -> readParameters(inputFileName, false, services, serviceLength, serverCap));
+            else
+                parameters = readParameters(inputFileName, false, services, serviceLength, serverCap);
+            parameters.getGlobal().put(LP_THREADS, threads);
+            Scenario scenario = new Scenario(sce);
+            scenario.setObjFunc(objFunc);
+            scenario.setConstraint(PATHS_SERVERS_CLOUD, true);
+            boolean[][][] initialPlacement = null;
+            if (initPlacement != null)
+                initialPlacement = initPlacement.join().fXSV;
+            String outputFileName = parameters.getGraphName() + "_" + LP + "_" + scenario.getObjFunc() + "_"
+                    + outputFileExtension;
+            ModelLP modelLP = LauncherLP.run(parameters, scenario, resultsManager, initialPlacement, null,
+                    outputFileName, exportMST, modelCache);
+            GRBModel model = modelLP.getGrbModel();
+            GRBEnv env = model.getEnv();
+            try {
+                if (model.get(GRB.IntAttr.SolCount) == 0)
+                    throw new GRBException("no solution found");
+                return new VariablesAlg(parameters, modelLP.getVars());
+            } finally {
+                if (modelCache == null) {
+                    model.dispose();
+                    env.dispose();
+                }
+            }
+        });
     }
 
-    private static VariablesAlg runJournalHeu(Scenario sce, String alg, String objFunc, String inputFileExtension,
-            String outputFileExtension, ResultsManager resultsManager, VariablesAlg initPlacementVars,
-            boolean exportMST,
+    private static CompletableFuture<VariablesAlg> runJournalHeu(Campaign campaign, Scenario sce, String alg,
+            String objFunc, String inputFileExtension, String outputFileExtension, ResultsManager resultsManager,
+            CompletableFuture<VariablesAlg> initPlacement, boolean exportMST, ArrayList<Integer> services,
+            ArrayList<Integer> serviceLength, int serverCap) {
+        String jobName = jobName(sce, alg, objFunc, inputFileExtension, outputFileExtension, serviceLength, serverCap);
+        return campaign.submit(jobName, 1, initPlacement, threads -> {
+            Parameters parameters = readParameters(sce.getInputFileName() + "_" + inputFileExtension, false,
+                    services, serviceLength, serverCap);
+            parameters.getGlobal().put(ALG_THREADS, threads);
+            Scenario scenario = new Scenario(sce);
+            scenario.setName(alg);
+            scenario.setObjFunc(objFunc);
+            VariablesAlg initPlacementVars = initPlacement != null ? initPlacement.join() : null;
+            String outputFileName = parameters.getGraphName() + "_" + alg + "_" + scenario.getObjFunc() + "_"
+                    + outputFileExtension;
+            return LauncherAlg.run(parameters, scenario, resultsManager, initPlacementVars, outputFileName,
+                    exportMST);
+        });
+    }
+
+    private static CompletableFuture<VariablesAlg> runJournalHeuMultiStart(Campaign campaign, Scenario sce,
+            String alg, String objFunc, String inputFileExtension, String outputFileExtension,
+            ResultsManager resultsManager, CompletableFuture<VariablesAlg> initPlacement, boolean exportMST,
             ArrayList<Integer> services, ArrayList<Integer> serviceLength, int serverCap) {
-        readParameters(sce.getInputFileName() + "_" + inputFileExtension, false, services, serviceLength, serverCap);
-        sce.setName(alg);
-        sce.setObjFunc(objFunc);
-        String outputFileName = pm.getGraphName() + "_" + alg + "_" + sce.getObjFunc() + "_" + outputFileExtension;
-        return LauncherAlg.run(pm, sce, resultsManager, initPlacementVars, outputFileName, exportMST);
+        String jobName = jobName(sce, alg, objFunc, inputFileExtension, outputFileExtension, serviceLength, serverCap);
+        return campaign.submit(jobName, NUM_RANDOM_STARTS, initPlacement, threads -> {
+            Parameters parameters = readParameters(sce.getInputFileName() + "_" + inputFileExtension, false,
+                    services, serviceLength, serverCap);
+            parameters.getGlobal().put(ALG_THREADS, threads);
+            Scenario scenario = new Scenario(sce);
+            scenario.setName(alg);
+            scenario.setObjFunc(objFunc);
+            VariablesAlg initPlacementVars = initPlacement != null ? initPlacement.join() : null;
+            String outputFileName = parameters.getGraphName() + "_" + alg + "_" + scenario.getObjFunc() + "_"
+                    + outputFileExtension;
+            return MultiStartRunner.run(parameters, scenario, resultsManager, initPlacementVars, outputFileName,
+                    NUM_RANDOM_STARTS, exportMST).getBest();
+        });
     }
 
+    private static String jobName(Scenario sce, String alg, String objFunc, String inputFileExtension,
+            String outputFileExtension, ArrayList<Integer> serviceLength, int serverCap) {
+        String point = serverCap != 0 ? String.valueOf(serverCap) : String.valueOf(serviceLength.get(0));
+        return sce.getInputFileName() + "_" + point + "_" + alg + "_" + objFunc + "_" + inputFileExtension
+                + outputFileExtension;
+    }
 }
@@ -0,0 +1,57 @@
+package optimizer.algorithms;
+
+import static optimizer.Definitions.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import optimizer.Parameters;
+import optimizer.elements.TopologyIndex;
+import optimizer.results.Auxiliary;
+import optimizer.utils.ConfigFiles;
+
+public class FreeCapacityIndexTest {
+
+   @Test
+   public void serversWithFreeCapacityMatchScan() {
+      String path = Auxiliary.getResourcesPath("example.yml");
+      Parameters pm = ConfigFiles.readParameters(path + "example.yml");
+      pm.getGlobal().put(NODE_NUM_SERVERS, 5); // leaves of the trees that are not servers are also visited
+      pm.initialize(path + "example.dgs", path + "example.txt", (boolean) pm.getGlobal(DIRECTED_EDGES));
+      TopologyIndex ti = pm.getTopologyIndex();
+      int numNodes = pm.getNodes().size();
+      double[] capacity = new double[pm.getServers().size()];
+      for (int x = 0; x < capacity.length; x++)
+         capacity[x] = pm.getServers().get(x).getCapacity();
+      FreeCapacityIndex index = new FreeCapacityIndex(ti, numNodes, capacity);
+      double[] utilization = new double[capacity.length];
+      Random rnd = new Random(0);
+      for (int i = 0; i < 1000; i++) {
+         int x = rnd.nextInt(capacity.length);
+         utilization[x] = rnd.nextDouble() * 1.2;
+         index.update(x, utilization[x]);
+         assertEquals((1.0 - utilization[x]) * capacity[x], index.getFreeCapacity(x), 0.0);
+         int n = rnd.nextInt(numNodes);
+         double required = rnd.nextDouble() * capacity[x];
+         List<Integer> servers = new ArrayList<>();
+         index.addServersWithFreeCapacity(n, required, servers);
+         assertEquals(scan(ti, n, required, utilization, capacity), servers);
+      }
+   }
+
+   // servers of node n in node server order with at least the required free capacity
+   private static List<Integer> scan(TopologyIndex ti, int n, double required, double[] utilization,
+         double[] capacity) {
+      List<Integer> servers = new ArrayList<>();
+      for (int i = ti.getNodeServersStart(n); i < ti.getNodeServersEnd(n); i++) {
+         int x = ti.getNodeServer(i);
+         if ((1.0 - utilization[x]) * capacity[x] + 1e-9 >= required)
+            servers.add(x);
+      }
+      return servers;
+   }
+}
@@ -0,0 +1,40 @@
+package optimizer.algorithms;
+
+import static optimizer.Definitions.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+import org.junit.jupiter.api.Test;
+
+import optimizer.Parameters;
+import optimizer.results.Auxiliary;
+import optimizer.utils.ConfigFiles;
+
+public class IndexKeysTest {
+
+   @Test
+   public void keysAreUnique() {
+      String path = Auxiliary.getResourcesPath("example.yml");
+      Parameters pm = ConfigFiles.readParameters(path + "example.yml");
+      pm.initialize(path + "example.dgs", path + "example.txt", (boolean) pm.getGlobal(DIRECTED_EDGES));
+      IndexKeys keys = new IndexKeys(pm);
+      LongHashSet sd = new LongHashSet();
+      LongHashSet sdp = new LongHashSet();
+      LongHashSet sdpv = new LongHashSet();
+      int count = 0;
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int d = 0; d < pm.getDemandsTrafficFlow(); d++) {
+            sd.add(keys.key(s, d));
+            for (int p = 0; p < pm.getPathsTrafficFlow(); p++) {
+               sdp.add(keys.key(s, d, p));
+               for (int v = 0; v < pm.getServiceLength(); v++) {
+                  sdpv.add(keys.key(s, d, p, v));
+                  count++;
+               }
+            }
+         }
+      assertEquals(pm.getServices().size() * pm.getDemandsTrafficFlow(), sd.size());
+      assertEquals(pm.getServices().size() * pm.getDemandsTrafficFlow() * pm.getPathsTrafficFlow(), sdp.size());
+      assertEquals(count, sdpv.size());
+   }
+}
@@ -0,0 +1,87 @@
+package optimizer.algorithms;
+
+import static optimizer.Definitions.*;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import gurobi.GRBEnv;
+import gurobi.GRBException;
+import optimizer.Manager;
+import optimizer.Parameters;
+import optimizer.gui.ResultsGUI;
+import optimizer.gui.Scenario;
+import optimizer.lp.LauncherLP;
+import optimizer.lp.ModelLP;
+import optimizer.results.Auxiliary;
+import optimizer.results.ResultsManager;
+import optimizer.utils.ConfigFiles;
+
+public class LauncherDecompositionTest {
+
+   private static final double DELTA = 1e-6;
+
+   private final Parameters pm;
+   private final ResultsManager resultsManager;
+
+   public LauncherDecompositionTest() {
+      new ResultsGUI(); // the log messages are also kept for the gui
+      String path = Auxiliary.getResourcesPath("example.yml");
+      pm = ConfigFiles.readParameters(path + "example.yml");
+      pm.getGlobal().put(DECOMPOSITION_ITERATIONS, 5);
+      pm.initialize(path + "example.dgs", path + "example.txt", (boolean) pm.getGlobal(DIRECTED_EDGES));
+      Manager.determineUsedDemands(pm, false);
+      ResultsGUI.initialize(pm);
+      resultsManager = new ResultsManager("decomposition-test");
+   }
+
+   @Test
+   @Tag("gurobi")
+   public void boundIsBelowTheModelOptimum() throws GRBException {
+      Scenario sce = scenario();
+      LauncherDecomposition decomposition = LauncherDecomposition.decompose(pm, sce, resultsManager, "test");
+      assertNotNull(decomposition);
+      assertTrue(decomposition.getIterations() > 0);
+      assertTrue(decomposition.getLowerBound() <= modelObjVal(sce) + DELTA);
+      assertTrue(decomposition.getLowerBound() <= decomposition.getObjVal() + DELTA);
+   }
+
+   @Test
+   public void unsupportedConstraintIsRefused() {
+      Scenario sce = scenario();
+      sce.setConstraint(MAX_SERV_DELAY, true);
+      assertNull(LauncherDecomposition.decompose(pm, sce, resultsManager, "test"));
+   }
+
+   // objective of the full model with the same scenario, the incumbent is above the optimum
+   private double modelObjVal(Scenario sce) throws GRBException {
+      ModelLP modelLP = LauncherLP.buildModel(pm, sce, null, false);
+      try {
+         modelLP.addLazyConstraintsAsRows();
+         modelLP.setObjectiveFunction(
+               LauncherLP.generateExprForObjectiveFunction(pm, modelLP, sce.getObjFunc(), null), false);
+         Double objVal = modelLP.run();
+         assertNotNull(objVal);
+         return objVal;
+      } finally {
+         GRBEnv env = modelLP.getGrbModel().getEnv();
+         modelLP.getGrbModel().dispose();
+         env.dispose();
+      }
+   }
+
+   private static Scenario scenario() {
+      Scenario sce = new Scenario();
+      sce.setName(LGR);
+      sce.setObjFunc(MGR_REP_CLOUD);
+      for (String constraint : new String[] { RP1, RP2, PF1, PF2, PF3, FD1, FD2, FD3 })
+         sce.setConstraint(constraint, true);
+      for (String constraint : new String[] { SYNC_TRAFFIC, MAX_SERV_DELAY, CLOUD_ONLY, EDGE_ONLY, SINGLE_PATH,
+            SET_INIT_PLC, FORCE_SRC, FORCE_DST, CONST_REP })
+         sce.setConstraint(constraint, false);
+      return sce;
+   }
+}
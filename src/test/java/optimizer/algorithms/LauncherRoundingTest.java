@@ -0,0 +1,99 @@
+package optimizer.algorithms;
+
+import static optimizer.Definitions.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import gurobi.GRBException;
+import optimizer.Manager;
+import optimizer.Parameters;
+import optimizer.elements.Service;
+import optimizer.elements.TopologyIndex;
+import optimizer.gui.ResultsGUI;
+import optimizer.gui.Scenario;
+import optimizer.results.Auxiliary;
+import optimizer.results.ResultsManager;
+import optimizer.utils.ConfigFiles;
+
+public class LauncherRoundingTest {
+
+   private static final double DELTA = 1e-9;
+
+   private final Parameters pm;
+   private final ResultsManager resultsManager;
+
+   public LauncherRoundingTest() {
+      new ResultsGUI(); // the log messages are also kept for the gui
+      String path = Auxiliary.getResourcesPath("example.yml");
+      pm = ConfigFiles.readParameters(path + "example.yml");
+      pm.initialize(path + "example.dgs", path + "example.txt", (boolean) pm.getGlobal(DIRECTED_EDGES));
+      Manager.determineUsedDemands(pm, false);
+      ResultsGUI.initialize(pm);
+      resultsManager = new ResultsManager("rounding-test");
+   }
+
+   @Test
+   @Tag("gurobi")
+   public void roundedSolutionIsFeasible() throws GRBException {
+      VariablesAlg vars = LauncherRounding.run(pm, scenario(MGR_REP_CLOUD), resultsManager, "test");
+      assertNotNull(vars);
+      TopologyIndex ti = pm.getTopologyIndex();
+      for (int s = 0; s < pm.getServices().size(); s++) {
+         Service service = pm.getServices().get(s);
+         for (int d = 0; d < service.getTrafficFlow().getDemands().size(); d++) {
+            if (!service.getTrafficFlow().getAux().get(d))
+               continue;
+            assertNull(vars.blockedSD[s][d]);
+            int path = -1, routes = 0;
+            for (int p = 0; p < service.getTrafficFlow().getPaths().size(); p++)
+               if (vars.zSPD[s][p][d]) {
+                  path = p;
+                  routes++;
+               }
+            assertEquals(1, routes);
+            // functions are placed on the path of the demand and in the order of the chain
+            int[] position = new int[pm.getServers().size()];
+            Arrays.fill(position, -1);
+            int[] pathNodes = ti.getPathNodes(s, path);
+            for (int n = 0; n < pathNodes.length; n++)
+               for (int i = ti.getNodeServersStart(pathNodes[n]); i < ti.getNodeServersEnd(pathNodes[n]); i++)
+                  position[ti.getNodeServer(i)] = n;
+            int last = 0;
+            for (int v = 0; v < service.getFunctions().size(); v++) {
+               int x = vars.xSVD[s][v][d];
+               assertTrue(x >= 0 && position[x] >= last);
+               assertTrue(vars.fXSV[x][s][v]);
+               last = position[x];
+            }
+         }
+      }
+      for (double u : vars.uL)
+         assertTrue(u <= 1 + DELTA);
+      for (double u : vars.uX)
+         assertTrue(u <= 1 + DELTA);
+   }
+
+   @Test
+   public void unsupportedObjectiveIsRefused() throws GRBException {
+      assertNull(LauncherRounding.run(pm, scenario(NUM_SERVERS), resultsManager, "test"));
+   }
+
+   private static Scenario scenario(String objFunc) {
+      Scenario sce = new Scenario();
+      sce.setName(LPR);
+      sce.setObjFunc(objFunc);
+      for (String constraint : new String[] { RP1, RP2, PF1, PF2, PF3, FD1, FD2, FD3 })
+         sce.setConstraint(constraint, true);
+      for (String constraint : new String[] { SYNC_TRAFFIC, MAX_SERV_DELAY, CLOUD_ONLY, EDGE_ONLY, SINGLE_PATH,
+            SET_INIT_PLC, FORCE_SRC, FORCE_DST, CONST_REP })
+         sce.setConstraint(constraint, false);
+      return sce;
+   }
+}
@@ -0,0 +1,127 @@
+package optimizer.algorithms;
+
+import static optimizer.Definitions.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import optimizer.Manager;
+import optimizer.Parameters;
+import optimizer.algorithms.heuristics.HeuristicAlgorithm;
+import optimizer.results.Auxiliary;
+import optimizer.utils.ConfigFiles;
+
+public class MoveJournalTest {
+
+   private static final double DELTA = 1e-9;
+
+   private final Parameters pm;
+   private final VariablesAlg vars;
+   private final NetworkManager networkManager;
+
+   public MoveJournalTest() {
+      String path = Auxiliary.getResourcesPath("example.yml");
+      pm = ConfigFiles.readParameters(path + "example.yml");
+      pm.initialize(path + "example.dgs", path + "example.txt", (boolean) pm.getGlobal(DIRECTED_EDGES));
+      Manager.determineUsedDemands(pm, false);
+      vars = new VariablesAlg(pm, null, MGR_REP);
+      networkManager = new NetworkManager(pm, vars);
+      new HeuristicAlgorithm(pm, vars, networkManager).allocateServices(FF);
+   }
+
+   @Test
+   public void rollbackRestoresState() {
+      State before = new State(vars);
+      networkManager.beginMove();
+      moveDemand(0, 0);
+      assertFalse(Arrays.deepEquals(before.xSVD, vars.xSVD));
+      networkManager.rollbackMove();
+      before.assertRestored(vars);
+   }
+
+   @Test
+   public void rollbackAfterNestedCommitRestoresState() {
+      State before = new State(vars);
+      networkManager.beginMove();
+      moveDemand(0, 0);
+      networkManager.beginMove();
+      moveDemand(0, 1);
+      networkManager.commitMove();
+      networkManager.rollbackMove();
+      before.assertRestored(vars);
+   }
+
+   @Test
+   public void nestedRollbackKeepsOuterMove() {
+      networkManager.beginMove();
+      moveDemand(0, 0);
+      State afterFirstMove = new State(vars);
+      networkManager.beginMove();
+      moveDemand(0, 1);
+      networkManager.rollbackMove();
+      afterFirstMove.assertRestored(vars);
+      networkManager.rollbackMove();
+   }
+
+   // reroutes the demand over another path and places all its functions on another server
+   private void moveDemand(int s, int d) {
+      int paths = pm.getServices().get(s).getTrafficFlow().getPaths().size();
+      int pOld = 0;
+      while (!vars.zSPD[s][pOld][d])
+         pOld++;
+      int pNew = (pOld + 1) % paths;
+      int xNew = (vars.xSVD[s][0][d] + 1) % pm.getServers().size();
+      networkManager.removeDemandFromAllFunctionsToServer(s, d);
+      networkManager.removeDemandFromPath(s, pOld, d);
+      networkManager.addDemandToPath(s, pNew, d);
+      for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+         networkManager.addDemandToFunctionToServer(s, xNew, v, d);
+      networkManager.removeUnusedFunctions(s);
+      networkManager.updateSyncTraffic(s);
+   }
+
+   private static class State {
+
+      private final double[] uX;
+      private final double[] uL;
+      private final int[][][] xSVD;
+      private final boolean[][][] zSPD;
+      private final boolean[][] zSP;
+      private final boolean[][][] fXSV;
+      private final double objVal;
+
+      private State(VariablesAlg vars) {
+         uX = vars.uX.clone();
+         uL = vars.uL.clone();
+         xSVD = deepCopy(vars.xSVD);
+         zSPD = deepCopy(vars.zSPD);
+         zSP = Arrays.stream(vars.zSP).map(boolean[]::clone).toArray(boolean[][]::new);
+         fXSV = deepCopy(vars.fXSV);
+         objVal = vars.objVal;
+      }
+
+      private void assertRestored(VariablesAlg vars) {
+         assertArrayEquals(uX, vars.uX, DELTA);
+         assertArrayEquals(uL, vars.uL, DELTA);
+         assertArrayEquals(xSVD, vars.xSVD);
+         assertArrayEquals(zSPD, vars.zSPD);
+         assertArrayEquals(zSP, vars.zSP);
+         assertArrayEquals(fXSV, vars.fXSV);
+         assertEquals(objVal, vars.objVal, DELTA);
+      }
+
+      private static int[][][] deepCopy(int[][][] array) {
+         return Arrays.stream(array).map(a -> Arrays.stream(a).map(int[]::clone).toArray(int[][]::new))
+               .toArray(int[][][]::new);
+      }
+
+      private static boolean[][][] deepCopy(boolean[][][] array) {
+         return Arrays.stream(array).map(a -> Arrays.stream(a).map(boolean[]::clone).toArray(boolean[][]::new))
+               .toArray(boolean[][][]::new);
+      }
+   }
+}
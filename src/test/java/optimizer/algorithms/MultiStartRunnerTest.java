@@ -0,0 +1,94 @@
+package optimizer.algorithms;
+
+import static optimizer.Definitions.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import optimizer.Manager;
+import optimizer.Parameters;
+import optimizer.gui.ResultsGUI;
+import optimizer.gui.Scenario;
+import optimizer.results.Auxiliary;
+import optimizer.results.ResultsManager;
+import optimizer.utils.ConfigFiles;
+
+public class MultiStartRunnerTest {
+
+   private static final int NUM_STARTS = 4;
+   private static final double DELTA = 1e-9;
+
+   private final Parameters pm;
+   private final Scenario sce;
+   private final ResultsManager resultsManager;
+
+   public MultiStartRunnerTest() {
+      new ResultsGUI(); // the log messages are also kept for the gui
+      String path = Auxiliary.getResourcesPath("example.yml");
+      pm = ConfigFiles.readParameters(path + "example.yml");
+      pm.initialize(path + "example.dgs", path + "example.txt", (boolean) pm.getGlobal(DIRECTED_EDGES));
+      Manager.determineUsedDemands(pm, false);
+      ResultsGUI.initialize(pm);
+      sce = new Scenario();
+      sce.setName(RF);
+      sce.setObjFunc(MGR);
+      sce.setConstraint(SYNC_TRAFFIC, false);
+      resultsManager = new ResultsManager("multi-start-test");
+   }
+
+   @Test
+   public void bestIsTheLowestOfTheFinishedStarts() {
+      MultiStartRunner runner = MultiStartRunner.run(pm, sce, resultsManager, "test", NUM_STARTS, false,
+            (rnd, tracker, evaluationPool) -> LauncherAlg.optimize(pm, sce, null, rnd, tracker, evaluationPool));
+      assertEquals(0, runner.getNumFailed());
+      double min = Double.MAX_VALUE, sum = 0;
+      for (double objVal : runner.getObjValues()) {
+         min = Math.min(min, objVal);
+         sum += objVal;
+      }
+      assertEquals(min, runner.getBestObjVal(), DELTA);
+      assertEquals(runner.getObjValues()[runner.getBestStart()], runner.getBestObjVal(), DELTA);
+      assertEquals(sum / NUM_STARTS, runner.getMeanObjVal(), DELTA);
+   }
+
+   @Test
+   public void failedStartIsRecordedAndSkipped() {
+      AtomicBoolean first = new AtomicBoolean(true);
+      MultiStartRunner runner = MultiStartRunner.run(pm, sce, resultsManager, "test", NUM_STARTS, false,
+            (rnd, tracker, evaluationPool) -> {
+               if (first.getAndSet(false))
+                  throw new IllegalStateException("start failed on purpose");
+               return LauncherAlg.optimize(pm, sce, null, rnd, tracker, evaluationPool);
+            });
+      assertEquals(1, runner.getNumFailed());
+      double min = Double.MAX_VALUE, sum = 0;
+      for (int i = 0; i < NUM_STARTS; i++) {
+         if (runner.getFailed()[i]) {
+            assertTrue(Double.isNaN(runner.getObjValues()[i]));
+            continue;
+         }
+         min = Math.min(min, runner.getObjValues()[i]);
+         sum += runner.getObjValues()[i];
+      }
+      assertFalse(runner.getFailed()[runner.getBestStart()]);
+      assertEquals(min, runner.getBestObjVal(), DELTA);
+      assertEquals(sum / (NUM_STARTS - 1), runner.getMeanObjVal(), DELTA);
+   }
+
+   @Test
+   public void allStartsFailed() {
+      MultiStartRunner runner = MultiStartRunner.run(pm, sce, resultsManager, "test", NUM_STARTS, false,
+            (rnd, tracker, evaluationPool) -> {
+               throw new IllegalStateException("start failed on purpose");
+            });
+      assertEquals(NUM_STARTS, runner.getNumFailed());
+      assertNull(runner.getBest());
+      assertEquals(-1, runner.getBestStart());
+      assertTrue(Double.isNaN(runner.getMeanObjVal()));
+   }
+}
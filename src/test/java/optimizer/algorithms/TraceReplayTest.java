@@ -0,0 +1,73 @@
+package optimizer.algorithms;
+
+import static optimizer.Definitions.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import optimizer.Parameters;
+import optimizer.gui.ResultsGUI;
+import optimizer.results.Auxiliary;
+import optimizer.utils.ConfigFiles;
+
+public class TraceReplayTest {
+
+   private final Parameters pm;
+   private final File eventsFile;
+
+   public TraceReplayTest() throws IOException {
+      new ResultsGUI(); // the log messages are also kept for the gui
+      String path = Auxiliary.getResourcesPath("example.yml");
+      pm = ConfigFiles.readParameters(path + "example.yml");
+      pm.initialize(path + "example.dgs", path + "example.txt", (boolean) pm.getGlobal(DIRECTED_EDGES));
+      eventsFile = File.createTempFile("events", ".txt");
+   }
+
+   @AfterEach
+   public void delete() {
+      eventsFile.delete();
+   }
+
+   @Test
+   public void eventsAreSortedByTimeKeepingTheFileOrder() throws IOException {
+      write("2.0 depart 0 0", "1.0 arrive 0 0", "2.0 arrive 0 1", "0.5 arrive 0 1");
+      List<double[]> trace = TraceReplay.readEvents(pm, eventsFile.getPath());
+      assertEquals(4, trace.size());
+      assertArrayEquals(new double[] { 0.5, 0, 0, 1 }, trace.get(0));
+      assertArrayEquals(new double[] { 1.0, 0, 0, 0 }, trace.get(1));
+      assertArrayEquals(new double[] { 2.0, 1, 0, 0 }, trace.get(2));
+      assertArrayEquals(new double[] { 2.0, 0, 0, 1 }, trace.get(3));
+   }
+
+   @Test
+   public void wrongLinesAreSkipped() throws IOException {
+      int services = pm.getServices().size();
+      int demands = pm.getServices().get(0).getTrafficFlow().getDemands().size();
+      write("# time event s d", "", "1.0 arrive 0 0", "1.5 arrive 0 " + demands, "2.0 arrive " + services + " 0",
+            "2.5 leave 0 0", "3.0 arrive zero 0", "3.5 arrive 0", "4.0 depart 0 0");
+      List<double[]> trace = TraceReplay.readEvents(pm, eventsFile.getPath());
+      assertEquals(2, trace.size());
+      assertArrayEquals(new double[] { 1.0, 0, 0, 0 }, trace.get(0));
+      assertArrayEquals(new double[] { 4.0, 1, 0, 0 }, trace.get(1));
+   }
+
+   @Test
+   public void missingFileHasNoEvents() {
+      assertTrue(TraceReplay.readEvents(pm, eventsFile.getPath() + ".missing").isEmpty());
+   }
+
+   private void write(String... lines) throws IOException {
+      try (PrintWriter writer = new PrintWriter(eventsFile)) {
+         for (String line : lines)
+            writer.println(line);
+      }
+   }
+}
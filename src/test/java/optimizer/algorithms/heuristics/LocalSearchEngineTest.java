@@ -0,0 +1,85 @@
+package optimizer.algorithms.heuristics;
+
+import static optimizer.Definitions.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import optimizer.Manager;
+import optimizer.Parameters;
+import optimizer.algorithms.IncumbentTracker;
+import optimizer.algorithms.NetworkManager;
+import optimizer.algorithms.VariablesAlg;
+import optimizer.gui.ResultsGUI;
+import optimizer.results.Auxiliary;
+import optimizer.utils.ConfigFiles;
+
+public class LocalSearchEngineTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final Parameters pm;
+
+    public LocalSearchEngineTest() {
+        new ResultsGUI(); // the log messages are also kept for the gui
+        String path = Auxiliary.getResourcesPath("example.yml");
+        pm = ConfigFiles.readParameters(path + "example.yml");
+        pm.getGlobal().put(LS_MAX_ITERATIONS, 500);
+        // every feasible move is accepted, so the search walks away from the best solution it finds
+        pm.getGlobal().put(LS_INITIAL_TEMPERATURE, 1e9);
+        pm.getGlobal().put(LS_COOLING_RATE, 1.0);
+        pm.initialize(path + "example.dgs", path + "example.txt", (boolean) pm.getGlobal(DIRECTED_EDGES));
+        Manager.determineUsedDemands(pm, false);
+    }
+
+    @Test
+    public void annealingRestoresTheBestSolution() {
+        pm.getGlobal().put(LS_ACCEPTANCE, LS_SA);
+        assertRestoresTheBestSolution();
+    }
+
+    @Test
+    public void tabuRestoresTheBestSolution() {
+        pm.getGlobal().put(LS_ACCEPTANCE, LS_TABU);
+        assertRestoresTheBestSolution();
+    }
+
+    private void assertRestoresTheBestSolution() {
+        VariablesAlg vars = new VariablesAlg(pm, null, MGR);
+        NetworkManager networkManager = new NetworkManager(pm, vars);
+        new HeuristicAlgorithm(pm, vars, networkManager).allocateServices(FF);
+        double startObjVal = vars.objVal;
+        IncumbentTracker tracker = IncumbentTracker.unbounded();
+        LocalSearchEngine localSearchEngine = new LocalSearchEngine(pm, vars, networkManager, new Random(0));
+        localSearchEngine.setIncumbentTracker(tracker);
+        localSearchEngine.run();
+        assertTrue(vars.objVal <= startObjVal);
+        assertEquals(tracker.getBestObjVal(), vars.objVal, DELTA);
+        assertConsistent(vars);
+    }
+
+    // the state left by the rolled back moves and the restored snapshot matches the same placement built from scratch
+    private void assertConsistent(VariablesAlg vars) {
+        VariablesAlg rebuilt = new VariablesAlg(pm, null, MGR);
+        NetworkManager networkManager = new NetworkManager(pm, rebuilt);
+        for (int s = 0; s < pm.getServices().size(); s++) {
+            for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+                for (int p = 0; p < pm.getServices().get(s).getTrafficFlow().getPaths().size(); p++) {
+                    if (!vars.zSPD[s][p][d])
+                        continue;
+                    for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+                        networkManager.addDemandToFunctionToServer(s, vars.xSVD[s][v][d], v, d);
+                    networkManager.addDemandToPath(s, p, d);
+                }
+            networkManager.updateSyncTraffic(s);
+        }
+        assertArrayEquals(rebuilt.uX, vars.uX, DELTA);
+        assertArrayEquals(rebuilt.uL, vars.uL, DELTA);
+        assertArrayEquals(rebuilt.fXSV, vars.fXSV);
+        assertEquals(rebuilt.objVal, vars.objVal, DELTA);
+    }
+}
@@ -0,0 +1,86 @@
+package optimizer.lp;
+
+import static optimizer.Definitions.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+import optimizer.Parameters;
+import optimizer.gui.ResultsGUI;
+import optimizer.gui.Scenario;
+import optimizer.lp.ModelCache.ModelKey;
+import optimizer.results.Auxiliary;
+import optimizer.utils.ConfigFiles;
+
+public class ModelCacheTest {
+
+   private final Parameters pm;
+
+   public ModelCacheTest() {
+      new ResultsGUI(); // the log messages are also kept for the gui
+      String path = Auxiliary.getResourcesPath("example.yml");
+      pm = ConfigFiles.readParameters(path + "example.yml");
+      pm.initialize(path + "example.dgs", path + "example.txt", (boolean) pm.getGlobal(DIRECTED_EDGES));
+   }
+
+   @Test
+   public void equalPlacementsShareAModel() {
+      ModelKey key = new ModelKey(pm, scenario(MGR), placement(), false);
+      ModelKey other = new ModelKey(pm, scenario(MGR), placement(), false);
+      assertEquals(key, other);
+      assertEquals(key.hashCode(), other.hashCode());
+   }
+
+   @Test
+   public void differentPlacementsDoNotShareAModel() {
+      boolean[][][] moved = placement();
+      moved[0][0][0] = false;
+      moved[1][0][0] = true;
+      assertNotEquals(new ModelKey(pm, scenario(MGR), placement(), false),
+            new ModelKey(pm, scenario(MGR), moved, false));
+      assertNotEquals(new ModelKey(pm, scenario(MGR), placement(), false),
+            new ModelKey(pm, scenario(MGR), null, false));
+   }
+
+   @Test
+   public void placementIsCopied() {
+      boolean[][][] placement = placement();
+      ModelKey key = new ModelKey(pm, scenario(MGR), placement, false);
+      placement[0][0][0] = false;
+      assertEquals(new ModelKey(pm, scenario(MGR), placement(), false), key);
+   }
+
+   @Test
+   public void constraintsAndModelObjectivesAreCompared() {
+      Scenario sce = scenario(MGR);
+      sce.setConstraint(PF2, false);
+      assertNotEquals(new ModelKey(pm, scenario(MGR), placement(), false), new ModelKey(pm, sce, placement(), false));
+      // objectives of the general model share it, the ones adding variables do not
+      assertEquals(new ModelKey(pm, scenario(MGR), placement(), false),
+            new ModelKey(pm, scenario(REP), placement(), false));
+      assertNotEquals(new ModelKey(pm, scenario(MGR), placement(), false),
+            new ModelKey(pm, scenario(DIMEN_LINK_CAP), placement(), false));
+      assertNotEquals(new ModelKey(pm, scenario(MGR), placement(), false),
+            new ModelKey(pm, scenario(MGR), placement(), true));
+   }
+
+   // every function of every service on the first server, as [x][s][v]
+   private boolean[][][] placement() {
+      boolean[][][] placement = new boolean[pm.getServers().size()][pm.getServices().size()][];
+      for (int x = 0; x < pm.getServers().size(); x++)
+         for (int s = 0; s < pm.getServices().size(); s++)
+            placement[x][s] = new boolean[pm.getServices().get(s).getFunctions().size()];
+      for (int s = 0; s < pm.getServices().size(); s++)
+         for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+            placement[0][s][v] = true;
+      return placement;
+   }
+
+   private static Scenario scenario(String objFunc) {
+      Scenario sce = new Scenario();
+      sce.setObjFunc(objFunc);
+      sce.setConstraint(PF2, true);
+      return sce;
+   }
+}
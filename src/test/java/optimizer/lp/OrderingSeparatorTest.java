@@ -0,0 +1,120 @@
+package optimizer.lp;
+
+import static optimizer.Definitions.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import gurobi.GRBEnv;
+import gurobi.GRBException;
+import gurobi.GRBVar;
+import optimizer.Manager;
+import optimizer.Parameters;
+import optimizer.elements.TopologyIndex;
+import optimizer.gui.ResultsGUI;
+import optimizer.gui.Scenario;
+import optimizer.results.Auxiliary;
+import optimizer.utils.ConfigFiles;
+
+@Tag("gurobi")
+public class OrderingSeparatorTest {
+
+   private static final int S = 0, D = 0, P = 0;
+
+   private final Parameters pm;
+   private final ModelLP modelLP;
+   private final TopologyIndex ti;
+   private final VariablesLP vars;
+   private final Map<GRBVar, Integer> index;
+   private final int[] pathNodes;
+   private final int functions;
+
+   public OrderingSeparatorTest() throws GRBException {
+      new ResultsGUI(); // the log messages are also kept for the gui
+      String path = Auxiliary.getResourcesPath("example.yml");
+      pm = ConfigFiles.readParameters(path + "example.yml");
+      pm.initialize(path + "example.dgs", path + "example.txt", (boolean) pm.getGlobal(DIRECTED_EDGES));
+      Manager.determineUsedDemands(pm, false);
+      ti = pm.getTopologyIndex();
+      Scenario sce = new Scenario();
+      sce.setObjFunc(MGR);
+      modelLP = new ModelLP(pm);
+      vars = new VariablesLP(pm, modelLP.getGrbModel(), sce, false);
+      index = new IdentityHashMap<>();
+      GRBVar[] separationVars = new OrderingSeparator(pm, vars, true, true).getSeparationVars();
+      for (int i = 0; i < separationVars.length; i++)
+         index.put(separationVars[i], i);
+      pathNodes = ti.getPathNodes(S, P);
+      functions = pm.getServices().get(S).getFunctions().size();
+   }
+
+   @AfterEach
+   public void dispose() throws GRBException {
+      GRBEnv env = modelLP.getGrbModel().getEnv();
+      modelLP.getGrbModel().dispose();
+      env.dispose();
+   }
+
+   @Test
+   public void orderedPlacementHasNoCuts() {
+      double[] values = routed();
+      for (int v = 0; v < functions; v++)
+         place(values, v, serverOfNode(pathNodes[0]));
+      assertEquals(0, new OrderingSeparator(pm, vars, true, true).separate(values).size());
+   }
+
+   @Test
+   public void functionOffThePathIsCut() {
+      double[] values = routed();
+      for (int v = 0; v < functions; v++)
+         place(values, v, serverOfNode(pathNodes[0]));
+      values[index.get(vars.fXSVD[serverOfNode(pathNodes[0])][S][1][D])] = 0;
+      place(values, 1, serverOfNode(nodeOffThePath()));
+      // PF2 for the function and FD3 for the next one, whose previous function is not on the path
+      assertEquals(2, new OrderingSeparator(pm, vars, true, true).separate(values).size());
+      assertEquals(1, new OrderingSeparator(pm, vars, true, false).separate(values).size());
+   }
+
+   @Test
+   public void functionsOutOfOrderAreCut() {
+      double[] values = routed();
+      place(values, 0, serverOfNode(pathNodes[pathNodes.length - 1]));
+      for (int v = 1; v < functions; v++)
+         place(values, v, serverOfNode(pathNodes[0]));
+      OrderingSeparator separator = new OrderingSeparator(pm, vars, true, true);
+      assertEquals(1, separator.separate(values).size());
+      assertEquals(1, separator.getNumCuts());
+      assertEquals(0, new OrderingSeparator(pm, vars, true, false).separate(values).size());
+   }
+
+   // demand D of service S routed over path P and nothing placed
+   private double[] routed() {
+      double[] values = new double[index.size()];
+      values[index.get(vars.zSPD[S][P][D])] = 1;
+      return values;
+   }
+
+   private void place(double[] values, int v, int x) {
+      values[index.get(vars.fXSVD[x][S][v][D])] = 1;
+   }
+
+   private int serverOfNode(int n) {
+      return ti.getNodeServer(ti.getNodeServersStart(n));
+   }
+
+   private int nodeOffThePath() {
+      for (int n = 0; n < pm.getNodes().size(); n++) {
+         boolean onPath = false;
+         for (int m : pathNodes)
+            onPath |= m == n;
+         if (!onPath)
+            return n;
+      }
+      throw new IllegalStateException("path traverses all nodes");
+   }
+}
@@ -0,0 +1,124 @@
+package optimizer.lp;
+
+import static optimizer.Definitions.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.graphstream.graph.Node;
+import org.graphstream.graph.Path;
+import org.junit.jupiter.api.Test;
+
+import optimizer.Manager;
+import optimizer.Parameters;
+import optimizer.elements.Server;
+import optimizer.elements.Service;
+import optimizer.gui.ResultsGUI;
+import optimizer.gui.Scenario;
+import optimizer.results.Auxiliary;
+import optimizer.utils.ConfigFiles;
+
+public class PresolveTest {
+
+   // between the two demands of the example, 100 and 300
+   private static final int SERVER_CAPACITY_VALUE = 200;
+
+   private final Parameters pm;
+
+   public PresolveTest() {
+      new ResultsGUI(); // the log messages are also kept for the gui
+      String path = Auxiliary.getResourcesPath("example.yml");
+      pm = ConfigFiles.readParameters(path + "example.yml");
+      pm.getGlobal().put(SERVER_CAPACITY, SERVER_CAPACITY_VALUE);
+      pm.initialize(path + "example.dgs", path + "example.txt", (boolean) pm.getGlobal(DIRECTED_EDGES));
+      Manager.determineUsedDemands(pm, false);
+   }
+
+   @Test
+   public void serversOffThePathsCannotHost() {
+      Scenario sce = scenario(MGR);
+      sce.setConstraint(PF2, true);
+      Presolve presolve = new Presolve(pm, sce);
+      int hosting = 0, total = 0;
+      for (int x = 0; x < pm.getServers().size(); x++)
+         for (int s = 0; s < pm.getServices().size(); s++)
+            for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++) {
+                  boolean expected = isOnPath(pm.getServers().get(x), pm.getServices().get(s)) && fits(x, s, v, d);
+                  assertEquals(expected, presolve.canHost(x, s, v, d), "[x][s][v][d] = [" + x + "][" + s + "][" + v
+                        + "][" + d + "]");
+                  if (expected)
+                     hosting++;
+                  total++;
+               }
+      assertTrue(hosting > 0 && hosting < total);
+   }
+
+   @Test
+   public void serversWithoutCapacityCanHostWhenDimensioning() {
+      Scenario sce = scenario(DIMEN_SERVER_CAP);
+      Presolve presolve = new Presolve(pm, sce);
+      for (int x = 0; x < pm.getServers().size(); x++)
+         for (int s = 0; s < pm.getServices().size(); s++)
+            for (int v = 0; v < pm.getServices().get(s).getFunctions().size(); v++)
+               for (int d = 0; d < pm.getServices().get(s).getTrafficFlow().getDemands().size(); d++)
+                  assertTrue(presolve.canHost(x, s, v, d));
+   }
+
+   @Test
+   public void cloudOnlyExcludesEdgeServers() {
+      Scenario sce = scenario(MGR);
+      sce.setConstraint(PF3, true);
+      sce.setConstraint(FD2, true);
+      sce.setConstraint(CLOUD_ONLY, true);
+      Presolve presolve = new Presolve(pm, sce);
+      int edgeServers = 0;
+      for (int x = 0; x < pm.getServers().size(); x++) {
+         boolean cloud = (int) pm.getServers().get(x).getParent().getAttribute(NODE_TYPE) == NODE_TYPE_CLOUD;
+         if (!cloud) {
+            assertFalse(presolve.canHost(x, 0, 0, 0));
+            edgeServers++;
+         }
+      }
+      assertTrue(edgeServers > 0);
+   }
+
+   @Test
+   public void inactiveDemandsCannotHost() {
+      pm.getServices().get(0).getTrafficFlow().getAux().set(0, false);
+      Presolve presolve = new Presolve(pm, scenario(MGR));
+      for (int x = 0; x < pm.getServers().size(); x++)
+         assertFalse(presolve.canHost(x, 0, 0, 0));
+   }
+
+   @Test
+   public void disabledKeepsAllVariables() {
+      pm.getServices().get(0).getTrafficFlow().getAux().set(0, false);
+      Presolve presolve = Presolve.disabled(pm);
+      for (int x = 0; x < pm.getServers().size(); x++)
+         assertTrue(presolve.canHost(x, 0, 0, 0));
+      for (int p = 0; p < pm.getServices().get(0).getTrafficFlow().getPaths().size(); p++)
+         assertTrue(presolve.isPathAdmissible(0, p));
+   }
+
+   private static Scenario scenario(String objFunc) {
+      Scenario sce = new Scenario();
+      sce.setObjFunc(objFunc);
+      return sce;
+   }
+
+   private static boolean isOnPath(Server server, Service service) {
+      for (Path path : service.getTrafficFlow().getPaths())
+         for (Node node : path.getNodePath())
+            if (node == server.getParent())
+               return true;
+      return false;
+   }
+
+   private boolean fits(int x, int s, int v, int d) {
+      Service service = pm.getServices().get(s);
+      double load = service.getTrafficFlow().getDemands().get(d)
+            * service.getFunctions().get(v).getProfile().getLoadRatio();
+      return load <= pm.getServers().get(x).getCapacity();
+   }
+}
@@ -0,0 +1,107 @@
+package optimizer.scenarios;
+
+import static optimizer.Definitions.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import optimizer.Manager;
+import optimizer.Parameters;
+import optimizer.gui.ResultsGUI;
+import optimizer.results.Auxiliary;
+import optimizer.results.ResultsManager;
+import optimizer.utils.ConfigFiles;
+
+public class CampaignTest {
+
+    private static final int CORES = 2;
+
+    private final Campaign campaign;
+
+    public CampaignTest() {
+        new ResultsGUI(); // the log messages are also kept for the gui
+        String path = Auxiliary.getResourcesPath("example.yml");
+        Parameters pm = ConfigFiles.readParameters(path + "example.yml");
+        pm.getGlobal().put(CAMPAIGN_CORES, CORES);
+        campaign = new Campaign(pm, new ResultsManager("campaign-test"));
+    }
+
+    @AfterEach
+    public void reset() {
+        Manager.reset();
+    }
+
+    @Test
+    public void jobGetsTheReservedCores() {
+        assertEquals(1, (int) campaign.submit("one", 1, null, threads -> threads).join());
+        assertEquals(CORES, (int) campaign.submit("all", CORES + 1, null, threads -> threads).join());
+        campaign.await();
+    }
+
+    @Test
+    public void jobsDoNotUseMoreThanTheCores() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        for (int i = 0; i < 4; i++)
+            campaign.submit("job" + i, 1, null, threads -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(50);
+                running.decrementAndGet();
+                return null;
+            });
+        campaign.submit("wide", CORES, null, threads -> {
+            maxRunning.accumulateAndGet(running.addAndGet(threads), Math::max);
+            Thread.sleep(50);
+            running.addAndGet(-threads);
+            return null;
+        });
+        campaign.await();
+        assertTrue(maxRunning.get() <= CORES);
+    }
+
+    @Test
+    public void childrenOfAFailedJobAreSkipped() {
+        AtomicBoolean childRan = new AtomicBoolean();
+        CompletableFuture<Object> parent = campaign.submit("parent", 1, null, threads -> {
+            throw new IllegalStateException("parent failed on purpose");
+        });
+        CompletableFuture<Object> child = campaign.submit("child", 1, parent, threads -> {
+            childRan.set(true);
+            return null;
+        });
+        CompletableFuture<Object> grandchild = campaign.submit("grandchild", 1, child, threads -> {
+            childRan.set(true);
+            return null;
+        });
+        CompletableFuture<Object> sibling = campaign.submit("sibling", 1, null, threads -> "done");
+        campaign.await();
+        assertTrue(child.isCompletedExceptionally());
+        assertTrue(grandchild.isCompletedExceptionally());
+        assertFalse(childRan.get());
+        assertEquals("done", sibling.join());
+    }
+
+    @Test
+    public void noJobStartsAfterAStop() {
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<Object> first = campaign.submit("first", 1, null, threads -> {
+            Manager.terminate();
+            return null;
+        });
+        CompletableFuture<Object> second = campaign.submit("second", 1, first, threads -> {
+            ran.set(true);
+            return null;
+        });
+        campaign.await();
+        assertFalse(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertFalse(ran.get());
+    }
+}